@@ -2,71 +2,57 @@ package org.wildfly.modelgraph.analyzer;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
-import java.util.function.BiConsumer;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
 
 import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.multimap.MutableMultimap;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.eclipse.collections.impl.multimap.list.FastListMultimap;
-import org.jboss.dmr.ModelNode;
-import org.jboss.dmr.ModelType;
-import org.jboss.dmr.Property;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wildfly.modelgraph.analyzer.dmr.Identity;
 import org.wildfly.modelgraph.analyzer.dmr.ManagementModel;
 import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
-import org.wildfly.modelgraph.analyzer.neo4j.Cypher;
-import org.wildfly.modelgraph.analyzer.neo4j.GraphClient;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Attribute;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Capability;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.DeprecationInfo;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Operation;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Parameter;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Sensitive;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeReferencesCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ChildOf;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.DeclaresCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.IdentityNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.OperationNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterReferencesCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ProvidesGlobalOperation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Relation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ResourceNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.SensitiveConstraint;
+import org.wildfly.modelgraph.analyzer.graph.GraphWriter;
 
 import static java.util.stream.Collectors.joining;
-import static java.util.stream.Collectors.toList;
-
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ACCESS_CONSTRAINTS;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ACCESS_TYPE;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ADDRESS;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALIAS;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALLOWED;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALTERNATIVES;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ARTIFACT_ID;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ATTRIBUTES;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ATTRIBUTE_GROUP;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CAPABILITIES;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CAPABILITY_REFERENCE;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILD;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILD_DESCRIPTIONS;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DEFAULT;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DEPRECATED;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DESCRIPTION;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.EXPRESSIONS_ALLOWED;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.GLOBAL;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.GROUP_ID;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.IDENTIFIER;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.LICENSES;
+
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.LIST_ADD;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.LIST_CLEAR;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.LIST_GET;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.LIST_REMOVE;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAJOR;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAP_CLEAR;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAP_GET;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAP_PUT;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAP_REMOVE;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAX;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAX_LENGTH;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MIN;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MINOR;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MIN_LENGTH;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NAME;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NILLABLE;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.OPERATIONS;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.OPERATION_NAME;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ORDINAL;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.PARENT;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.PATCH;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.QUERY;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_ATTRIBUTE;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_ATTRIBUTE_GROUP;
@@ -74,38 +60,19 @@ import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_CHILDREN_NAMES;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_CHILDREN_RESOURCES;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_CHILDREN_TYPES;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_ONLY;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_OPERATION_DESCRIPTION;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_OPERATION_NAMES;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_RESOURCE;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REASON;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REPLY_PROPERTIES;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REQUEST_PROPERTIES;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REQUIRED;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REQUIRES;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RESTART_REQUIRED;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RESULT;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RETURN_VALUE;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RUNTIME_ONLY;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SCM_URL;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SENSITIVE;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SINCE;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SINGLETON;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STABILITY;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STORAGE;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.TYPE;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.UNDEFINE_ATTRIBUTE;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.UNIT;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.URL;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.VALUE_TYPE;
-import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.VERSION;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.WHOAMI;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.WRITE_ATTRIBUTE;
 
 class Analyzer {
 
-    private static final int MAX_DEPTH = 10;
+    static final int MAX_DEPTH = 10;
+    private static final int FORK_LEVELS = 2;
     private static final Logger logger = LoggerFactory.getLogger(Analyzer.class);
     private static final ImmutableSet<String> GLOBAL_OPERATIONS = Sets.immutable.of(
             // ADD and REMOVE are not stored as global operations
@@ -133,21 +100,79 @@ class Analyzer {
             WRITE_ATTRIBUTE);
 
     private final ManagementModel mm;
-    private final GraphClient nc;
+    private final GraphWriter gw;
+    private final int workers;
+    private final int queueSize;
     private final Stats stats;
     private final Set<String> missingGlobalOperations;
+    private final Set<String> committedGlobalOperations;
+    private final Queue<ProvidesGlobalOperation> deferredGlobalOperations;
+    private final List<String> claimedGlobalOperations;
+
+    Analyzer(ManagementModel mm, GraphWriter gw) {
+        this(mm, gw, 1);
+    }
 
-    Analyzer(ManagementModel mm, GraphClient nc) {
+    Analyzer(ManagementModel mm, GraphWriter gw, int workers) {
+        this(mm, gw, workers, 0);
+    }
+
+    /**
+     * @param workers   analyze independent subtrees in parallel using that many threads
+     * @param queueSize if greater than zero, run the analyzer as a {@link Pipeline} with queues of that size
+     */
+    Analyzer(ManagementModel mm, GraphWriter gw, int workers, int queueSize) {
         this.mm = mm;
-        this.nc = nc;
+        this.gw = gw;
+        this.workers = workers;
+        this.queueSize = queueSize;
         this.stats = new Stats();
-        this.missingGlobalOperations = Sets.mutable.ofAll(GLOBAL_OPERATIONS.castToSet());
+        this.missingGlobalOperations = ConcurrentHashMap.newKeySet();
+        this.missingGlobalOperations.addAll(GLOBAL_OPERATIONS.castToSet());
+        this.committedGlobalOperations = ConcurrentHashMap.newKeySet();
+        this.deferredGlobalOperations = workers > 1 ? new ConcurrentLinkedQueue<>() : null;
+        this.claimedGlobalOperations = new ArrayList<>();
+    }
+
+    /** Creates an analyzer for one subtree, which shares the state of the parent but writes to its own writer. */
+    private Analyzer(Analyzer parent, GraphWriter gw) {
+        this.mm = parent.mm;
+        this.gw = gw;
+        this.workers = 1;
+        this.queueSize = 0;
+        this.stats = parent.stats;
+        this.missingGlobalOperations = parent.missingGlobalOperations;
+        this.committedGlobalOperations = parent.committedGlobalOperations;
+        this.deferredGlobalOperations = parent.deferredGlobalOperations;
+        this.claimedGlobalOperations = new ArrayList<>();
     }
 
     void start(String resource, boolean append) {
         stats.start();
         identity();
-        parse(ResourceAddress.of(resource), null, append);
+        if (workers > 1) {
+            logger.info("Parallel mode: analyze subtrees using {} workers", workers);
+            gw.flush();
+            try (var pool = new ForkJoinPool(workers)) {
+                pool.invoke(new Subtree(ResourceAddress.of(resource), null, 0, append));
+            }
+            // all workers have been committed, so the global operations can be linked now
+            ProvidesGlobalOperation deferred;
+            while ((deferred = deferredGlobalOperations.poll()) != null) {
+                writeProvidesGlobalOperation(deferred);
+            }
+        } else if (queueSize > 0) {
+            new Pipeline(mm, gw, queueSize, MAX_DEPTH, description -> {
+                var buffer = new Pipeline.Buffer();
+                new Analyzer(this, buffer).describeResource(description.address(), description.parent(),
+                        description.resourceDescription());
+                return buffer.entries;
+            }).run(ResourceAddress.of(resource), append);
+        } else {
+            mm.walk(ResourceAddress.of(resource), MAX_DEPTH,
+                    (address, parent, description) -> parseResource(address, parent, description, append));
+        }
+        gw.flush();
         stats.stop();
     }
 
@@ -169,95 +194,114 @@ class Analyzer {
         }
     }
 
+    /**
+     * Analyzes a subtree on a worker thread using a forked writer. The resources of the first {@link #FORK_LEVELS}
+     * levels are written and committed on their own. Then their children are analyzed as separate subtrees, which can
+     * rely on their parent resource. Deeper subtrees are analyzed as a whole.
+     * <p>
+     * A global operation is created by the worker which claims it first. Other workers can only link it once that
+     * worker has committed the operation. Until then, the links are deferred and written after all workers are done.
+     */
+    private final class Subtree extends RecursiveAction {
+
+        private final ResourceAddress address;
+        private final ResourceAddress parent;
+        private final int level;
+        private final boolean append;
+
+        Subtree(ResourceAddress address, ResourceAddress parent, int level, boolean append) {
+            this.address = address;
+            this.parent = parent;
+            this.level = level;
+            this.append = append;
+        }
+
+        @Override
+        protected void compute() {
+            if (level < FORK_LEVELS && address.size() < MAX_DEPTH) {
+                try (var writer = gw.fork()) {
+                    var analyzer = new Analyzer(Analyzer.this, writer);
+                    analyzer.parseResource(address, parent, append);
+                    // the subtrees depend on this resource and on the global operations created by it
+                    writer.flush();
+                    committedGlobalOperations.addAll(analyzer.claimedGlobalOperations);
+                }
+                invokeAll(mm.children(address).stream()
+                        .map(child -> new Subtree(address.add(child), address, level + 1, append))
+                        .toList());
+            } else {
+                Analyzer analyzer;
+                try (var writer = gw.fork()) {
+                    analyzer = new Analyzer(Analyzer.this, writer);
+                    analyzer.parse(address, parent, append);
+                }
+                committedGlobalOperations.addAll(analyzer.claimedGlobalOperations);
+            }
+        }
+    }
+
     private void parseResource(ResourceAddress address, ResourceAddress parent, boolean append) {
-        if (append && nc.exists(matchResource(address))) {
+        parseResource(address, parent, () -> mm.description(address), append);
+    }
+
+    private void parseResource(ResourceAddress address, ResourceAddress parent,
+            Supplier<ResourceDescription> description, boolean append) {
+        if (append && gw.exists(address)) {
             logger.info("Skip {}", address);
             return;
         }
+        describeResource(address, parent, description.get());
+    }
 
-        var resourceDescription = mm.resourceDescription(address);
-        if (resourceDescription.isDefined()) {
+    private void describeResource(ResourceAddress address, ResourceAddress parent,
+            ResourceDescription resourceDescription) {
+        if (resourceDescription != null) {
             logger.info("Read {}", address.toString());
 
-            // for a foo=* address, the result is an array
-            if (resourceDescription.getType() == ModelType.LIST) {
-                var descriptions = resourceDescription.asList();
-                if (!descriptions.isEmpty() && descriptions.getFirst().hasDefined(RESULT)) {
-                    resourceDescription = descriptions.getFirst().get(RESULT);
-                }
-            }
-
             createResource(address, resourceDescription);
             if (parent != null) {
                 mergeChildOf(address, parent);
             }
 
             // capabilities
-            if (resourceDescription.hasDefined(CAPABILITIES)) {
-                for (var capability : resourceDescription.get(CAPABILITIES).asList()) {
-                    mergeDeclaresCapabilities(address, capability);
-                }
+            for (var capability : resourceDescription.capabilities()) {
+                mergeDeclaresCapabilities(address, capability);
             }
 
             // attributes
-            if (resourceDescription.hasDefined(ATTRIBUTES)) {
-                mergeAttributes(address, new ArrayList<>(), resourceDescription.get(ATTRIBUTES).asPropertyList());
-            }
+            mergeAttributes(address, List.of(), resourceDescription.attributes());
 
             // operations
-            if (resourceDescription.hasDefined(OPERATIONS)) {
-                for (var property : resourceDescription.get(OPERATIONS).asPropertyList()) {
-                    var name = property.getName();
-                    var operation = property.getValue();
-                    var globalOperation = GLOBAL_OPERATIONS.contains(name);
-                    var create = !globalOperation || missingGlobalOperations.contains(name);
-
-                    if (create) {
-                        mergeOperation(address, name, operation, globalOperation);
-                        if (operation.hasDefined(REQUEST_PROPERTIES)) {
-                            mergeParameters(address, name, new ArrayList<>(),
-                                    operation.get(REQUEST_PROPERTIES).asPropertyList());
-                        }
-                        if (globalOperation) {
-                            missingGlobalOperations.remove(name);
-                        }
-                    } else {
-                        linkGlobalOperation(address, name);
+            for (var operation : resourceDescription.operations()) {
+                var name = operation.name();
+                var globalOperation = GLOBAL_OPERATIONS.contains(name);
+                // claim the global operation, so that it's created exactly once
+                var create = !globalOperation || missingGlobalOperations.remove(name);
+
+                if (create) {
+                    mergeOperation(address, operation, globalOperation);
+                    mergeParameters(address, name, List.of(), operation.parameters());
+                    if (globalOperation) {
+                        claimedGlobalOperations.add(name);
                     }
+                } else {
+                    linkGlobalOperation(address, name);
                 }
             }
         } else {
-            stats.failedResources++;
+            stats.failedResources.increment();
         }
     }
 
     // ------------------------------------------------------ resources
 
     private void writeIdentity(Identity identity) {
-        var cypher = new Cypher("MERGE (:Identity {")
-                .append(TYPE, identity.type().id).comma()
-                .append(IDENTIFIER, identity.identifier()).comma()
-                .append(GROUP_ID, identity.groupId()).comma()
-                .append(ARTIFACT_ID, identity.artifactId()).comma()
-                .append(VERSION, identity.version().toString()).comma()
-                .append(NAME, identity.name()).comma()
-                .append(DESCRIPTION, identity.description()).comma()
-                .append(URL, identity.url()).comma()
-                .append(SCM_URL, identity.scmUrl()).comma()
-                .append(LICENSES, String.join(", ", identity.licenses()))
-                .append("})");
-        nc.execute(cypher);
-        stats.resources++;
+        gw.write(new IdentityNode(identity), counters -> stats.resources.increment());
     }
 
-    private void createResource(ResourceAddress address, ModelNode modelNode) {
-        var cypher = new Cypher("CREATE (r:Resource {")
-                .append(NAME, address.getName()).comma()
-                .append(ADDRESS, address.toString()).comma()
-                .append(SINGLETON, address.isSingleton());
-        appendIfDefined(cypher, DESCRIPTION, modelNode, ModelNode::asString);
-        appendIfDefined(cypher, STABILITY, modelNode, ModelNode::asString);
-        if (modelNode.hasDefined(CHILDREN)) {
+    private void createResource(ResourceAddress address, ResourceDescription resourceDescription) {
+        String childDescriptions = null;
+        if (resourceDescription.children() != null) {
             // Ugly workaround to save child descriptions. The only reason is to save descriptions of
             // none existing 'parent-singleton-resources' such as "/core-service=management/access"
             // Such resources actually don't exist on their own. Only the singleton child resources like
@@ -266,428 +310,205 @@ class Analyzer {
             //    "access=identity"
             // exist.
             // But nevertheless, the parent resource holds also descriptions for such resources.
-            var childDescriptions = modelNode.get(CHILDREN).asPropertyList().stream()
-                    .map(property -> {
-                        String childDescription = property.getValue().get(DESCRIPTION)
-                                .asString("No description available for " + property.getName());
-                        return property.getName() + "|" + childDescription;
+            childDescriptions = resourceDescription.children().entrySet().stream()
+                    .map(entry -> {
+                        String childDescription = entry.getValue() != null
+                                ? entry.getValue()
+                                : "No description available for " + entry.getKey();
+                        return entry.getKey() + "|" + childDescription;
                     })
                     .collect(joining("^"));
-            cypher.comma().append(CHILD_DESCRIPTIONS, childDescriptions);
         }
-        cypher.append("})"); // end resource
-        mergeDeprecated(cypher, "r", modelNode, address.toString());
+        var deprecation = deprecation(resourceDescription.deprecated(), address::toString);
 
-        var counters = nc.execute(cypher);
-        stats.resources += counters.nodesCreated();
+        gw.write(new ResourceNode(address, resourceDescription.description(), resourceDescription.stability(),
+                childDescriptions, deprecation), counters -> stats.resources.add(counters.nodesCreated()));
     }
 
     private void mergeChildOf(ResourceAddress child, ResourceAddress parent) {
-        var cypher = new Cypher("MATCH (child:Resource {")
-                .append(ADDRESS, CHILD, child.toString()).append("}),")
-                .append("(parent:Resource {")
-                .append(ADDRESS, PARENT, parent.toString()).append("})")
-                .append(" MERGE (child)-[:CHILD_OF]->(parent)");
-
-        var counters = nc.execute(cypher);
-        stats.relations += counters.relationshipsCreated();
-    }
-
-    private Cypher matchResource(ResourceAddress address) {
-        return new Cypher("MATCH (r:Resource {").append(ADDRESS, address.toString()).append("})");
+        gw.write(new ChildOf(child, parent), counters -> stats.relations.add(counters.relationshipsCreated()));
     }
 
     // ------------------------------------------------------ capabilities
 
-    private void mergeDeclaresCapabilities(ResourceAddress address, ModelNode capability) {
-        var cypher = matchResource(address)
-                .append(" MERGE (c:Capability {")
-                .append(NAME, capability.get(NAME).asString());
-        appendIfDefined(cypher, STABILITY, capability, ModelNode::asString);
-        cypher.append("}) MERGE (r)-[:DECLARES_CAPABILITY]->(c)");
-
-        var counters = nc.execute(cypher);
-        stats.capabilities += counters.nodesCreated();
-        stats.relations += counters.relationshipsCreated();
+    private void mergeDeclaresCapabilities(ResourceAddress address, Capability capability) {
+        gw.write(new DeclaresCapability(address, capability.name(), capability.stability()), counters -> {
+            stats.capabilities.add(counters.nodesCreated());
+            stats.relations.add(counters.relationshipsCreated());
+        });
     }
 
     // ------------------------------------------------------ attributes
 
-    private void mergeAttributes(ResourceAddress address, List<String> path, List<Property> properties) {
+    private void mergeAttributes(ResourceAddress address, List<String> path, List<Attribute> attributes) {
         MutableMultimap<String, String> alternatives = new FastListMultimap<>();
         MutableMultimap<String, String> requires = new FastListMultimap<>();
 
-        for (var property : properties) {
-            var name = property.getName();
-            var attribute = property.getValue();
-            mergeAttribute(address, path, name, attribute);
+        for (var attribute : attributes) {
+            var name = attribute.name();
+            var value = attribute.value();
+            mergeAttribute(address, path, attribute);
 
             // complex attributes
-            if (attribute.hasDefined(VALUE_TYPE)) {
-                var valueType = attribute.get(VALUE_TYPE);
-                if (valueType.getType() == ModelType.OBJECT) {
-                    List<String> newPath = new ArrayList<>(path);
-                    newPath.add(name);
-                    mergeAttributes(address, newPath, valueType.asPropertyList());
-                }
+            if (!attribute.attributes().isEmpty()) {
+                mergeAttributes(address, append(path, name), attribute.attributes());
             }
 
             // capability
-            if (attribute.hasDefined(CAPABILITY_REFERENCE)) {
-                var capabilityReference = attribute.get(CAPABILITY_REFERENCE).asString();
-                mergeAttributeReferencesCapability(address, path, name, capabilityReference);
+            if (value.capabilityReference() != null) {
+                mergeAttributeReferencesCapability(address, path, name, value.capabilityReference());
             }
 
             // sensitivity
-            if (attribute.hasDefined(ACCESS_CONSTRAINTS) &&
-                    attribute.get(ACCESS_CONSTRAINTS).hasDefined(SENSITIVE)) {
-                var sensitive = attribute.get(ACCESS_CONSTRAINTS).get(SENSITIVE);
-                if (sensitive.isDefined()) {
-                    mergeSensitive(address, path, name, sensitive);
-                }
+            for (var sensitive : attribute.sensitive()) {
+                mergeSensitive(address, path, name, sensitive);
             }
 
             // collect alternatives and requires
-            if (attribute.hasDefined(ALTERNATIVES)) {
-                var a = attribute.get(ALTERNATIVES)
-                        .asList()
-                        .stream()
-                        .map(ModelNode::asString)
-                        .collect(toList());
-                alternatives.putAll(name, a);
-            }
-            if (attribute.hasDefined(REQUIRES)) {
-                var r = attribute.get(REQUIRES)
-                        .asList()
-                        .stream()
-                        .map(ModelNode::asString)
-                        .collect(toList());
-                requires.putAll(name, r);
-            }
+            alternatives.putAll(name, value.alternatives());
+            requires.putAll(name, value.requires());
         }
 
         // post-process alternatives and requires
         alternatives.forEachKeyValue((key, value) ->
-                mergeAttributeRelation(address, path, key, value, "-[:ALTERNATIVE]-"));
+                mergeAttributeRelation(address, path, key, value, Relation.ALTERNATIVE));
         requires.forEachKeyValue((key, value) ->
-                mergeAttributeRelation(address, path, key, value, "-[:REQUIRES]->"));
+                mergeAttributeRelation(address, path, key, value, Relation.REQUIRES));
     }
 
-    private void mergeAttribute(ResourceAddress address, List<String> path, String name, ModelNode attribute) {
-        var cypher = matchResource(address);
-        if (path.isEmpty()) {
-            cypher.append(" MERGE (r)-[:HAS_ATTRIBUTE]->");
-        } else {
-            appendPath(cypher, path, "Attribute", "HAS_ATTRIBUTE",
-                    (c, v) -> c.append(String.format(" MERGE (%s)-[:CONSISTS_OF]->", v)));
-        }
-        cypher.append("(a:Attribute {").append(NAME, name);
-        appendCommonProperties(cypher, attribute);
-        appendIfDefined(cypher, ACCESS_TYPE, attribute, ModelNode::asString);
-        appendIfDefined(cypher, ALIAS, attribute, ModelNode::asString);
-        appendIfDefined(cypher, ATTRIBUTE_GROUP, attribute, ModelNode::asString);
-        appendIfDefined(cypher, DEFAULT, attribute, ModelNode::asString);
-        appendIfDefined(cypher, DESCRIPTION, attribute, ModelNode::asString);
-        appendIfDefined(cypher, RESTART_REQUIRED, attribute, ModelNode::asString);
-        appendIfDefined(cypher, STORAGE, attribute, ModelNode::asString);
-        cypher.append("})"); // end attribute
-        mergeDeprecated(cypher, "a", attribute, String.format("%s@%s",
+    private void mergeAttribute(ResourceAddress address, List<String> path, Attribute attribute) {
+        var name = attribute.name();
+        var deprecation = deprecation(attribute.value().deprecated(), () -> String.format("%s@%s",
                 address, (path.isEmpty() ? name : (String.join(".", path) + "." + name))));
 
-        var counters = nc.execute(cypher);
-        stats.attributes += counters.nodesCreated();
-        stats.relations += counters.relationshipsCreated();
+        gw.write(new AttributeNode(address, path, attribute, deprecation), counters -> {
+            stats.attributes.add(counters.nodesCreated());
+            stats.relations.add(counters.relationshipsCreated());
+        });
     }
 
     private void mergeAttributeReferencesCapability(ResourceAddress address, List<String> path, String name,
             String capability) {
-        var cypher = matchResource(address);
-        if (path.isEmpty()) {
-            cypher.append("-[:HAS_ATTRIBUTE]->");
-        } else {
-            appendPath(cypher, path, "Attribute", "HAS_ATTRIBUTE");
-            cypher.append("-[:CONSISTS_OF]->");
-        }
-        cypher.append("(a:Attribute {").append(NAME, name).append("})")
-                .append(" MATCH (c:Capability {")
-                .append(NAME, CAPABILITY_REFERENCE, capability)
-                .append("}) MERGE (a)-[:REFERENCES_CAPABILITY]->(c)");
-
-        var counters = nc.execute(cypher);
-        stats.relations += counters.relationshipsCreated();
+        gw.write(new AttributeReferencesCapability(address, path, name, capability),
+                counters -> stats.relations.add(counters.relationshipsCreated()));
     }
 
-    private void mergeSensitive(ResourceAddress address, List<String> path, String name, ModelNode sensitive) {
-        for (var property : sensitive.asPropertyList()) {
-            var sensitiveName = property.getName();
-            var type = property.getValue().get(TYPE).asString();
-
-            var cypher = matchResource(address);
-            if (path.isEmpty()) {
-                cypher.append("-[:HAS_ATTRIBUTE]->");
-            } else {
-                appendPath(cypher, path, "Attribute", "HAS_ATTRIBUTE");
-                cypher.append("-[:CONSISTS_OF]->");
-            }
-            cypher.append("(a:Attribute {").append(NAME, name).append("})");
-            cypher.append(" MERGE (a)-[:IS_SENSITIVE]->(:Constraint {")
-                    .append(NAME, "sensitiveName", sensitiveName).comma()
-                    .append(TYPE, type).append("})");
-
-            var counters = nc.execute(cypher);
-            stats.sensitive += counters.nodesCreated();
-            stats.relations += counters.relationshipsCreated();
-        }
+    private void mergeSensitive(ResourceAddress address, List<String> path, String name, Sensitive sensitive) {
+        gw.write(new SensitiveConstraint(address, path, name, sensitive.name(), sensitive.type()), counters -> {
+            stats.sensitive.add(counters.nodesCreated());
+            stats.relations.add(counters.relationshipsCreated());
+        });
     }
 
     private void mergeAttributeRelation(ResourceAddress address, List<String> path,
-            String source, String target, String relation) {
-        var cypher = matchResource(address);
-        if (path.isEmpty()) {
-            cypher.append("-[:HAS_ATTRIBUTE]->(source:Attribute {")
-                    .append(NAME, "sourceName", source).append("})")
-                    .append(" MATCH (r)-[:HAS_ATTRIBUTE]->(target:Attribute {")
-                    .append(NAME, "targetName", target).append("})");
-        } else {
-            appendPath(cypher, path, "Attribute", "HAS_ATTRIBUTE");
-            cypher.append("-[:CONSISTS_OF]->(source:Attribute {")
-                    .append(NAME, "sourceName", source).append("})")
-                    .append(" MATCH (r)");
-            appendPath(cypher, path, "Attribute", "HAS_ATTRIBUTE");
-            cypher.append("-[:CONSISTS_OF]->(target:Attribute {")
-                    .append(NAME, "targetName", target).append("})");
-        }
-        cypher.append(" MERGE (source)").append(relation).append("(target)");
-
-        var counters = nc.execute(cypher);
-        stats.relations += counters.relationshipsCreated();
+            String source, String target, Relation relation) {
+        gw.write(new AttributeRelation(address, path, source, target, relation),
+                counters -> stats.relations.add(counters.relationshipsCreated()));
     }
 
     // ------------------------------------------------------ operations
 
-    private void mergeOperation(ResourceAddress address, String name, ModelNode operation, boolean globalOperation) {
-        var cypher = matchResource(address)
-                .append(" MERGE (r)-[:PROVIDES]->(o:Operation {")
-                .append(NAME, name).comma()
-                .append(GLOBAL, globalOperation);
-        appendIfDefined(cypher, DESCRIPTION, operation, ModelNode::asString);
-        appendIfDefined(cypher, READ_ONLY, operation, ModelNode::asBoolean);
-        appendIfDefined(cypher, RUNTIME_ONLY, operation, ModelNode::asBoolean);
-        appendIfDefined(cypher, STABILITY, operation, ModelNode::asString);
-        if (operation.hasDefined(REPLY_PROPERTIES)) {
-            var replyNode = operation.get(REPLY_PROPERTIES);
-            if (replyNode.isDefined()) {
-                appendIfDefined(cypher, RETURN_VALUE, replyNode, TYPE, (value -> value.asType().name()));
-                appendValueType(cypher, replyNode);
-            }
-        }
-        cypher.append("})"); // end operation
-        mergeDeprecated(cypher, "o", operation, String.format("%s:%s", address, name));
+    private void mergeOperation(ResourceAddress address, Operation operation, boolean globalOperation) {
+        var deprecation = deprecation(operation.deprecated(), () -> String.format("%s:%s", address,
+                operation.name()));
 
-        var counters = nc.execute(cypher);
-        stats.operations += counters.nodesCreated();
-        stats.relations += counters.relationshipsCreated();
+        gw.write(new OperationNode(address, operation, globalOperation, deprecation), counters -> {
+            stats.operations.add(counters.nodesCreated());
+            stats.relations.add(counters.relationshipsCreated());
+        });
     }
 
     private void linkGlobalOperation(ResourceAddress address, String name) {
-        var cypher = matchResource(address).comma()
-                .append("(o:Operation{")
-                .append(NAME, name).append("})")
-                .append(" MERGE (r)-[:PROVIDES]->(o)");
-
-        var counters = nc.execute(cypher);
-        stats.relations += counters.relationshipsCreated();
+        var globalOperation = new ProvidesGlobalOperation(address, name);
+        if (deferredGlobalOperations != null && !claimedGlobalOperations.contains(name)
+                && !committedGlobalOperations.contains(name)) {
+            // another worker has claimed the operation, but might not have committed it yet
+            deferredGlobalOperations.add(globalOperation);
+        } else {
+            writeProvidesGlobalOperation(globalOperation);
+        }
     }
 
-    private Cypher matchOperation(ResourceAddress address, String operation) {
-        return matchResource(address)
-                .append("-[:PROVIDES]->(o:Operation {").append(NAME, OPERATION_NAME, operation).append("})");
+    private void writeProvidesGlobalOperation(ProvidesGlobalOperation globalOperation) {
+        gw.write(globalOperation, counters -> stats.relations.add(counters.relationshipsCreated()));
     }
 
     // ------------------------------------------------------ parameters
 
     private void mergeParameters(ResourceAddress address, String operation, List<String> path,
-            List<Property> properties) {
+            List<Parameter> parameters) {
         MutableMultimap<String, String> alternatives = new FastListMultimap<>();
         MutableMultimap<String, String> requires = new FastListMultimap<>();
-        for (var property : properties) {
-            var name = property.getName();
-            var parameter = property.getValue();
-            mergeParameter(address, operation, path, name, parameter);
+        for (var parameter : parameters) {
+            var name = parameter.name();
+            var value = parameter.value();
+            mergeParameter(address, operation, path, parameter);
 
             // complex attributes
-            if (parameter.hasDefined(VALUE_TYPE)) {
-                var valueType = parameter.get(VALUE_TYPE);
-                if (valueType.getType() == ModelType.OBJECT) {
-                    List<String> newPath = new ArrayList<>(path);
-                    newPath.add(name);
-                    mergeParameters(address, operation, newPath, valueType.asPropertyList());
-                }
+            if (!parameter.parameters().isEmpty()) {
+                mergeParameters(address, operation, append(path, name), parameter.parameters());
             }
 
             // references capability
-            if (parameter.hasDefined(CAPABILITY_REFERENCE)) {
-                var capabilityReference = parameter.get(CAPABILITY_REFERENCE).asString();
-                mergeParameterReferencesCapability(address, operation, path, name, capabilityReference);
+            if (value.capabilityReference() != null) {
+                mergeParameterReferencesCapability(address, operation, path, name, value.capabilityReference());
             }
 
             // collect alternatives and requires
-            if (parameter.hasDefined(ALTERNATIVES)) {
-                var a = parameter.get(ALTERNATIVES)
-                        .asList()
-                        .stream()
-                        .map(ModelNode::asString)
-                        .collect(toList());
-                alternatives.putAll(name, a);
-            }
-            if (parameter.hasDefined(REQUIRES)) {
-                var r = parameter.get(REQUIRES)
-                        .asList()
-                        .stream()
-                        .map(ModelNode::asString)
-                        .collect(toList());
-                requires.putAll(name, r);
-            }
+            alternatives.putAll(name, value.alternatives());
+            requires.putAll(name, value.requires());
         }
 
         // post process alternatives and requires
         alternatives.forEachKeyValue((key, value) ->
-                mergeParameterRelation(address, operation, path, key, value, "-[:ALTERNATIVE]-"));
+                mergeParameterRelation(address, operation, path, key, value, Relation.ALTERNATIVE));
         requires.forEachKeyValue((key, value) ->
-                mergeParameterRelation(address, operation, path, key, value, "-[:REQUIRES]->"));
+                mergeParameterRelation(address, operation, path, key, value, Relation.REQUIRES));
     }
 
-    private void mergeParameter(ResourceAddress address, String operation, List<String> path,
-            String name, ModelNode parameter) {
-        var cypher = matchOperation(address, operation);
-        if (path.isEmpty()) {
-            cypher.append(" MERGE (o)-[:ACCEPTS]->");
-        } else {
-            appendPath(cypher, path, "Parameter", "ACCEPTS",
-                    (c, v) -> c.append(String.format(" MERGE (%s)-[:CONSISTS_OF]->", v)));
-        }
-        cypher.append("(p:Parameter {").append(NAME, name);
-        appendCommonProperties(cypher, parameter);
-        cypher.append("})"); // end parameter
-        mergeDeprecated(cypher, "p", parameter, String.format("%s:%s(%s)",
+    private void mergeParameter(ResourceAddress address, String operation, List<String> path, Parameter parameter) {
+        var name = parameter.name();
+        var deprecation = deprecation(parameter.value().deprecated(), () -> String.format("%s:%s(%s)",
                 address.toString(), operation, (path.isEmpty() ? name : (String.join(".", path) + "." + name))));
 
-        var counters = nc.execute(cypher);
-        stats.parameters += counters.nodesCreated();
-        stats.relations += counters.relationshipsCreated();
+        gw.write(new ParameterNode(address, operation, path, parameter, deprecation), counters -> {
+            stats.parameters.add(counters.nodesCreated());
+            stats.relations.add(counters.relationshipsCreated());
+        });
     }
 
     private void mergeParameterReferencesCapability(ResourceAddress address, String operation, List<String> path,
             String name, String capability) {
-        var cypher = matchOperation(address, operation);
-        if (path.isEmpty()) {
-            cypher.append("-[:ACCEPTS]->");
-        } else {
-            appendPath(cypher, path, "Parameter", "ACCEPTS");
-            cypher.append("-[:CONSISTS_OF]->");
-        }
-        cypher.append("(p:Parameter {").append(NAME, name).append("})")
-                .append(" MATCH (c:Capability {")
-                .append(NAME, CAPABILITY_REFERENCE, capability)
-                .append("}) MERGE (p)-[:REFERENCES_CAPABILITY]->(c)");
-
-        var counters = nc.execute(cypher);
-        stats.relations += counters.relationshipsCreated();
+        gw.write(new ParameterReferencesCapability(address, operation, path, name, capability),
+                counters -> stats.relations.add(counters.relationshipsCreated()));
     }
 
     private void mergeParameterRelation(ResourceAddress address, String operation, List<String> path,
-            String source, String target, String relation) {
-        var cypher = matchOperation(address, operation);
-        if (path.isEmpty()) {
-            cypher.append("-[:ACCEPTS]->(source:Parameter {")
-                    .append(NAME, "sourceName", source).append("})")
-                    .append(" MATCH (o)-[:ACCEPTS]->(target:Parameter {")
-                    .append(NAME, "targetName", target).append("})");
-        } else {
-            appendPath(cypher, path, "Parameter", "ACCEPTS");
-            cypher.append("-[:CONSISTS_OF]->(source:Parameter {")
-                    .append(NAME, "sourceName", source).append("})")
-                    .append(" MATCH (r)-[:PROVIDES]->(o)");
-            appendPath(cypher, path, "Parameter", "ACCEPTS");
-            cypher.append("-[:CONSISTS_OF]->(target:Parameter {")
-                    .append(NAME, "targetName", target).append("})");
-        }
-        cypher.append(" MERGE (source)").append(relation).append("(target)");
-
-        var counters = nc.execute(cypher);
-        stats.relations += counters.relationshipsCreated();
+            String source, String target, Relation relation) {
+        gw.write(new ParameterRelation(address, operation, path, source, target, relation),
+                counters -> stats.relations.add(counters.relationshipsCreated()));
     }
 
     // ------------------------------------------------------ helper methods
 
-    private void appendPath(Cypher cypher, List<String> path, String type, String relation) {
-        appendPath(cypher, path, type, relation, null);
-    }
-
-    private void appendPath(Cypher cypher, List<String> path, String type, String relation,
-            BiConsumer<Cypher, String> variableConsumer) {
-        var i = 0;
-        String variable = null;
-        for (var iterator = path.listIterator(); iterator.hasNext(); i++) {
-            variable = String.format("var%d", i);
-            cypher.append(String.format("-[:%s]->", (iterator.hasPrevious() ? "CONSISTS_OF" : relation)))
-                    .append(String.format("(%s:%s {", variable, type))
-                    .append(NAME, String.format("name%d", i), iterator.next())
-                    .append("})");
-        }
-        if (variableConsumer != null) {
-            variableConsumer.accept(cypher, variable);
-        }
-    }
-
-    private void appendCommonProperties(Cypher cypher, ModelNode modelNode) {
-        appendIfDefined(cypher, ALLOWED, modelNode, value -> value.asList().stream()
-                .map(ModelNode::asString)
-                .collect(toList()));
-        appendIfDefined(cypher, EXPRESSIONS_ALLOWED, modelNode, ModelNode::asBoolean);
-        appendIfDefined(cypher, MAX, modelNode, ModelNode::asLong);
-        appendIfDefined(cypher, MAX_LENGTH, modelNode, ModelNode::asLong);
-        appendIfDefined(cypher, MIN, modelNode, ModelNode::asLong);
-        appendIfDefined(cypher, MIN_LENGTH, modelNode, ModelNode::asLong);
-        appendIfDefined(cypher, NILLABLE, modelNode, ModelNode::asBoolean);
-        appendIfDefined(cypher, REQUIRED, modelNode, ModelNode::asBoolean);
-        appendIfDefined(cypher, STABILITY, modelNode, ModelNode::asString);
-        appendIfDefined(cypher, TYPE, modelNode, ModelNode::asString);
-        appendIfDefined(cypher, UNIT, modelNode, ModelNode::asString);
-        appendValueType(cypher, modelNode);
-    }
-
-    private void appendValueType(Cypher cypher, ModelNode modelNode) {
-        if (modelNode.hasDefined(VALUE_TYPE)) {
-            var valueTypeNode = modelNode.get(VALUE_TYPE);
-            if (ModelType.STRING == valueTypeNode.getType()) {
-                cypher.comma().append(VALUE_TYPE, valueTypeNode.asString());
-            } else {
-                cypher.comma().append(VALUE_TYPE, ModelType.OBJECT.name());
-            }
-        }
+    private List<String> append(List<String> path, String name) {
+        var names = path.toArray(new String[path.size() + 1]);
+        names[path.size()] = name;
+        return List.of(names);
     }
 
-    private void mergeDeprecated(Cypher cypher, String name, ModelNode modelNode, String context) {
-        if (modelNode.hasDefined(DEPRECATED)) {
-            var deprecatedNode = modelNode.get(DEPRECATED);
-            String reason = deprecatedNode.get(REASON).asString();
-            String sinceValue = deprecatedNode.get(SINCE).asString();
-            int[] sinceParsed = parseVersion(sinceValue);
+    /** Returns the deprecation, if any. The context is only used for error messages, so it's computed lazily. */
+    private Deprecation deprecation(DeprecationInfo deprecated, Supplier<String> context) {
+        if (deprecated != null) {
+            int[] sinceParsed = parseVersion(deprecated.since());
             if (sinceParsed != null) {
-                cypher.append(" MERGE (v:Version {")
-                        .append(MAJOR, sinceParsed[0]).comma()
-                        .append(MINOR, sinceParsed[1]).comma()
-                        .append(PATCH, sinceParsed[2]).comma()
-                        .append(ORDINAL, versionOrdinal(sinceParsed[0], sinceParsed[1], sinceParsed[2]))
-                        .append("}) MERGE (" + name + ")-[:DEPRECATED_SINCE {")
-                        .append(REASON, reason)
-                        .append("}]->(v)");
+                return new Deprecation(deprecated.reason(), sinceParsed[0], sinceParsed[1], sinceParsed[2]);
             } else {
                 stats.errors.add(String.format("Unable to parse deprecation version '%s' for '%s'",
-                        sinceValue, context));
+                        deprecated.since(), context.get()));
             }
         }
+        return null;
     }
 
     private int[] parseVersion(String value) {
@@ -711,28 +532,6 @@ class Analyzer {
         }
     }
 
-    private int versionOrdinal(int major, int minor, int patch) {
-        int ordinal = 0;
-        int[] numbers = new int[]{patch, minor, major};
-        for (int i = 0; i < numbers.length; i++) {
-            ordinal |= numbers[i] << i * 10;
-        }
-        return ordinal;
-    }
-
-    private <T> void appendIfDefined(Cypher cypher, String name, ModelNode modelNode, Function<ModelNode, T> getValue) {
-        appendIfDefined(cypher, name, modelNode, name, getValue);
-    }
-
-    private <T> void appendIfDefined(Cypher cypher, String name, ModelNode modelNode, String attribute,
-            Function<ModelNode, T> getValue) {
-        if (modelNode.hasDefined(attribute)) {
-            var value = modelNode.get(attribute);
-            // must not be the first append(name, value) call!
-            cypher.comma().append(name, getValue.apply(value));
-        }
-    }
-
     // ------------------------------------------------------ properties
 
     Stats stats() {
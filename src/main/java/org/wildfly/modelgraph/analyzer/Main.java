@@ -1,13 +1,23 @@
 package org.wildfly.modelgraph.analyzer;
 
+import java.nio.file.Path;
 import java.util.concurrent.Callable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wildfly.modelgraph.analyzer.dmr.JsonModel;
 import org.wildfly.modelgraph.analyzer.dmr.ManagementModel;
+import org.wildfly.modelgraph.analyzer.csv.CsvWriter;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.dmr.SnapshotModel;
 import org.wildfly.modelgraph.analyzer.dmr.WildFlyInstance;
-import org.wildfly.modelgraph.analyzer.neo4j.DryRunClient;
+import org.wildfly.modelgraph.analyzer.graph.GraphWriter;
+import org.wildfly.modelgraph.analyzer.memory.MemoryWriter;
+import org.wildfly.modelgraph.analyzer.neo4j.AsyncNeo4jClient;
+import org.wildfly.modelgraph.analyzer.neo4j.BatchingClient;
+import org.wildfly.modelgraph.analyzer.neo4j.CompositeWriter;
+import org.wildfly.modelgraph.analyzer.neo4j.CypherWriter;
+import org.wildfly.modelgraph.analyzer.neo4j.DryRunWriter;
 import org.wildfly.modelgraph.analyzer.neo4j.GraphClient;
 import org.wildfly.modelgraph.analyzer.neo4j.Neo4jClient;
 import ch.qos.logback.classic.Level;
@@ -26,7 +36,7 @@ import picocli.CommandLine.Parameters;
         optionListHeading = "%nOptions:%n",
         headerHeading = "%n",
         footerHeading = "%n",
-        description = "Reads the management model from a WildFly instance or feature pack and stores it as a graph in a Neo4j database",
+        description = "Reads the management model from a WildFly instance, feature pack or snapshot and stores it as a graph in a Neo4j database",
         versionProvider = VersionProvider.class)
 public class Main implements Callable<Stats> {
 
@@ -43,6 +53,22 @@ public class Main implements Callable<Stats> {
 
         @Option(names = {"-p", "--wildfly-password"}, description = "WildFly admin password")
         String password = "";
+
+        @Option(names = {"--wildfly-in-flight"},
+                description = "Read sibling resources concurrently with up to <wildfly-in-flight> pending management operations. Defaults to 1 (sequential reads).")
+        int inFlight = 1;
+
+        @Option(names = {"--wildfly-connections"},
+                description = "Spread concurrent reads over <wildfly-connections> connections. Defaults to 1.")
+        int connections = 1;
+
+        @Option(names = {"--wildfly-bulk-depth"},
+                description = "Read subtrees of up to <wildfly-bulk-depth> levels with one recursive operation. The depth adapts to the size of the responses. Defaults to 0 (one operation per resource).")
+        int bulkDepth = 0;
+
+        @Option(names = {"--wildfly-memoize"},
+                description = "Serve the resource descriptions of repeated subtrees like the subsystems of deployments from memory once they have been verified. One of 16 is still read to detect differences. Ignored in bulk mode.")
+        boolean memoize = false;
     }
 
     static class DocZip {
@@ -51,6 +77,12 @@ public class Main implements Callable<Stats> {
         String filename;
     }
 
+    static class Snapshot {
+
+        @Option(names = {"--snapshot"}, description = "Snapshot file recorded with --record")
+        Path file;
+    }
+
     static class Source {
 
         @ArgGroup(exclusive = false, multiplicity = "1")
@@ -58,6 +90,9 @@ public class Main implements Callable<Stats> {
 
         @ArgGroup(exclusive = false, multiplicity = "1")
         DocZip docZip;
+
+        @ArgGroup(exclusive = false, multiplicity = "1")
+        Snapshot snapshot;
     }
 
     @ArgGroup(multiplicity = "1")
@@ -81,10 +116,62 @@ public class Main implements Callable<Stats> {
             description = "Only add new resources, existing resources will be skipped.")
     boolean append = false;
 
+    @Option(names = {"--batch-size"},
+            description = "Collect statements of the same shape and write up to <batch-size> of them as one UNWIND statement. Defaults to 0 (no batching).")
+    int batchSize = 0;
+
+    @Option(names = {"--tx-size"},
+            description = "Maximum number of statements per transaction. Defaults to 1000.")
+    int txSize = 1000;
+
+    @Option(names = {"--tx-timeout"},
+            description = "Commit the current transaction after <tx-timeout> milliseconds. Defaults to 1000.")
+    long txTimeout = 1000;
+
+    @Option(names = {"--in-flight"},
+            description = "Write statements asynchronously with up to <in-flight> pending statements. Ignored with more than one worker. Defaults to 0 (synchronous writes).")
+    int inFlight = 0;
+
+    @Option(names = {"--id-cache-size"},
+            description = "Number of element IDs to cache for binding nodes by ID instead of matching them by address. Defaults to 10000 (0 disables the cache).")
+    int idCacheSize = 10_000;
+
+    @Option(names = {"--workers"},
+            description = "Analyze independent subtrees in parallel using <workers> threads. Defaults to 1.")
+    int workers = 1;
+
+    @Option(names = {"--pipeline"},
+            description = "Read, transform and write in separate stages connected by queues of <pipeline> resources. Defaults to 0 (no pipeline).")
+    int pipeline = 0;
+
+    @Option(names = {"--stream"},
+            description = "Parse the model of the documentation ZIP as a stream instead of reading it into memory. Only the child descriptions of the resources are kept in memory.")
+    boolean stream = false;
+
+    @Option(names = {"--composite"},
+            description = "Write each resource including its attributes, operations and parameters with one statement.")
+    boolean composite = false;
+
+    @Option(names = {"--csv"},
+            description = "Write the graph as CSV files for 'neo4j-admin database import' to <csv> instead of writing to Neo4j.")
+    Path csv;
+
+    @Option(names = {"--memory"},
+            description = "Build the graph in memory instead of writing to Neo4j and log the number of nodes and relationships.")
+    boolean memory = false;
+
+    @Option(names = {"--record"},
+            description = "Record the management model into the snapshot file <record> instead of analyzing it.")
+    Path record;
+
     @Option(names = {"-d", "--dry-run"},
-            description = "Analyze the source without writing to Neo4j. Logs Cypher statements that would be executed.")
+            description = "Analyze the source without writing to Neo4j. Counts the nodes and relationships that would be created.")
     boolean dryRun = false;
 
+    @Option(names = {"--capture"},
+            description = "In dry run mode, write the Cypher statements that would be executed to <capture>.")
+    Path capture;
+
     @Option(names = {"-v", "--verbose"},
             description = "Prints additional information about the processed resources.")
     boolean verbose = false;
@@ -120,12 +207,46 @@ public class Main implements Callable<Stats> {
                 l.setLevel(Level.DEBUG);
             }
         }
+        if (record != null) {
+            try (var mm = createManagementModel()) {
+                SnapshotModel.record(mm, ResourceAddress.of(resource), Analyzer.MAX_DEPTH, record);
+                return null;
+            } catch (Exception e) {
+                logger.error("Recording failed: {}", e.getMessage());
+                return null;
+            }
+        }
         if (dryRun && (clean || append)) {
             logger.warn("Dry run mode: --clean and --append options are ignored");
         }
+        if (csv != null && (clean || append)) {
+            logger.warn("CSV mode: --clean and --append options are ignored");
+        }
+        if (csv != null && !dryRun && workers > 1) {
+            logger.warn("CSV mode: --workers option is ignored");
+            workers = 1;
+        }
+        if (memory && (clean || append)) {
+            logger.warn("Memory mode: --clean and --append options are ignored");
+        }
+        if (memory && !dryRun && csv == null && workers > 1) {
+            logger.warn("Memory mode: --workers option is ignored");
+            workers = 1;
+        }
+        if (workers > 1 && pipeline > 0) {
+            logger.warn("Parallel mode: --pipeline option is ignored");
+        }
+        if (workers > 1 && inFlight > 0) {
+            logger.warn("Parallel mode: --in-flight option is ignored");
+            inFlight = 0;
+        }
+        if (workers > 1 && stream) {
+            logger.warn("Parallel mode: --stream option is ignored");
+            stream = false;
+        }
         try (var mm = createManagementModel();
-             var nc = createGraphClient()) {
-            var analyzer = new Analyzer(mm, nc);
+             var gw = createGraphWriter()) {
+            var analyzer = new Analyzer(mm, gw, workers, pipeline);
             analyzer.start(resource, append);
             return analyzer.stats();
         } catch (Exception e) {
@@ -134,21 +255,56 @@ public class Main implements Callable<Stats> {
         }
     }
 
-    private GraphClient createGraphClient() {
+    private GraphWriter createGraphWriter() {
         if (dryRun) {
-            return new DryRunClient();
+            return new DryRunWriter(capture);
+        }
+        if (csv != null) {
+            return new CsvWriter(csv);
         }
-        return new Neo4jClient(failSafeHostAndPort(neo4jHost, 7687), neo4jUsername, neo4jPassword, clean, append);
+        if (memory) {
+            return new MemoryWriter();
+        }
+        if (composite) {
+            return new CompositeWriter(createGraphClient());
+        }
+        return new CypherWriter(createGraphClient(), idCacheSize);
+    }
+
+    private GraphClient createGraphClient() {
+        GraphClient client;
+        if (inFlight > 0) {
+            client = new AsyncNeo4jClient(failSafeHostAndPort(neo4jHost, 7687), neo4jUsername, neo4jPassword,
+                    clean, append, inFlight, txSize, txTimeout);
+        } else {
+            client = new Neo4jClient(failSafeHostAndPort(neo4jHost, 7687), neo4jUsername, neo4jPassword,
+                    clean, append, txSize, txTimeout);
+        }
+        if (batchSize > 0) {
+            client = new BatchingClient(client, batchSize);
+        }
+        return client;
     }
 
     private ManagementModel createManagementModel() {
         if (source.wildFly != null) {
+            if (source.wildFly.memoize && source.wildFly.bulkDepth > 0) {
+                logger.warn("Bulk mode: --wildfly-memoize option is ignored");
+            }
+            var connections = source.wildFly.connections;
+            if (connections > 1 && source.wildFly.inFlight <= 1) {
+                logger.warn("Sequential reads: --wildfly-connections option is ignored");
+                connections = 1;
+            }
             return new WildFlyInstance(failSafeHostAndPort(source.wildFly.host, 9990), source.wildFly.username,
-                    source.wildFly.password);
+                    source.wildFly.password, source.wildFly.inFlight, connections, source.wildFly.bulkDepth,
+                    source.wildFly.memoize);
         } else if (source.docZip != null) {
-            return new JsonModel(source.docZip.filename);
+            return new JsonModel(source.docZip.filename, stream);
+        } else if (source.snapshot != null) {
+            return new SnapshotModel(source.snapshot.file);
         } else {
-            throw new RuntimeException("No WildFly instance or documentation classifier specified");
+            throw new RuntimeException("No WildFly instance, documentation classifier or snapshot specified");
         }
     }
 
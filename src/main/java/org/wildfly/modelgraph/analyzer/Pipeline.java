@@ -0,0 +1,290 @@
+package org.wildfly.modelgraph.analyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.neo4j.driver.summary.SummaryCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wildfly.modelgraph.analyzer.dmr.ManagementModel;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord;
+import org.wildfly.modelgraph.analyzer.graph.GraphWriter;
+
+/**
+ * Runs the analyzer as a pipeline of three stages, connected by bounded queues:
+ * <ol>
+ *     <li>The reader walks the management model and reads the resource descriptions.</li>
+ *     <li>The transformer turns each resource description into graph records.</li>
+ *     <li>The writer drains the records into the graph writer.</li>
+ * </ol>
+ * The reader and the transformer run on their own threads. The writer runs on the calling thread, so the graph
+ * writer is only used by one thread. Slow reads and slow writes overlap, and a full queue blocks the stage before it.
+ * <p>
+ * In append mode, the writer checks whether a resource exists and drops its records if so. When the pipeline is
+ * done, each stage reports its throughput, how busy it was and the depth of its output queue. The busiest stage is
+ * the bottleneck.
+ */
+class Pipeline {
+
+    /** The description of a resource read by the reader. */
+    record Description(ResourceAddress address, ResourceAddress parent, ResourceDescription resourceDescription) {
+    }
+
+    /** A record and the consumer for its counters. */
+    record Entry(GraphRecord record, Consumer<SummaryCounters> counters) {
+    }
+
+    /** The records of one resource. */
+    record Records(ResourceAddress address, List<Entry> entries) {
+    }
+
+    /** Graph writer used by the transformer, which collects the records of one resource. */
+    static class Buffer implements GraphWriter {
+
+        final List<Entry> entries = new ArrayList<>();
+
+        @Override
+        public void write(GraphRecord record, Consumer<SummaryCounters> counters) {
+            entries.add(new Entry(record, counters));
+        }
+
+        @Override
+        public boolean exists(ResourceAddress address) {
+            throw new UnsupportedOperationException("The existence of resources is checked by the writer stage");
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(Pipeline.class);
+    private static final long POLL_TIMEOUT = 100;
+    private static final Description LAST_DESCRIPTION = new Description(null, null, null);
+    private static final Records LAST_RECORDS = new Records(null, List.of());
+
+    private final ManagementModel mm;
+    private final GraphWriter gw;
+    private final int maxDepth;
+    private final Function<Description, List<Entry>> transform;
+    private final BlockingQueue<Description> descriptions;
+    private final BlockingQueue<Records> records;
+    private final Stage reader;
+    private final Stage transformer;
+    private final Stage writer;
+    private volatile boolean aborted;
+
+    Pipeline(ManagementModel mm, GraphWriter gw, int queueSize, int maxDepth,
+            Function<Description, List<Entry>> transform) {
+        this.mm = mm;
+        this.gw = gw;
+        this.maxDepth = maxDepth;
+        this.transform = transform;
+        this.descriptions = new ArrayBlockingQueue<>(queueSize);
+        this.records = new ArrayBlockingQueue<>(queueSize);
+        this.reader = new Stage("reader");
+        this.transformer = new Stage("transformer");
+        this.writer = new Stage("writer");
+    }
+
+    void run(ResourceAddress address, boolean append) {
+        logger.info("Pipeline mode: up to {} resources per queue", descriptions.remainingCapacity());
+        RuntimeException failure = null;
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            var readerFuture = executor.submit(() -> stage(reader, () -> {
+                read(address);
+                put(descriptions, LAST_DESCRIPTION, reader);
+            }));
+            var transformerFuture = executor.submit(() -> stage(transformer, this::transform));
+            try {
+                stage(writer, () -> write(append));
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            failure = failure(readerFuture, failure);
+            failure = failure(transformerFuture, failure);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        logger.info("{}", reader.report(descriptions));
+        logger.info("{}", transformer.report(records));
+        logger.info("{}", writer.report(null));
+    }
+
+    // ------------------------------------------------------ stages
+
+    private void read(ResourceAddress address) {
+        mm.walk(address, maxDepth, (resource, parent, description) -> {
+            var resourceDescription = description.get();
+            reader.processed();
+            put(descriptions, new Description(resource, parent, resourceDescription), reader);
+        });
+    }
+
+    private void transform() {
+        Description description;
+        while ((description = take(descriptions, transformer)) != LAST_DESCRIPTION) {
+            var entries = transform.apply(description);
+            transformer.processed();
+            put(records, new Records(description.address(), entries), transformer);
+        }
+        put(records, LAST_RECORDS, transformer);
+    }
+
+    private void write(boolean append) {
+        Records resource;
+        while ((resource = take(records, writer)) != LAST_RECORDS) {
+            if (append && gw.exists(resource.address())) {
+                logger.info("Skip {}", resource.address());
+            } else {
+                for (var entry : resource.entries()) {
+                    gw.write(entry.record(), entry.counters());
+                }
+            }
+            writer.processed();
+        }
+    }
+
+    // ------------------------------------------------------ queues
+
+    private <T> void put(BlockingQueue<T> queue, T item, Stage stage) {
+        var start = System.nanoTime();
+        try {
+            while (!queue.offer(item, POLL_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                checkAborted();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AbortedException();
+        } finally {
+            stage.waited(System.nanoTime() - start);
+        }
+        stage.sample(queue.size());
+    }
+
+    private <T> T take(BlockingQueue<T> queue, Stage stage) {
+        var start = System.nanoTime();
+        try {
+            T item;
+            while ((item = queue.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS)) == null) {
+                checkAborted();
+            }
+            return item;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AbortedException();
+        } finally {
+            stage.waited(System.nanoTime() - start);
+        }
+    }
+
+    private void checkAborted() {
+        if (aborted) {
+            throw new AbortedException();
+        }
+    }
+
+    // ------------------------------------------------------ failures
+
+    private Void stage(Stage stage, Runnable body) {
+        stage.start();
+        try {
+            body.run();
+            return null;
+        } catch (RuntimeException e) {
+            aborted = true;
+            throw e;
+        } finally {
+            stage.stop();
+        }
+    }
+
+    /** Returns the first failure which is not caused by another failed stage. */
+    private RuntimeException failure(Future<?> future, RuntimeException failure) {
+        try {
+            future.get();
+            return failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failure != null ? failure : new AbortedException();
+        } catch (ExecutionException e) {
+            if (failure != null && !(failure instanceof AbortedException)) {
+                return failure;
+            }
+            return e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new RuntimeException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static class AbortedException extends RuntimeException {
+
+        AbortedException() {
+            super("Pipeline aborted");
+        }
+    }
+
+    // ------------------------------------------------------ statistics
+
+    /** Collects the statistics of one stage. Each stage is updated by its own thread only. */
+    private static class Stage {
+
+        private final String name;
+        private long start;
+        private long elapsed;
+        private long waiting;
+        private long items;
+        private long depthSum;
+        private int maxDepth;
+        private int samples;
+
+        Stage(String name) {
+            this.name = name;
+        }
+
+        void start() {
+            start = System.nanoTime();
+        }
+
+        void stop() {
+            elapsed = System.nanoTime() - start;
+        }
+
+        void processed() {
+            items++;
+        }
+
+        void waited(long nanos) {
+            waiting += nanos;
+        }
+
+        void sample(int depth) {
+            depthSum += depth;
+            maxDepth = Math.max(maxDepth, depth);
+            samples++;
+        }
+
+        String report(BlockingQueue<?> output) {
+            var seconds = Math.max(elapsed, 1) / 1_000_000_000.0;
+            var busy = elapsed > 0 ? 100.0 * (elapsed - waiting) / elapsed : 0;
+            var result = String.format("Pipeline %-11s %,8d items, %,10.1f/s, %5.1f%% busy",
+                    name + ":", items, items / seconds, busy);
+            if (output != null && samples > 0) {
+                result += String.format(", output queue avg %.1f / max %d of %d", (double) depthSum / samples,
+                        maxDepth, output.size() + output.remainingCapacity());
+            }
+            return result;
+        }
+    }
+}
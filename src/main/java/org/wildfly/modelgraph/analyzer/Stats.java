@@ -1,24 +1,29 @@
 package org.wildfly.modelgraph.analyzer;
 
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
 import static java.util.stream.Collectors.joining;
 
+/**
+ * Statistics of an analyzer run. The counters are updated from several threads: the worker threads of the analyzer
+ * and the stages of the pipeline. Graph clients pass their counters on the thread which writes the records.
+ */
 public class Stats {
 
     private long start;
     private Duration duration = Duration.ZERO;
-    long resources;
-    long failedResources;
-    long attributes;
-    long sensitive;
-    long operations;
-    long parameters;
-    long capabilities;
-    long relations;
-    List<String> errors = new ArrayList<>();
+    final LongAdder resources = new LongAdder();
+    final LongAdder failedResources = new LongAdder();
+    final LongAdder attributes = new LongAdder();
+    final LongAdder sensitive = new LongAdder();
+    final LongAdder operations = new LongAdder();
+    final LongAdder parameters = new LongAdder();
+    final LongAdder capabilities = new LongAdder();
+    final LongAdder relations = new LongAdder();
+    final List<String> errors = new CopyOnWriteArrayList<>();
 
     public void start() {
         start = System.nanoTime();
@@ -46,9 +51,10 @@ public class Stats {
                         "\t%,8d request properties%n" +
                         "\t%,8d capabilities and%n" +
                         "\t%,8d relationships",
-                resources, attributes, sensitive, operations, parameters, capabilities, relations);
-        if (failedResources > 0) {
-            result += String.format("%n\t%,8d resources could not be processed.", failedResources);
+                resources.sum(), attributes.sum(), sensitive.sum(), operations.sum(), parameters.sum(),
+                capabilities.sum(), relations.sum());
+        if (failedResources.sum() > 0) {
+            result += String.format("%n\t%,8d resources could not be processed.", failedResources.sum());
         }
         result += String.format("%nin %s seconds.", humanReadableDuration());
         if (!errors.isEmpty()) {
@@ -0,0 +1,466 @@
+package org.wildfly.modelgraph.analyzer.csv;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.eclipse.collections.api.map.primitive.MutableObjectLongMap;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectLongHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wildfly.modelgraph.analyzer.dmr.Identity;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeReferencesCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ChildOf;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.DeclaresCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.IdentityNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.OperationNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterReferencesCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ProvidesGlobalOperation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Relation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ResourceNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.SensitiveConstraint;
+import org.wildfly.modelgraph.analyzer.graph.GraphWriter;
+
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ACCESS_TYPE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ADDRESS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALIAS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALLOWED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ARTIFACT_ID;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ATTRIBUTE_GROUP;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILD_DESCRIPTIONS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DEFAULT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.EXPRESSIONS_ALLOWED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.GLOBAL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.GROUP_ID;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.IDENTIFIER;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.LICENSES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAJOR;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAX;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAX_LENGTH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MIN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MINOR;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MIN_LENGTH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NAME;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NILLABLE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ORDINAL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.PATCH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_ONLY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REASON;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REQUIRED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RESTART_REQUIRED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RETURN_VALUE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RUNTIME_ONLY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SCM_URL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SINGLETON;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STABILITY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STORAGE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.TYPE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.UNIT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.URL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.VALUE_TYPE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.VERSION;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.attributeKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.attributeParentKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.capabilityKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.globalOperationKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.operationKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.parameterKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.parameterParentKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.resourceKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.versionKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.versionProperties;
+
+/**
+ * Graph writer which writes the nodes and relationships as CSV files for {@code neo4j-admin database import}. No
+ * Cypher is executed, and no connection to Neo4j is required. The import command is logged when the writer is
+ * closed.
+ * <p>
+ * For each label a header file {@code <Label>-header.csv} and a data file {@code <Label>.csv} is written. All
+ * relationships go to {@code relationships-header.csv} and {@code relationships.csv}. The nodes get sequential IDs.
+ * Instead of matching nodes by address and name, the IDs are looked up in an in-memory index. If a node referenced by
+ * a relationship is unknown, the relationship is skipped (that's what the {@code MATCH} clauses of the Cypher
+ * statements do).
+ * <p>
+ * Since {@code neo4j-admin database import} can only import into an empty database, this writer is meant for fresh
+ * loads.
+ */
+public class CsvWriter implements GraphWriter {
+
+    enum Label {
+        IDENTITY("Identity"),
+        RESOURCE("Resource"),
+        CAPABILITY("Capability"),
+        ATTRIBUTE("Attribute"),
+        CONSTRAINT("Constraint"),
+        OPERATION("Operation"),
+        PARAMETER("Parameter"),
+        VERSION("Version");
+
+        final String label;
+
+        Label(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvWriter.class);
+    private static final String[] COMMON_COLUMNS = new String[]{
+            ALLOWED + ":string[]", EXPRESSIONS_ALLOWED + ":boolean", MAX + ":long", MAX_LENGTH + ":long",
+            MIN + ":long", MIN_LENGTH + ":long", NILLABLE + ":boolean", REQUIRED + ":boolean", STABILITY, TYPE, UNIT,
+            VALUE_TYPE};
+    private static final Map<Label, String[]> COLUMNS = new EnumMap<>(Label.class);
+    private static final String RELATIONSHIPS = "relationships";
+    /** The unit separator doesn't occur in management models, unlike {@code ;} or {@code ,}. */
+    private static final char ARRAY_DELIMITER = '\u001f';
+    /** Relationships are keyed by a pair of node IDs with 32 bits each. */
+    private static final long MAX_ID = 0xffff_ffffL;
+
+    static {
+        COLUMNS.put(Label.IDENTITY, new String[]{TYPE, IDENTIFIER, GROUP_ID, ARTIFACT_ID, VERSION, NAME, DESCRIPTION,
+                URL, SCM_URL, LICENSES});
+        COLUMNS.put(Label.RESOURCE, new String[]{NAME, ADDRESS, SINGLETON + ":boolean", DESCRIPTION, STABILITY,
+                CHILD_DESCRIPTIONS});
+        COLUMNS.put(Label.CAPABILITY, new String[]{NAME, STABILITY});
+        COLUMNS.put(Label.ATTRIBUTE, concat(new String[]{NAME}, COMMON_COLUMNS, new String[]{ACCESS_TYPE, ALIAS,
+                ATTRIBUTE_GROUP, DEFAULT, DESCRIPTION, RESTART_REQUIRED, STORAGE}));
+        COLUMNS.put(Label.CONSTRAINT, new String[]{NAME, TYPE});
+        COLUMNS.put(Label.OPERATION, new String[]{NAME, GLOBAL + ":boolean", DESCRIPTION, READ_ONLY + ":boolean",
+                RUNTIME_ONLY + ":boolean", STABILITY, RETURN_VALUE, VALUE_TYPE});
+        COLUMNS.put(Label.PARAMETER, concat(new String[]{NAME}, COMMON_COLUMNS));
+        COLUMNS.put(Label.VERSION, new String[]{MAJOR + ":int", MINOR + ":int", PATCH + ":int", ORDINAL + ":int"});
+    }
+
+    private final Path directory;
+    private final Map<Label, BufferedWriter> nodeWriters;
+    private final BufferedWriter relationshipWriter;
+    private final MutableObjectLongMap<String> ids;
+    /** The start and end IDs of the written relationships by type. */
+    private final Map<String, MutableLongSet> relationships;
+    private long nextId;
+    private long relationshipCount;
+
+    public CsvWriter(Path directory) {
+        this.directory = directory;
+        this.nodeWriters = new EnumMap<>(Label.class);
+        this.ids = new ObjectLongHashMap<>();
+        this.relationships = new HashMap<>();
+        try {
+            Files.createDirectories(directory);
+            for (var label : Label.values()) {
+                writeHeader(label.label, ":ID," + String.join(",", COLUMNS.get(label)));
+                nodeWriters.put(label, Files.newBufferedWriter(directory.resolve(label.label + ".csv")));
+            }
+            writeHeader(RELATIONSHIPS, ":START_ID,:END_ID,:TYPE," + REASON);
+            this.relationshipWriter = Files.newBufferedWriter(directory.resolve(RELATIONSHIPS + ".csv"));
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to create CSV files in %s: %s", directory,
+                    e.getMessage()));
+        }
+        logger.info("CSV mode: writing CSV files to {}", directory);
+    }
+
+    @Override
+    public void write(GraphRecord record, Consumer<SummaryCounters> counters) {
+        var before = new long[]{nextId, relationshipCount};
+        switch (record) {
+            case IdentityNode identityNode -> identity(identityNode.identity());
+            case ResourceNode resource -> resource(resource);
+            case ChildOf childOf -> relationship(resourceKey(childOf.child()), resourceKey(childOf.parent()),
+                    "CHILD_OF");
+            case DeclaresCapability capability -> declaresCapability(capability);
+            case AttributeNode attribute -> attribute(attribute);
+            case AttributeReferencesCapability reference -> relationship(
+                    attributeKey(reference.address(), reference.path(), reference.name()),
+                    capabilityKey(reference.capability()), "REFERENCES_CAPABILITY");
+            case SensitiveConstraint sensitive -> sensitive(sensitive);
+            case AttributeRelation relation -> relationship(
+                    attributeKey(relation.address(), relation.path(), relation.source()),
+                    attributeKey(relation.address(), relation.path(), relation.target()), relation.relation());
+            case OperationNode operation -> operation(operation);
+            case ProvidesGlobalOperation globalOperation -> providesGlobalOperation(globalOperation);
+            case ParameterNode parameter -> parameter(parameter);
+            case ParameterReferencesCapability reference -> relationship(
+                    parameterKey(reference.address(), reference.operation(), reference.path(), reference.name()),
+                    capabilityKey(reference.capability()), "REFERENCES_CAPABILITY");
+            case ParameterRelation relation -> relationship(
+                    parameterKey(relation.address(), relation.operation(), relation.path(), relation.source()),
+                    parameterKey(relation.address(), relation.operation(), relation.path(), relation.target()),
+                    relation.relation());
+        }
+        counters.accept(new InternalSummaryCounters((int) (nextId - before[0]), 0,
+                (int) (relationshipCount - before[1]), 0, 0, 0, 0, 0, 0, 0, 0, 0));
+    }
+
+    @Override
+    public boolean exists(ResourceAddress address) {
+        return ids.containsKey(resourceKey(address));
+    }
+
+    @Override
+    public void flush() {
+        try {
+            for (var writer : nodeWriters.values()) {
+                writer.flush();
+            }
+            relationshipWriter.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to write CSV files to %s: %s", directory,
+                    e.getMessage()));
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            for (var writer : nodeWriters.values()) {
+                writer.close();
+            }
+            relationshipWriter.close();
+        } catch (IOException e) {
+            logger.error("Unable to close CSV files in {}: {}", directory, e.getMessage());
+        }
+        logger.info("Wrote {} nodes and {} relationships to {}. Import them using\n{}", nextId,
+                relationshipCount, directory, importCommand());
+    }
+
+    String importCommand() {
+        var command = new StringBuilder("neo4j-admin database import full --multiline-fields=true")
+                .append(String.format(" --array-delimiter=U+%04X", (int) ARRAY_DELIMITER));
+        for (var label : Label.values()) {
+            command.append(" --nodes=").append(label.label).append('=')
+                    .append(directory.resolve(label.label + "-header.csv")).append(',')
+                    .append(directory.resolve(label.label + ".csv"));
+        }
+        command.append(" --relationships=")
+                .append(directory.resolve(RELATIONSHIPS + "-header.csv")).append(',')
+                .append(directory.resolve(RELATIONSHIPS + ".csv"));
+        return command.append(" <database>").toString();
+    }
+
+    // ------------------------------------------------------ nodes
+
+    private void identity(Identity identity) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(TYPE, identity.type().id);
+        properties.put(IDENTIFIER, identity.identifier());
+        properties.put(GROUP_ID, identity.groupId());
+        properties.put(ARTIFACT_ID, identity.artifactId());
+        properties.put(VERSION, identity.version().toString());
+        properties.put(NAME, identity.name());
+        properties.put(DESCRIPTION, identity.description());
+        properties.put(URL, identity.url());
+        properties.put(SCM_URL, identity.scmUrl());
+        properties.put(LICENSES, String.join(", ", identity.licenses()));
+        node(Label.IDENTITY, null, properties);
+    }
+
+    private void resource(ResourceNode resource) {
+        var id = node(Label.RESOURCE, resourceKey(resource.address()), resource.properties());
+        deprecated(id, resource.deprecation());
+    }
+
+    private void declaresCapability(DeclaresCapability capability) {
+        var key = capabilityKey(capability.name());
+        if (!ids.containsKey(key)) {
+            var properties = capability.stability() != null
+                    ? Map.<String, Object>of(NAME, capability.name(), STABILITY, capability.stability())
+                    : Map.<String, Object>of(NAME, capability.name());
+            node(Label.CAPABILITY, key, properties);
+        }
+        relationship(resourceKey(capability.address()), key, "DECLARES_CAPABILITY");
+    }
+
+    private void attribute(AttributeNode attribute) {
+        var parentKey = attributeParentKey(attribute);
+        if (ids.containsKey(parentKey)) {
+            var id = node(Label.ATTRIBUTE, attributeKey(attribute.address(), attribute.path(), attribute.name()),
+                    attribute.properties());
+            relationship(ids.get(parentKey), id, attribute.path().isEmpty() ? "HAS_ATTRIBUTE" : "CONSISTS_OF", null);
+            deprecated(id, attribute.deprecation());
+        }
+    }
+
+    private void sensitive(SensitiveConstraint sensitive) {
+        var attributeKey = attributeKey(sensitive.address(), sensitive.path(), sensitive.name());
+        if (ids.containsKey(attributeKey)) {
+            var id = node(Label.CONSTRAINT, null, Map.of(NAME, sensitive.constraint(), TYPE, sensitive.type()));
+            relationship(ids.get(attributeKey), id, "IS_SENSITIVE", null);
+        }
+    }
+
+    private void operation(OperationNode operation) {
+        var resourceKey = resourceKey(operation.address());
+        if (ids.containsKey(resourceKey)) {
+            var key = operationKey(operation.address(), operation.name());
+            var id = node(Label.OPERATION, key, operation.properties());
+            if (operation.global()) {
+                ids.put(globalOperationKey(operation.name()), id);
+            }
+            relationship(ids.get(resourceKey), id, "PROVIDES", null);
+            deprecated(id, operation.deprecation());
+        }
+    }
+
+    private void providesGlobalOperation(ProvidesGlobalOperation globalOperation) {
+        var globalKey = globalOperationKey(globalOperation.name());
+        if (ids.containsKey(globalKey)) {
+            // parameters of global operations are looked up using the address of the resource
+            ids.put(operationKey(globalOperation.address(), globalOperation.name()), ids.get(globalKey));
+        }
+        relationship(resourceKey(globalOperation.address()), globalKey, "PROVIDES");
+    }
+
+    private void parameter(ParameterNode parameter) {
+        var parentKey = parameterParentKey(parameter);
+        if (ids.containsKey(parentKey)) {
+            var id = node(Label.PARAMETER,
+                    parameterKey(parameter.address(), parameter.operation(), parameter.path(), parameter.name()),
+                    parameter.properties());
+            relationship(ids.get(parentKey), id, parameter.path().isEmpty() ? "ACCEPTS" : "CONSISTS_OF", null);
+            deprecated(id, parameter.deprecation());
+        }
+    }
+
+    private void deprecated(long id, Deprecation deprecation) {
+        if (deprecation != null) {
+            var key = versionKey(deprecation);
+            if (!ids.containsKey(key)) {
+                node(Label.VERSION, key, versionProperties(deprecation));
+            }
+            relationship(id, ids.get(key), "DEPRECATED_SINCE", deprecation.reason());
+        }
+    }
+
+    private long node(Label label, String key, Map<String, ?> properties) {
+        if (nextId > MAX_ID) {
+            throw new RuntimeException(String.format("Unable to write more than %d nodes to %s", MAX_ID + 1,
+                    directory));
+        }
+        var id = nextId++;
+        if (key != null) {
+            ids.put(key, id);
+        }
+        var row = new StringBuilder().append(id);
+        for (var column : COLUMNS.get(label)) {
+            var colon = column.indexOf(':');
+            var value = properties.get(colon == -1 ? column : column.substring(0, colon));
+            row.append(',');
+            appendValue(row, value);
+        }
+        writeRow(nodeWriters.get(label), row);
+        return id;
+    }
+
+    // ------------------------------------------------------ relationships
+
+    private void relationship(String startKey, String endKey, Relation relation) {
+        if (ids.containsKey(startKey) && ids.containsKey(endKey)) {
+            long start = ids.get(startKey);
+            long end = ids.get(endKey);
+            if (relation == Relation.ALTERNATIVE) {
+                // MERGE (source)-[:ALTERNATIVE]-(target) ignores the direction
+                var alternatives = relationships.get(relation.name());
+                if (alternatives != null && alternatives.contains(pair(end, start))) {
+                    return;
+                }
+            }
+            relationship(start, end, relation.name(), null);
+        }
+    }
+
+    private void relationship(String startKey, String endKey, String type) {
+        if (ids.containsKey(startKey) && ids.containsKey(endKey)) {
+            relationship(ids.get(startKey), ids.get(endKey), type, null);
+        }
+    }
+
+    private void relationship(long start, long end, String type, String reason) {
+        if (relationships.computeIfAbsent(type, ignored -> new LongHashSet()).add(pair(start, end))) {
+            relationshipCount++;
+            var row = new StringBuilder().append(start).append(',').append(end).append(',').append(type).append(',');
+            appendValue(row, reason);
+            writeRow(relationshipWriter, row);
+        }
+    }
+
+    private static long pair(long start, long end) {
+        return start << 32 | end;
+    }
+
+    // ------------------------------------------------------ csv
+
+    private void writeHeader(String name, String header) throws IOException {
+        Files.writeString(directory.resolve(name + "-header.csv"), header + "\n");
+    }
+
+    private void writeRow(BufferedWriter writer, StringBuilder row) {
+        try {
+            writer.append(row).append('\n');
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to write CSV files to %s: %s", directory,
+                    e.getMessage()));
+        }
+    }
+
+    private void appendValue(StringBuilder row, Object value) {
+        switch (value) {
+            case null -> {
+                // empty field: the property is not set
+            }
+            case List<?> list -> {
+                var elements = new ArrayList<String>();
+                for (var element : list) {
+                    var string = String.valueOf(element);
+                    if (string.indexOf(ARRAY_DELIMITER) != -1) {
+                        throw new RuntimeException(String.format(
+                                "Unable to write array element '%s' to %s: It contains the array delimiter U+%04X",
+                                string, directory, (int) ARRAY_DELIMITER));
+                    }
+                    elements.add(string);
+                }
+                appendQuoted(row, String.join(String.valueOf(ARRAY_DELIMITER), elements));
+            }
+            case String string -> appendQuoted(row, string);
+            default -> row.append(value);
+        }
+    }
+
+    private void appendQuoted(StringBuilder row, String value) {
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            var c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private static String[] concat(String[]... arrays) {
+        var result = new ArrayList<String>();
+        for (var array : arrays) {
+            result.addAll(List.of(array));
+        }
+        return result.toArray(new String[0]);
+    }
+}
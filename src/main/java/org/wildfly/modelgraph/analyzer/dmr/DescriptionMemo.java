@@ -0,0 +1,121 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SUBSYSTEM;
+
+/**
+ * Memoizes the resource descriptions of structurally repeated subtrees. The same subsystems are registered under
+ * different parents of the same type, e.g. the subsystems of different deployments or the subsystems of different
+ * profiles in domain mode. Their resource descriptions are usually identical.
+ * <p>
+ * Resources are grouped by their {@linkplain #typePath(ResourceAddress) type path}. A group is only served from memory
+ * once a second resource of the group has been read and has the same content hash and content as the first one. If a
+ * resource of the group differs, the group is never served from memory again. Even a verified group might contain
+ * resources which differ, e.g. a deployment with another version of a subsystem. That's why every
+ * {@value #SAMPLE}th request of a verified group is not served from memory. The resource is read instead and compared
+ * when it is {@linkplain #put(ResourceAddress, ModelNode) recorded}. The memo can be used by multiple threads.
+ */
+class DescriptionMemo {
+
+    private enum State {
+        CANDIDATE, VERIFIED, VARYING
+    }
+
+    private static final class Entry {
+
+        private final ModelNode description;
+        private final int hash;
+        private final AtomicReference<State> state;
+        private final AtomicInteger requests;
+
+        private Entry(ModelNode description, int hash) {
+            this.description = description;
+            this.hash = hash;
+            this.state = new AtomicReference<>(State.CANDIDATE);
+            this.requests = new AtomicInteger();
+        }
+    }
+
+    /** One of this many requests of a verified group is read again to verify the group. */
+    static final int SAMPLE = 16;
+
+    private final Map<String, Entry> entries;
+    private final LongAdder hits;
+
+    DescriptionMemo() {
+        this.entries = new ConcurrentHashMap<>();
+        this.hits = new LongAdder();
+    }
+
+    /**
+     * Returns the normalized type path of a resource in a subsystem or {@code null} for resources outside of
+     * subsystems. The part of the address starting at the innermost subsystem is kept. In the part before, the values
+     * are replaced by {@code *}, but the types are kept. That way the configuration of a subsystem in a profile or
+     * server is distinguished from its runtime resources in a deployment, and the subsystems of deployments are
+     * distinguished from those of subdeployments.
+     */
+    static String typePath(ResourceAddress address) {
+        for (var current = address; current.parent() != null; current = current.parent()) {
+            if (SUBSYSTEM.equals(current.type())) {
+                var parent = current.parent();
+                if (parent.size() == 0) {
+                    return address.toString();
+                }
+                var typePath = new StringBuilder();
+                for (var segment = parent; segment.parent() != null; segment = segment.parent()) {
+                    typePath.insert(0, "/" + segment.type() + "=*");
+                }
+                return typePath.append(address.toString(), parent.toString().length(), address.toString().length())
+                        .toString();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a copy of the memoized resource description or {@code null} if the group isn't verified (yet) or the
+     * resource has been sampled to be read again.
+     */
+    ModelNode get(ResourceAddress address) {
+        var typePath = typePath(address);
+        if (typePath != null) {
+            var entry = entries.get(typePath);
+            if (entry != null && entry.state.get() == State.VERIFIED
+                    && entry.requests.incrementAndGet() % SAMPLE != 0) {
+                hits.increment();
+                return entry.description.clone();
+            }
+        }
+        return null;
+    }
+
+    /** Records a resource description which has been read and verifies or rejects its group. */
+    void put(ResourceAddress address, ModelNode description) {
+        var typePath = typePath(address);
+        if (typePath == null || description.getType() != ModelType.OBJECT) {
+            return;
+        }
+        var hash = description.hashCode();
+        var entry = entries.putIfAbsent(typePath, new Entry(description.clone(), hash));
+        if (entry != null && entry.state.get() != State.VARYING) {
+            if (entry.hash == hash && entry.description.equals(description)) {
+                // a concurrent VARYING must not be overwritten
+                entry.state.compareAndSet(State.CANDIDATE, State.VERIFIED);
+            } else {
+                entry.state.set(State.VARYING);
+            }
+        }
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+}
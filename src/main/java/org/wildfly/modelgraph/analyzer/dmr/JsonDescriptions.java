@@ -0,0 +1,278 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Attribute;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Capability;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.DeprecationInfo;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Operation;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Parameter;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Sensitive;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Value;
+
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ACCESS_CONSTRAINTS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ACCESS_TYPE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALIAS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALLOWED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALTERNATIVES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ATTRIBUTES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ATTRIBUTE_GROUP;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CAPABILITIES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CAPABILITY_REFERENCE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DEFAULT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DEPRECATED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.EXPRESSIONS_ALLOWED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAX;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAX_LENGTH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MIN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MIN_LENGTH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NAME;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NILLABLE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.OPERATIONS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_ONLY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REASON;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REPLY_PROPERTIES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REQUIRED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REQUIRES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RESTART_REQUIRED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RUNTIME_ONLY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SENSITIVE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SINCE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STABILITY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STORAGE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.TYPE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.UNIT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.VALUE_TYPE;
+
+/**
+ * Builds {@link ResourceDescription}s directly from parsed JSON, without converting the JSON to a {@link ModelNode}
+ * first. The result is the same as {@link ResourceDescription#of(ModelNode)} of
+ * {@link JsonNodes#resourceDescription(JsonObject)}: Strings, numbers, flags and types are resolved from the JSON
+ * values. Only other values, e.g. a default value which is an object, are converted using {@link JsonNodes}.
+ */
+final class JsonDescriptions {
+
+    static ResourceDescription resourceDescription(JsonObject json) {
+        Map<String, String> children = null;
+        if (defined(json, CHILDREN)) {
+            children = new LinkedHashMap<>();
+            for (var childType : json.getJsonObject(CHILDREN).entrySet()) {
+                var child = childType.getValue();
+                children.put(childType.getKey(), child.getValueType() == JsonValue.ValueType.OBJECT
+                        ? string(child.asJsonObject(), DESCRIPTION)
+                        : null);
+            }
+            children = Collections.unmodifiableMap(children);
+        }
+        List<Capability> capabilities = List.of();
+        if (defined(json, CAPABILITIES)) {
+            var values = json.getJsonArray(CAPABILITIES);
+            capabilities = new ArrayList<>(values.size());
+            for (var value : values) {
+                var capability = value.asJsonObject();
+                capabilities.add(new Capability(text(capability.get(NAME)), string(capability, STABILITY)));
+            }
+        }
+        List<Operation> operations = List.of();
+        if (defined(json, OPERATIONS)) {
+            var entries = json.getJsonObject(OPERATIONS).entrySet();
+            operations = new ArrayList<>(entries.size());
+            for (var entry : entries) {
+                operations.add(operation(entry.getKey(), entry.getValue().asJsonObject()));
+            }
+        }
+        return new ResourceDescription(string(json, DESCRIPTION), string(json, STABILITY), children,
+                List.copyOf(capabilities), attributes(json, ATTRIBUTES), List.copyOf(operations), deprecated(json));
+    }
+
+    // ------------------------------------------------------ attributes
+
+    private static List<Attribute> attributes(JsonObject json, String key) {
+        if (!defined(json, key)) {
+            return List.of();
+        }
+        var entries = json.getJsonObject(key).entrySet();
+        List<Attribute> attributes = new ArrayList<>(entries.size());
+        for (var entry : entries) {
+            var attribute = entry.getValue().asJsonObject();
+            List<Sensitive> sensitive = List.of();
+            if (defined(attribute, ACCESS_CONSTRAINTS) && defined(attribute.getJsonObject(ACCESS_CONSTRAINTS),
+                    SENSITIVE)) {
+                var constraints = attribute.getJsonObject(ACCESS_CONSTRAINTS).getJsonObject(SENSITIVE).entrySet();
+                sensitive = new ArrayList<>(constraints.size());
+                for (var constraint : constraints) {
+                    sensitive.add(new Sensitive(constraint.getKey(),
+                            text(constraint.getValue().asJsonObject().get(TYPE))));
+                }
+            }
+            attributes.add(new Attribute(entry.getKey(), value(attribute),
+                    string(attribute, ACCESS_TYPE),
+                    string(attribute, ALIAS),
+                    string(attribute, ATTRIBUTE_GROUP),
+                    string(attribute, DEFAULT),
+                    string(attribute, DESCRIPTION),
+                    string(attribute, RESTART_REQUIRED),
+                    string(attribute, STORAGE),
+                    List.copyOf(sensitive),
+                    complex(attribute) ? attributes(attribute, VALUE_TYPE) : List.of()));
+        }
+        return List.copyOf(attributes);
+    }
+
+    // ------------------------------------------------------ operations
+
+    private static Operation operation(String name, JsonObject operation) {
+        String returnValue = null;
+        String replyValueType = null;
+        if (defined(operation, REPLY_PROPERTIES)) {
+            var reply = operation.getJsonObject(REPLY_PROPERTIES);
+            if (defined(reply, TYPE)) {
+                var type = JsonNodes.encodedType(reply.get(TYPE));
+                returnValue = (type != null ? type : JsonNodes.asNode(reply.get(TYPE)).asType()).name();
+            }
+            replyValueType = valueType(reply);
+        }
+        return new Operation(name,
+                string(operation, DESCRIPTION),
+                bool(operation, READ_ONLY),
+                bool(operation, RUNTIME_ONLY),
+                string(operation, STABILITY),
+                returnValue, replyValueType,
+                parameters(operation, REQUEST_PROPERTIES),
+                deprecated(operation));
+    }
+
+    private static List<Parameter> parameters(JsonObject json, String key) {
+        if (!defined(json, key)) {
+            return List.of();
+        }
+        var entries = json.getJsonObject(key).entrySet();
+        List<Parameter> parameters = new ArrayList<>(entries.size());
+        for (var entry : entries) {
+            var parameter = entry.getValue().asJsonObject();
+            parameters.add(new Parameter(entry.getKey(), value(parameter),
+                    complex(parameter) ? parameters(parameter, VALUE_TYPE) : List.of()));
+        }
+        return List.copyOf(parameters);
+    }
+
+    // ------------------------------------------------------ values
+
+    private static Value value(JsonObject json) {
+        return new Value(
+                defined(json, ALLOWED) ? strings(json.get(ALLOWED)) : null,
+                bool(json, EXPRESSIONS_ALLOWED),
+                number(json, MAX),
+                number(json, MAX_LENGTH),
+                number(json, MIN),
+                number(json, MIN_LENGTH),
+                bool(json, NILLABLE),
+                bool(json, REQUIRED),
+                string(json, STABILITY),
+                string(json, TYPE),
+                string(json, UNIT),
+                valueType(json),
+                string(json, CAPABILITY_REFERENCE),
+                defined(json, ALTERNATIVES) ? strings(json.get(ALTERNATIVES)) : List.of(),
+                defined(json, REQUIRES) ? strings(json.get(REQUIRES)) : List.of(),
+                deprecated(json));
+    }
+
+    private static boolean complex(JsonObject json) {
+        return defined(json, VALUE_TYPE)
+                && json.get(VALUE_TYPE).getValueType() == JsonValue.ValueType.OBJECT
+                && !JsonNodes.encoded(json.getJsonObject(VALUE_TYPE));
+    }
+
+    private static String valueType(JsonObject json) {
+        if (defined(json, VALUE_TYPE)) {
+            var valueType = json.get(VALUE_TYPE);
+            return valueType.getValueType() == JsonValue.ValueType.STRING
+                    ? ((JsonString) valueType).getString()
+                    : ModelType.OBJECT.name();
+        }
+        return null;
+    }
+
+    private static DeprecationInfo deprecated(JsonObject json) {
+        if (defined(json, DEPRECATED)) {
+            var deprecated = json.getJsonObject(DEPRECATED);
+            return new DeprecationInfo(text(deprecated.get(REASON)), text(deprecated.get(SINCE)));
+        }
+        return null;
+    }
+
+    // ------------------------------------------------------ helper methods
+
+    private static boolean defined(JsonObject json, String key) {
+        var value = json.get(key);
+        return value != null && value.getValueType() != JsonValue.ValueType.NULL;
+    }
+
+    private static String string(JsonObject json, String key) {
+        return defined(json, key) ? text(json.get(key)) : null;
+    }
+
+    private static Boolean bool(JsonObject json, String key) {
+        if (!defined(json, key)) {
+            return null;
+        }
+        var value = json.get(key);
+        return switch (value.getValueType()) {
+            case TRUE -> true;
+            case FALSE -> false;
+            default -> JsonNodes.asNode(value).asBoolean();
+        };
+    }
+
+    private static Long number(JsonObject json, String key) {
+        if (!defined(json, key)) {
+            return null;
+        }
+        var value = json.get(key);
+        return value.getValueType() == JsonValue.ValueType.NUMBER
+                ? ((JsonNumber) value).longValue()
+                : JsonNodes.asNode(value).asLong();
+    }
+
+    /** Resolves a value like {@link ModelNode#asString()}. Missing values are undefined. */
+    private static String text(JsonValue value) {
+        if (value == null) {
+            value = JsonValue.NULL;
+        }
+        if (value.getValueType() == JsonValue.ValueType.STRING) {
+            return ((JsonString) value).getString();
+        }
+        var type = JsonNodes.encodedType(value);
+        return type != null ? type.toString() : JsonNodes.asNode(value).asString();
+    }
+
+    private static List<String> strings(JsonValue value) {
+        if (value.getValueType() != JsonValue.ValueType.ARRAY) {
+            return JsonNodes.asNode(value).asList().stream().map(ModelNode::asString).toList();
+        }
+        var values = (JsonArray) value;
+        var strings = new String[values.size()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = text(values.get(i));
+        }
+        return List.of(strings);
+    }
+
+    private JsonDescriptions() {
+    }
+}
@@ -1,9 +1,14 @@
 package org.wildfly.modelgraph.analyzer.dmr;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.zip.ZipFile;
 import jakarta.json.Json;
 import jakarta.json.JsonObject;
@@ -12,11 +17,14 @@ import jakarta.json.JsonReader;
 import jakarta.json.JsonValue;
 
 import org.jboss.dmr.ModelNode;
-import org.jboss.dmr.Property;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wildfly.modelgraph.analyzer.Version;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MODEL_DESCRIPTION;
+
 public class JsonModel implements ManagementModel {
 
     private static final Logger logger = LoggerFactory.getLogger(JsonModel.class);
@@ -26,12 +34,22 @@ public class JsonModel implements ManagementModel {
     private final String filename;
     private final ZipFile zipFile;
     private final JsonReader metadataReader;
-    private final JsonReader modelReader;
     private final JsonObject metadata;
-    private final JsonObject model;
+    private final Content content;
+    private final boolean streaming;
+    private Resource index;
 
     public JsonModel(String filename) {
+        this(filename, false);
+    }
+
+    /**
+     * @param streaming if {@code true}, {@link #walk(ResourceAddress, int, Visitor)} parses the model document as a
+     *                  stream instead of reading it into memory
+     */
+    public JsonModel(String filename, boolean streaming) {
         this.filename = filename;
+        this.streaming = streaming;
         try {
             this.zipFile = new ZipFile(filename);
             var metadataEntry = zipFile.getEntry(METADATA_JSON);
@@ -45,9 +63,13 @@ public class JsonModel implements ManagementModel {
             if (modelEntry == null) {
                 throw new RuntimeException(String.format("Missing %s in %s", MODEL_JSON, filename));
             }
-            this.modelReader = Json.createReader(zipFile.getInputStream(modelEntry));
-            this.model = modelReader.readObject();
-            logger.info("Loaded {} and {} from {}", METADATA_JSON, MODEL_JSON, filename);
+            this.content = () -> zipFile.getInputStream(modelEntry);
+            if (streaming) {
+                logger.info("Loaded {} from {}. {} is streamed.", METADATA_JSON, filename, MODEL_JSON);
+            } else {
+                this.index = load(content);
+                logger.info("Loaded {} and {} from {}", METADATA_JSON, MODEL_JSON, filename);
+            }
         } catch (IOException e) {
             throw new RuntimeException(String.format("Failed to read from zip file %s: %s", filename, e.getMessage()));
         }
@@ -55,12 +77,20 @@ public class JsonModel implements ManagementModel {
 
     // Used by tests
     JsonModel(String metadata, String model) {
+        this(metadata, model, false);
+    }
+
+    // Used by tests
+    JsonModel(String metadata, String model, boolean streaming) {
         this.filename = null;
         this.zipFile = null;
+        this.streaming = streaming;
         this.metadataReader = Json.createReader(new StringReader(metadata));
-        this.modelReader = Json.createReader(new StringReader(model));
         this.metadata = metadataReader.readObject();
-        this.model = modelReader.readObject();
+        this.content = () -> new ByteArrayInputStream(model.getBytes(UTF_8));
+        if (!streaming) {
+            this.index = load(content);
+        }
     }
 
     @Override
@@ -80,66 +110,37 @@ public class JsonModel implements ManagementModel {
 
     @Override
     public List<String> children(ResourceAddress address) {
-        try {
-            JsonObject target;
-            if (address.asPropertyList().isEmpty()) {
-                target = model;
-            } else {
-                JsonPointer pointer = asPointer(address);
-                JsonValue value = pointer.getValue(model);
-                if (value == null || value.getValueType() != JsonValue.ValueType.OBJECT) {
-                    return List.of();
-                }
-                target = value.asJsonObject();
-            }
-
-            if (!target.containsKey("children")) {
-                return List.of();
-            }
-            JsonObject children = target.getJsonObject("children");
-            if (children == null || children.isEmpty()) {
-                return List.of();
-            }
-
-            List<String> result = new ArrayList<>();
-            for (String childType : children.keySet()) {
-                JsonObject childValue = children.getJsonObject(childType);
-                if (childValue != null && childValue.containsKey("model-description")) {
-                    JsonObject modelDescription = childValue.getJsonObject("model-description");
-                    if (modelDescription != null) {
-                        if (modelDescription.size() == 1 && modelDescription.containsKey("*")) {
-                            result.add(childType);
-                        } else {
-                            for (String entryName : modelDescription.keySet()) {
-                                result.add(childType + "=" + entryName);
-                            }
-                        }
-                    }
-                }
-            }
-            return result;
-        } catch (Exception e) {
-            logger.warn("Unable to get children for {}: {}", address, e.getMessage());
-            return List.of();
-        }
+        var resource = lookup(address);
+        return resource != null ? resource.children() : List.of();
     }
 
     @Override
     public ModelNode resourceDescription(ResourceAddress address) {
-        JsonPointer pointer = asPointer(address);
-        JsonValue value = pointer.getValue(model);
-        if (value != null) {
-            return asNode(value.asJsonObject());
+        var resource = lookup(address);
+        if (resource != null) {
+            return JsonNodes.resourceDescription(resource.description());
         }
         return new ModelNode();
     }
 
+    @Override
+    public ResourceDescription description(ResourceAddress address) {
+        var resource = lookup(address);
+        return resource != null ? JsonDescriptions.resourceDescription(resource.description()) : null;
+    }
+
+    @Override
+    public void walk(ResourceAddress address, int maxDepth, Visitor visitor) {
+        if (streaming) {
+            new JsonModelStream(() -> Json.createParser(content.open()), address, maxDepth).walk(visitor);
+        } else {
+            ManagementModel.super.walk(address, maxDepth, visitor);
+        }
+    }
+
     @Override
     public void close() {
         logger.debug("Closing JSON model");
-        if (modelReader != null) {
-            modelReader.close();
-        }
         if (metadataReader != null) {
             metadataReader.close();
         }
@@ -152,16 +153,122 @@ public class JsonModel implements ManagementModel {
         }
     }
 
+    private Resource lookup(ResourceAddress address) {
+        if (address.parent() == null) {
+            return index();
+        }
+        var parent = lookup(address.parent());
+        return parent != null ? parent.child(address.type(), address.value()) : null;
+    }
+
+    /** In streaming mode, the model is only read if resources are requested one by one. */
+    private synchronized Resource index() {
+        if (index == null) {
+            logger.warn("Read {} into memory, since resources are requested one by one", MODEL_JSON);
+            index = load(content);
+        }
+        return index;
+    }
+
+    /**
+     * Reads the model and builds the address index. The top-level resources are located by a
+     * {@link JsonModelScanner} and parsed in parallel on the common fork-join pool.
+     */
+    private static Resource load(Content content) {
+        byte[] bytes;
+        try (var in = content.open()) {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to read %s: %s", MODEL_JSON, e.getMessage()), e);
+        }
+        var scan = JsonModelScanner.scan(bytes);
+        var subtrees = scan.ranges().parallelStream()
+                .map(range -> Resource.of(parse(bytes, range.start(), range.end() - range.start())))
+                .toList();
+        Map<String, Map<String, Resource>> resources = new HashMap<>();
+        for (int i = 0; i < subtrees.size(); i++) {
+            var range = scan.ranges().get(i);
+            resources.computeIfAbsent(range.type(), type -> new HashMap<>()).put(range.name(), subtrees.get(i));
+        }
+        var root = parse(scan.skeleton(), 0, scan.skeleton().length);
+        logger.debug("Parsed {} top-level resources of {} in parallel", subtrees.size(), MODEL_JSON);
+        return new Resource(root, Resource.children(root), resources);
+    }
+
+    private static JsonObject parse(byte[] bytes, int offset, int length) {
+        try (var reader = Json.createReader(new ByteArrayInputStream(bytes, offset, length))) {
+            return reader.readObject();
+        }
+    }
+
     JsonPointer asPointer(ResourceAddress address) {
         StringBuilder path = new StringBuilder();
-        List<Property> tuples = address.asPropertyList();
-        for (Property tuple : tuples) {
-            path.append("/children/").append(tuple.getName()).append("/model-description/").append(tuple.getValue().asString());
+        for (var current = address; current.parent() != null; current = current.parent()) {
+            path.insert(0, "/children/" + current.type() + "/model-description/" + current.value());
         }
         return Json.createPointer(path.toString());
     }
 
-    private ModelNode asNode(JsonObject json) {
-        return ModelNode.fromJSONString(json.toString());
+    /**
+     * Entry of the address index, which is built once when the model is read. Holds the description of a resource,
+     * its children as returned by {@link #children(ResourceAddress)} and the entries of its child resources by type
+     * and name.
+     */
+    private record Resource(JsonObject description, List<String> children,
+                            Map<String, Map<String, Resource>> resources) {
+
+        static Resource of(JsonObject description) {
+            Map<String, Map<String, Resource>> resources = new HashMap<>();
+            modelDescriptions(description, (type, names) -> {
+                Map<String, Resource> byName = new HashMap<>();
+                names.forEach((name, value) -> {
+                    if (value.getValueType() == JsonValue.ValueType.OBJECT) {
+                        byName.put(name, of(value.asJsonObject()));
+                    }
+                });
+                resources.put(type, byName);
+            });
+            return new Resource(description, children(description), resources);
+        }
+
+        static List<String> children(JsonObject description) {
+            List<String> children = new ArrayList<>();
+            modelDescriptions(description, (type, names) -> {
+                if (names.size() == 1 && names.containsKey("*")) {
+                    children.add(type);
+                } else {
+                    for (var name : names.keySet()) {
+                        children.add(type + "=" + name);
+                    }
+                }
+            });
+            return List.copyOf(children);
+        }
+
+        private static void modelDescriptions(JsonObject description, BiConsumer<String, JsonObject> consumer) {
+            var childTypes = description.get(CHILDREN);
+            if (childTypes != null && childTypes.getValueType() == JsonValue.ValueType.OBJECT) {
+                childTypes.asJsonObject().forEach((type, child) -> {
+                    var modelDescription = child.getValueType() == JsonValue.ValueType.OBJECT
+                            ? child.asJsonObject().get(MODEL_DESCRIPTION)
+                            : null;
+                    if (modelDescription != null && modelDescription.getValueType() == JsonValue.ValueType.OBJECT) {
+                        consumer.accept(type, modelDescription.asJsonObject());
+                    }
+                });
+            }
+        }
+
+        Resource child(String type, String name) {
+            var byName = resources.get(type);
+            return byName != null ? byName.get(name) : null;
+        }
+    }
+
+    /** Opens the content of the model document. */
+    @FunctionalInterface
+    private interface Content {
+
+        InputStream open() throws IOException;
     }
 }
@@ -0,0 +1,204 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import jakarta.json.Json;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MODEL_DESCRIPTION;
+
+/**
+ * Structural scan of the raw bytes of {@code management-api.json}. Finds the byte ranges of the top-level resources
+ * ({@code /children/<type>/model-description/<name>}) without parsing them, so that they can be parsed in parallel.
+ * The scan only looks at the structural characters and skips strings, which is much cheaper than parsing. Since
+ * these characters are ASCII, the bytes don't need to be decoded.
+ * <p>
+ * The remainder of the document, with each top-level resource replaced by an empty object, is returned as
+ * skeleton. It holds the description of the root resource and its child types.
+ */
+class JsonModelScanner {
+
+    /** Byte range of a top-level resource. {@code end} is exclusive. */
+    record Range(String type, String name, int start, int end) {
+    }
+
+    record Result(byte[] skeleton, List<Range> ranges) {
+    }
+
+    static Result scan(byte[] bytes) {
+        var scanner = new JsonModelScanner(bytes);
+        scanner.root();
+        var skeleton = new ByteArrayOutputStream();
+        var position = 0;
+        for (var range : scanner.ranges) {
+            skeleton.write(bytes, position, range.start() - position);
+            skeleton.write('{');
+            skeleton.write('}');
+            position = range.end();
+        }
+        skeleton.write(bytes, position, bytes.length - position);
+        return new Result(skeleton.toByteArray(), scanner.ranges);
+    }
+
+    private final byte[] bytes;
+    private final List<Range> ranges;
+    private int position;
+
+    private JsonModelScanner(byte[] bytes) {
+        this.bytes = bytes;
+        this.ranges = new ArrayList<>();
+    }
+
+    // ------------------------------------------------------ structure
+
+    private void root() {
+        members(key -> {
+            if (CHILDREN.equals(key) && peek() == '{') {
+                members(type -> {
+                    if (peek() == '{') {
+                        members(childKey -> {
+                            if (MODEL_DESCRIPTION.equals(childKey) && peek() == '{') {
+                                members(name -> {
+                                    var start = position;
+                                    skipValue();
+                                    if (bytes[start] == '{') {
+                                        ranges.add(new Range(type, name, start, position));
+                                    }
+                                });
+                            } else {
+                                skipValue();
+                            }
+                        });
+                    } else {
+                        skipValue();
+                    }
+                });
+            } else {
+                skipValue();
+            }
+        });
+    }
+
+    /**
+     * Scans the members of the object at the current position. The consumer is called with the position at the
+     * start of the value and must consume the value.
+     */
+    private void members(Consumer<String> member) {
+        expect('{');
+        if (peek() == '}') {
+            position++;
+            return;
+        }
+        while (true) {
+            var key = key();
+            expect(':');
+            peek();
+            member.accept(key);
+            var next = peek();
+            position++;
+            if (next == '}') {
+                return;
+            } else if (next != ',') {
+                throw unexpected(next);
+            }
+        }
+    }
+
+    private String key() {
+        if (peek() != '"') {
+            throw unexpected(bytes[position]);
+        }
+        var start = position;
+        skipString();
+        var escaped = false;
+        for (int i = start + 1; i < position - 1; i++) {
+            if (bytes[i] == '\\') {
+                escaped = true;
+                break;
+            }
+        }
+        if (escaped) {
+            var raw = new String(bytes, start, position - start, UTF_8);
+            return Json.createReader(new StringReader("[" + raw + "]")).readArray().getString(0);
+        }
+        return new String(bytes, start + 1, position - start - 2, UTF_8);
+    }
+
+    // ------------------------------------------------------ skip
+
+    private void skipValue() {
+        var first = peek();
+        if (first == '"') {
+            skipString();
+        } else if (first == '{' || first == '[') {
+            var depth = 0;
+            do {
+                var c = bytes[position];
+                if (c == '"') {
+                    skipString();
+                    continue;
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+                position++;
+            } while (depth > 0 && position < bytes.length);
+        } else {
+            while (position < bytes.length) {
+                var c = bytes[position];
+                if (c == ',' || c == '}' || c == ']' || whitespace(c)) {
+                    break;
+                }
+                position++;
+            }
+        }
+    }
+
+    private void skipString() {
+        position++;
+        while (position < bytes.length) {
+            var c = bytes[position++];
+            if (c == '\\') {
+                position++;
+            } else if (c == '"') {
+                return;
+            }
+        }
+        throw new RuntimeException("Unterminated string in model");
+    }
+
+    // ------------------------------------------------------ tokens
+
+    /** Skips whitespace and returns the next byte without consuming it. */
+    private byte peek() {
+        while (position < bytes.length && whitespace(bytes[position])) {
+            position++;
+        }
+        if (position == bytes.length) {
+            throw new RuntimeException("Unexpected end of model");
+        }
+        return bytes[position];
+    }
+
+    private void expect(char expected) {
+        var c = peek();
+        if (c != expected) {
+            throw unexpected(c);
+        }
+        position++;
+    }
+
+    private RuntimeException unexpected(byte c) {
+        return new RuntimeException(String.format("Unexpected character '%c' at offset %d of model", (char) c,
+                position));
+    }
+
+    private static boolean whitespace(byte c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+}
@@ -0,0 +1,190 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParser.Event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wildfly.modelgraph.analyzer.dmr.ManagementModel.Visitor;
+
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MODEL_DESCRIPTION;
+
+/**
+ * Walks {@code management-api.json} with a streaming parser, without reading the document into a tree.
+ * <p>
+ * Parents must be visited before their children. That's why a resource is visited as soon as its {@code children}
+ * are reached. However, some resources have properties after their {@code children}, and the child descriptions of a
+ * resource are spread over its children. These parts are collected in a first pass, which skips everything else. The
+ * second pass visits the resources in document order and adds the parts collected by the first pass.
+ * <p>
+ * Memory therefore grows with the number of resources which have children: The child descriptions and trailing
+ * properties of each of them are kept until the resource is visited. The attributes and operations, which make up
+ * most of the document, are only kept for the current resource.
+ */
+class JsonModelStream {
+
+    /** Opens a new parser for the model document. */
+    @FunctionalInterface
+    interface Source {
+
+        JsonParser open() throws IOException;
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonModelStream.class);
+
+    private final Source source;
+    private final ResourceAddress root;
+    private final int maxDepth;
+    private final Map<String, JsonObjectBuilder> deferred;
+    private boolean secondPass;
+
+    JsonModelStream(Source source, ResourceAddress root, int maxDepth) {
+        this.source = source;
+        this.root = root;
+        this.maxDepth = maxDepth;
+        this.deferred = new HashMap<>();
+    }
+
+    void walk(Visitor visitor) {
+        try (var parser = source.open()) {
+            parser.next();
+            collect(parser, ResourceAddress.of("/"));
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to read model: %s", e.getMessage()), e);
+        }
+        logger.debug("Collected trailing properties of {} resources", deferred.size());
+        secondPass = true;
+        try (var parser = source.open()) {
+            parser.next();
+            visit(parser, ResourceAddress.of("/"), null, visitor);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to read model: %s", e.getMessage()), e);
+        }
+    }
+
+    // ------------------------------------------------------ first pass
+
+    /** Collects the child descriptions and the properties after the children of the resource. */
+    private void collect(JsonParser parser, ResourceAddress address) {
+        JsonObjectBuilder trailing = null;
+        while (parser.next() == Event.KEY_NAME) {
+            var key = parser.getString();
+            var event = parser.next();
+            if (CHILDREN.equals(key) && event == Event.START_OBJECT) {
+                trailing = Json.createObjectBuilder().add(CHILDREN,
+                        children(parser, address, child -> collect(parser, child)));
+            } else if (trailing != null) {
+                trailing.add(key, parser.getValue());
+            } else {
+                skip(parser, event);
+            }
+        }
+        if (trailing != null && address.startsWith(root)) {
+            deferred.put(address.toString(), trailing);
+        }
+    }
+
+    // ------------------------------------------------------ second pass
+
+    private void visit(JsonParser parser, ResourceAddress address, ResourceAddress parent, Visitor visitor) {
+        var description = Json.createObjectBuilder();
+        var visited = !address.startsWith(root);
+        while (parser.next() == Event.KEY_NAME) {
+            var key = parser.getString();
+            var event = parser.next();
+            if (CHILDREN.equals(key) && event == Event.START_OBJECT) {
+                if (!visited) {
+                    var trailing = deferred.remove(address.toString());
+                    if (trailing != null) {
+                        trailing.build().forEach(description::add);
+                    }
+                    visit(visitor, address, parent, description.build());
+                    visited = true;
+                }
+                // child descriptions have been collected by the first pass
+                children(parser, address, child -> visit(parser, child, address, visitor));
+            } else if (!visited) {
+                description.add(key, parser.getValue());
+            } else {
+                // properties after the children have been collected by the first pass
+                skip(parser, event);
+            }
+        }
+        if (!visited) {
+            visit(visitor, address, parent, description.build());
+        }
+    }
+
+    private void visit(Visitor visitor, ResourceAddress address, ResourceAddress parent, JsonObject description) {
+        visitor.visit(address, address.equals(root) ? null : parent,
+                () -> JsonDescriptions.resourceDescription(description));
+    }
+
+    // ------------------------------------------------------ children
+
+    /**
+     * Parses the children of a resource. Passes each child resource which is relevant for the walk to the consumer
+     * and skips the others. Returns the child descriptions by child type.
+     */
+    private JsonObject children(JsonParser parser, ResourceAddress address, Consumer<ResourceAddress> resource) {
+        var descriptions = Json.createObjectBuilder();
+        while (parser.next() == Event.KEY_NAME) {
+            var type = parser.getString();
+            var event = parser.next();
+            if (event != Event.START_OBJECT) {
+                skip(parser, event);
+                continue;
+            }
+            var child = Json.createObjectBuilder();
+            while (parser.next() == Event.KEY_NAME) {
+                var key = parser.getString();
+                event = parser.next();
+                if (MODEL_DESCRIPTION.equals(key) && event == Event.START_OBJECT) {
+                    while (parser.next() == Event.KEY_NAME) {
+                        var childAddress = address.add(type + "=" + parser.getString());
+                        event = parser.next();
+                        if (event == Event.START_OBJECT && relevant(childAddress)) {
+                            resource.accept(childAddress);
+                        } else {
+                            skip(parser, event);
+                        }
+                    }
+                } else if (DESCRIPTION.equals(key)) {
+                    child.add(key, parser.getValue());
+                } else {
+                    skip(parser, event);
+                }
+            }
+            descriptions.add(type, child);
+        }
+        return descriptions.build();
+    }
+
+    /** Whether the resource is part of the walk or on the path to its root. */
+    private boolean relevant(ResourceAddress address) {
+        if (address.size() >= maxDepth) {
+            if (secondPass && address.startsWith(root)) {
+                logger.warn("Skip {}. Maximum nesting of {} reached.", address, maxDepth);
+            }
+            return false;
+        }
+        return address.startsWith(root) || root.startsWith(address);
+    }
+
+    private static void skip(JsonParser parser, Event event) {
+        if (event == Event.START_OBJECT) {
+            parser.skipObject();
+        } else if (event == Event.START_ARRAY) {
+            parser.skipArray();
+        }
+    }
+}
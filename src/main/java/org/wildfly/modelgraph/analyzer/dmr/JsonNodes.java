@@ -0,0 +1,135 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.util.Base64;
+import jakarta.json.JsonArray;
+import jakarta.json.JsonNumber;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DESCRIPTION;
+
+/**
+ * Converts parsed JSON to {@link ModelNode}s without going through JSON text again. The conversion follows
+ * {@link ModelNode#fromJSONString(String)}: Integral numbers become {@code int}, {@code long} or {@code BigInteger}
+ * values depending on their size, other numbers {@code BigDecimal} values, and the objects DMR uses to encode types,
+ * bytes and expressions are decoded.
+ */
+final class JsonNodes {
+
+    private static final String TYPE_MODEL_VALUE = "TYPE_MODEL_VALUE";
+    private static final String BYTES_VALUE = "BYTES_VALUE";
+    private static final String EXPRESSION_VALUE = "EXPRESSION_VALUE";
+
+    /**
+     * Converts a resource description. Of the {@code children}, only the description of each child type is kept. The
+     * nested resource descriptions are skipped.
+     */
+    static ModelNode resourceDescription(JsonObject json) {
+        var node = new ModelNode();
+        node.setEmptyObject();
+        json.forEach((key, value) -> {
+            if (CHILDREN.equals(key) && value.getValueType() == JsonValue.ValueType.OBJECT) {
+                var children = node.get(CHILDREN);
+                children.setEmptyObject();
+                value.asJsonObject().forEach((type, child) -> {
+                    var childNode = children.get(type);
+                    childNode.setEmptyObject();
+                    if (child.getValueType() == JsonValue.ValueType.OBJECT
+                            && child.asJsonObject().containsKey(DESCRIPTION)) {
+                        set(childNode.get(DESCRIPTION), child.asJsonObject().get(DESCRIPTION));
+                    }
+                });
+            } else {
+                set(node.get(key), value);
+            }
+        });
+        return node;
+    }
+
+    static ModelNode asNode(JsonValue json) {
+        var node = new ModelNode();
+        set(node, json);
+        return node;
+    }
+
+    private static void set(ModelNode node, JsonValue json) {
+        switch (json.getValueType()) {
+            case OBJECT -> {
+                var object = json.asJsonObject();
+                if (encoded(object)) {
+                    decode(node, object);
+                    return;
+                }
+                node.setEmptyObject();
+                object.forEach((key, value) -> set(node.get(key), value));
+            }
+            case ARRAY -> {
+                node.setEmptyList();
+                for (var value : (JsonArray) json) {
+                    set(node.add(), value);
+                }
+            }
+            case STRING -> node.set(((JsonString) json).getString());
+            case NUMBER -> number(node, (JsonNumber) json);
+            case TRUE -> node.set(true);
+            case FALSE -> node.set(false);
+            case NULL -> {
+                // undefined
+            }
+        }
+    }
+
+    /** Whether the object encodes a type, bytes or an expression rather than being an object of its own. */
+    static boolean encoded(JsonObject object) {
+        if (object.size() != 1) {
+            return false;
+        }
+        var entry = object.entrySet().iterator().next();
+        return entry.getValue().getValueType() == JsonValue.ValueType.STRING
+                && (TYPE_MODEL_VALUE.equals(entry.getKey())
+                || BYTES_VALUE.equals(entry.getKey())
+                || EXPRESSION_VALUE.equals(entry.getKey()));
+    }
+
+    /** Returns the type of an {@linkplain #encoded(JsonObject) encoded} type or {@code null} for other values. */
+    static ModelType encodedType(JsonValue json) {
+        if (json.getValueType() == JsonValue.ValueType.OBJECT && encoded(json.asJsonObject())) {
+            var type = json.asJsonObject().get(TYPE_MODEL_VALUE);
+            return type != null ? ModelType.valueOf(((JsonString) type).getString()) : null;
+        }
+        return null;
+    }
+
+    private static void decode(ModelNode node, JsonObject object) {
+        var entry = object.entrySet().iterator().next();
+        var value = ((JsonString) entry.getValue()).getString();
+        switch (entry.getKey()) {
+            case TYPE_MODEL_VALUE -> node.set(ModelType.valueOf(value));
+            case BYTES_VALUE -> node.set(Base64.getDecoder().decode(value));
+            default -> node.setExpression(value);
+        }
+    }
+
+    private static void number(ModelNode node, JsonNumber number) {
+        if (number.isIntegral()) {
+            var value = number.bigIntegerValue();
+            if (value.bitLength() < Integer.SIZE) {
+                node.set(value.intValue());
+            } else if (value.bitLength() < Long.SIZE) {
+                node.set(value.longValue());
+            } else {
+                node.set(value);
+            }
+        } else {
+            node.set(number.bigDecimalValue());
+        }
+    }
+
+    private JsonNodes() {
+    }
+}
@@ -1,14 +1,59 @@
 package org.wildfly.modelgraph.analyzer.dmr;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import org.jboss.dmr.ModelNode;
+import org.slf4j.LoggerFactory;
 
 public interface ManagementModel extends AutoCloseable {
 
+    /** Receives the resources of a {@link #walk(ResourceAddress, int, Visitor)}. */
+    @FunctionalInterface
+    interface Visitor {
+
+        /**
+         * @param parent      the parent address or {@code null} for the first resource of the walk
+         * @param description supplies the typed resource description or {@code null} if the resource has no
+         *                    description. The description may be read or resolved only when requested.
+         */
+        void visit(ResourceAddress address, ResourceAddress parent, Supplier<ResourceDescription> description);
+    }
+
     Identity identity();
 
     List<String> children(ResourceAddress address);
 
     ModelNode resourceDescription(ResourceAddress address);
+
+    /**
+     * Returns the typed resource description or {@code null} if the resource has no description. The default
+     * implementation resolves the result of {@link #resourceDescription(ResourceAddress)}. Models which don't read
+     * the description as {@link ModelNode} override this method and build the typed description directly.
+     */
+    default ResourceDescription description(ResourceAddress address) {
+        return ResourceDescription.of(resourceDescription(address));
+    }
+
+    /**
+     * Walks the resources starting at {@code address} up to {@code maxDepth} levels in depth-first order and passes
+     * them to the visitor. Parents are always visited before their children. The default implementation uses
+     * {@link #children(ResourceAddress)} and {@link #description(ResourceAddress)}. Models which can read
+     * their resources in one pass override this method.
+     */
+    default void walk(ResourceAddress address, int maxDepth, Visitor visitor) {
+        walk(address, null, maxDepth, visitor);
+    }
+
+    private void walk(ResourceAddress address, ResourceAddress parent, int maxDepth, Visitor visitor) {
+        if (address.size() < maxDepth) {
+            visitor.visit(address, parent, () -> description(address));
+            for (var child : children(address)) {
+                walk(address.add(child), address, maxDepth, visitor);
+            }
+        } else {
+            LoggerFactory.getLogger(ManagementModel.class)
+                    .warn("Skip {}. Maximum nesting of {} reached.", address, maxDepth);
+        }
+    }
 }
@@ -54,6 +54,7 @@ public interface ModelDescriptionConstants {
     String CHILD = "child";
     String CHILDREN = "children";
     String CHILD_DESCRIPTIONS = "child-descriptions";
+    String COMPOSITE = "composite";
 
     String DEFAULT = "default";
     String DEPRECATED = "deprecated";
@@ -92,6 +93,7 @@ public interface ModelDescriptionConstants {
     String MIN = "min";
     String MIN_LENGTH = "min-length";
     String MINOR = "minor";
+    String MODEL_DESCRIPTION = "model-description";
 
     String NAME = "name";
     String NILLABLE = "nillable";
@@ -121,6 +123,8 @@ public interface ModelDescriptionConstants {
     String READ_RESOURCE_DESCRIPTION = "read-resource-description";
     String READ_RESOURCE = "read-resource";
     String REASON = "reason";
+    String RECURSIVE = "recursive";
+    String RECURSIVE_DEPTH = "recursive-depth";
     String RELEASE_CODENAME = "release-codename";
     String RELEASE_VERSION = "release-version";
     String REMOVE = "remove";
@@ -138,7 +142,9 @@ public interface ModelDescriptionConstants {
     String SINCE = "since";
     String SINGLETON = "singleton";
     String STABILITY = "stability";
+    String STEPS = "steps";
     String STORAGE = "storage";
+    String SUBSYSTEM = "subsystem";
     String SUCCESS = "success";
 
     String TYPE = "type";
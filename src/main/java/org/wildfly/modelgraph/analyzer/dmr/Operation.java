@@ -15,10 +15,13 @@
  */
 package org.wildfly.modelgraph.analyzer.dmr;
 
+import java.util.List;
+
 import org.jboss.dmr.ModelNode;
 
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ADDRESS;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.OP;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STEPS;
 
 public class Operation extends ModelNode {
 
@@ -39,6 +42,21 @@ public class Operation extends ModelNode {
             return this;
         }
 
+        public Builder param(String name, int value) {
+            parameter.get(name).set(value);
+            return this;
+        }
+
+        /** Adds the operations as steps of a composite operation. */
+        public Builder steps(List<Operation> steps) {
+            var list = parameter.get(STEPS);
+            list.setEmptyList();
+            for (var step : steps) {
+                list.add(step);
+            }
+            return this;
+        }
+
         public Operation build() {
             return new Operation(name, address, parameter);
         }
@@ -60,7 +78,7 @@ public class Operation extends ModelNode {
     private void init() {
         set(parameter);
         get(OP).set(name);
-        get(ADDRESS).set(address);
+        get(ADDRESS).set(address.asModelNode());
     }
 
     @Override
@@ -70,7 +88,7 @@ public class Operation extends ModelNode {
 
     String asCli() {
         var builder = new StringBuilder();
-        if (address.isDefined() && !address.asList().isEmpty()) {
+        if (address.size() != 0) {
             builder.append(address);
         }
         builder.append(":").append(name);
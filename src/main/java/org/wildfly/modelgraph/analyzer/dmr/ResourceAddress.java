@@ -15,100 +15,161 @@
  */
 package org.wildfly.modelgraph.analyzer.dmr;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.jboss.dmr.ModelNode;
 
-/** Represents a fully qualified DMR address ready to be put into a DMR operation. */
-public class ResourceAddress extends ModelNode {
+/**
+ * Represents a fully qualified DMR address. An address is a parent address plus one segment of type and value. Its
+ * canonical string form and hash code are computed once.
+ * <p>
+ * Addresses are interned in a trie, which is shared by all threads: {@link #of(String)} and {@link #add(String)}
+ * return the same instance for the same address. That's why addresses can be compared by identity and the same
+ * address is never stored twice. Use {@link #asModelNode()} to put an address into a DMR operation.
+ */
+public final class ResourceAddress {
+
+    private static final ResourceAddress ROOT = new ResourceAddress(null, null, null);
 
     public static ResourceAddress of(String address) {
+        var resourceAddress = ROOT;
         if (address != null && !address.isEmpty() && !"/".equals(address)) {
-            var node = new ModelNode();
             var normalized = address.startsWith("/") ? address.substring(1) : address;
             var segments = normalized.split("/");
             for (var segment : segments) {
                 var kv = segment.split("=");
-                node.add().set(kv[0], kv[1]);
+                resourceAddress = resourceAddress.child(kv[0], kv[1]);
             }
-            return new ResourceAddress(node);
         }
-        return new ResourceAddress();
+        return resourceAddress;
     }
 
-    private ResourceAddress() {
-        setEmptyList();
-    }
+    private final ResourceAddress parent;
+    private final String type;
+    private final String value;
+    private final int size;
+    private final String string;
+    private final int hash;
+    /** The interned child addresses by type and value. Created on demand. */
+    private volatile Map<String, Map<String, ResourceAddress>> children;
 
-    private ResourceAddress(ModelNode address) {
-        set(address);
+    private ResourceAddress(ResourceAddress parent, String type, String value) {
+        this.parent = parent;
+        this.type = type;
+        this.value = value;
+        if (parent == null) {
+            this.size = 0;
+            // Do not change the string form, it's used in neo4j!
+            this.string = "/";
+        } else {
+            this.size = parent.size + 1;
+            this.string = (parent.size == 0 ? "/" : parent.string + "/") + type + "=" + value;
+        }
+        this.hash = string.hashCode();
     }
 
     public ResourceAddress add(String segment) {
-        var address = new ResourceAddress(this);
         if (segment != null) {
             var kv = segment.split("=", 2);
             if (kv.length == 1) {
-                address.add().set(kv[0], "*");
+                return child(kv[0], "*");
             } else if (kv.length == 2) {
-                address.add().set(kv[0], kv[1]);
+                return child(kv[0], kv[1]);
+            }
+        }
+        return this;
+    }
+
+    private ResourceAddress child(String type, String value) {
+        var children = this.children;
+        if (children == null) {
+            synchronized (this) {
+                children = this.children;
+                if (children == null) {
+                    children = new ConcurrentHashMap<>();
+                    this.children = children;
+                }
             }
         }
-        return address;
+        return children.computeIfAbsent(type, t -> new ConcurrentHashMap<>())
+                .computeIfAbsent(value, v -> new ResourceAddress(this, type, value));
+    }
+
+    // ------------------------------------------------------ properties
+
+    /** Returns the parent address or {@code null} for the root address. */
+    public ResourceAddress parent() {
+        return parent;
+    }
+
+    /** Returns the type of the last segment or {@code null} for the root address. */
+    public String type() {
+        return type;
+    }
+
+    /** Returns the value of the last segment or {@code null} for the root address. */
+    public String value() {
+        return value;
     }
 
     public String getName() {
-        if (size() == 0) {
+        if (size == 0) {
             return "/";
-        } else if (lastName() != null && lastValue() != null) {
-            if ("*".equals(lastValue())) {
-                return lastName();
-            } else {
-                return lastName() + "=" + lastValue();
-            }
+        } else if ("*".equals(value)) {
+            return type;
         } else {
-            return "n/a";
+            return type + "=" + value;
         }
     }
 
     public int size() {
-        return isDefined() ? asList().size() : 0;
+        return size;
     }
 
     public boolean isSingleton() {
-        return !(size() == 0 || "*".equals(lastValue()));
+        return !(size == 0 || "*".equals(value));
     }
 
-    @Override
-    public String toString() {
-        // Do not change implementation, it's used in neo4j!
-        var builder = new StringBuilder();
-        if (isDefined()) {
-            builder.append("/");
-            for (var iterator = asPropertyList().iterator(); iterator.hasNext(); ) {
-                var segment = iterator.next();
-                builder.append(segment.getName()).append("=").append(segment.getValue().asString());
-                if (iterator.hasNext()) {
-                    builder.append("/");
-                }
-            }
-        } else {
-            builder.append("n/a");
+    /** Whether this address is equal to or a descendant of {@code address}. */
+    public boolean startsWith(ResourceAddress address) {
+        var current = this;
+        for (int i = size; i > address.size; i--) {
+            current = current.parent;
         }
-        return builder.toString();
+        return current == address;
     }
 
-    private String lastName() {
-        var properties = asPropertyList();
-        if (!properties.isEmpty()) {
-            return properties.get(properties.size() - 1).getName();
-        }
-        return null;
+    /** Converts the address to a DMR address ready to be put into a DMR operation. */
+    public ModelNode asModelNode() {
+        var node = new ModelNode();
+        node.setEmptyList();
+        addTo(node);
+        return node;
     }
 
-    private String lastValue() {
-        var properties = asPropertyList();
-        if (!properties.isEmpty()) {
-            return properties.get(properties.size() - 1).getValue().asString();
+    private void addTo(ModelNode node) {
+        if (parent != null) {
+            parent.addTo(node);
+            node.add().set(type, value);
         }
-        return null;
+    }
+
+    // ------------------------------------------------------ object
+
+    @Override
+    public boolean equals(Object o) {
+        // addresses are interned
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return string;
     }
 }
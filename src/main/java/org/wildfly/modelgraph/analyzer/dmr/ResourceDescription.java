@@ -0,0 +1,288 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ACCESS_CONSTRAINTS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ACCESS_TYPE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALIAS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALLOWED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALTERNATIVES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ATTRIBUTES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ATTRIBUTE_GROUP;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CAPABILITIES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CAPABILITY_REFERENCE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DEFAULT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DEPRECATED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.EXPRESSIONS_ALLOWED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAX;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAX_LENGTH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MIN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MIN_LENGTH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NAME;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NILLABLE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.OPERATIONS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_ONLY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REASON;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REPLY_PROPERTIES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REQUEST_PROPERTIES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REQUIRED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REQUIRES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RESTART_REQUIRED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RESULT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RUNTIME_ONLY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SENSITIVE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SINCE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STABILITY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STORAGE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.TYPE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.UNIT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.VALUE_TYPE;
+
+/**
+ * Immutable, typed view of a resource description. The description is resolved once from the {@link ModelNode}
+ * returned by the management model, so that the analyzer doesn't need to look up the same keys of the
+ * {@link ModelNode} again and again.
+ * <p>
+ * Optional values which are not defined in the resource description are {@code null}. Lists are never {@code null}
+ * unless stated otherwise. Values are resolved the same way as the analyzer used to resolve them from the
+ * {@link ModelNode}: Numbers and flags are converted to {@code Long} and {@code Boolean}, everything else is kept as
+ * string.
+ *
+ * @param children child descriptions by child type in the order of the resource description or {@code null} if the
+ *                 resource description has no children. The child descriptions are {@code null} if undefined.
+ */
+public record ResourceDescription(String description, String stability, Map<String, String> children,
+        List<Capability> capabilities, List<Attribute> attributes, List<Operation> operations,
+        DeprecationInfo deprecated) {
+
+    public record Capability(String name, String stability) {
+    }
+
+    /** The raw deprecation info. The version in {@code since} has not been parsed yet. */
+    public record DeprecationInfo(String reason, String since) {
+    }
+
+    public record Sensitive(String name, String type) {
+    }
+
+    /**
+     * The properties shared by attributes and parameters.
+     *
+     * @param allowed   the allowed values or {@code null} if undefined
+     * @param valueType the value type if it's a string, {@code OBJECT} for any other value type or {@code null} if
+     *                  undefined
+     */
+    public record Value(List<String> allowed, Boolean expressionsAllowed, Long max, Long maxLength, Long min,
+            Long minLength, Boolean nillable, Boolean required, String stability, String type, String unit,
+            String valueType, String capabilityReference, List<String> alternatives, List<String> requires,
+            DeprecationInfo deprecated) {
+    }
+
+    /** @param attributes the nested attributes of a complex attribute */
+    public record Attribute(String name, Value value, String accessType, String alias, String attributeGroup,
+            String defaultValue, String description, String restartRequired, String storage,
+            List<Sensitive> sensitive, List<Attribute> attributes) {
+    }
+
+    /**
+     * @param returnValue    the type of the reply or {@code null} if undefined
+     * @param replyValueType the value type of the reply, resolved like {@link Value#valueType()}
+     */
+    public record Operation(String name, String description, Boolean readOnly, Boolean runtimeOnly, String stability,
+            String returnValue, String replyValueType, List<Parameter> parameters, DeprecationInfo deprecated) {
+    }
+
+    /** @param parameters the nested parameters of a complex parameter */
+    public record Parameter(String name, Value value, List<Parameter> parameters) {
+    }
+
+    /**
+     * Resolves a resource description. For a wildcard address like {@code foo=*}, the result of the management
+     * operation is a list, and the first resource description of the list is used.
+     *
+     * @return the resource description or {@code null} if {@code modelNode} is undefined
+     */
+    public static ResourceDescription of(ModelNode modelNode) {
+        if (!modelNode.isDefined()) {
+            return null;
+        }
+        if (modelNode.getType() == ModelType.LIST) {
+            var descriptions = modelNode.asList();
+            if (!descriptions.isEmpty() && descriptions.getFirst().hasDefined(RESULT)) {
+                modelNode = descriptions.getFirst().get(RESULT);
+            }
+        }
+
+        Map<String, String> children = null;
+        if (modelNode.hasDefined(CHILDREN)) {
+            var childTypes = modelNode.get(CHILDREN).asPropertyList();
+            children = new LinkedHashMap<>();
+            for (var property : childTypes) {
+                var description = property.getValue().get(DESCRIPTION);
+                children.put(property.getName(), description.isDefined() ? description.asString() : null);
+            }
+            children = Collections.unmodifiableMap(children);
+        }
+        List<Capability> capabilities = List.of();
+        if (modelNode.hasDefined(CAPABILITIES)) {
+            var nodes = modelNode.get(CAPABILITIES).asList();
+            capabilities = new ArrayList<>(nodes.size());
+            for (var capability : nodes) {
+                capabilities.add(new Capability(capability.get(NAME).asString(), string(capability, STABILITY)));
+            }
+        }
+        List<Operation> operations = List.of();
+        if (modelNode.hasDefined(OPERATIONS)) {
+            var properties = modelNode.get(OPERATIONS).asPropertyList();
+            operations = new ArrayList<>(properties.size());
+            for (var property : properties) {
+                operations.add(operation(property.getName(), property.getValue()));
+            }
+        }
+        return new ResourceDescription(string(modelNode, DESCRIPTION), string(modelNode, STABILITY), children,
+                List.copyOf(capabilities), attributes(modelNode, ATTRIBUTES), List.copyOf(operations),
+                deprecated(modelNode));
+    }
+
+    // ------------------------------------------------------ attributes
+
+    private static List<Attribute> attributes(ModelNode modelNode, String key) {
+        if (!modelNode.hasDefined(key)) {
+            return List.of();
+        }
+        var properties = modelNode.get(key).asPropertyList();
+        List<Attribute> attributes = new ArrayList<>(properties.size());
+        for (var property : properties) {
+            var attribute = property.getValue();
+            List<Sensitive> sensitive = List.of();
+            if (attribute.hasDefined(ACCESS_CONSTRAINTS) && attribute.get(ACCESS_CONSTRAINTS).hasDefined(SENSITIVE)) {
+                var constraints = attribute.get(ACCESS_CONSTRAINTS).get(SENSITIVE).asPropertyList();
+                sensitive = new ArrayList<>(constraints.size());
+                for (var constraint : constraints) {
+                    sensitive.add(new Sensitive(constraint.getName(), constraint.getValue().get(TYPE).asString()));
+                }
+            }
+            attributes.add(new Attribute(property.getName(), value(attribute),
+                    string(attribute, ACCESS_TYPE),
+                    string(attribute, ALIAS),
+                    string(attribute, ATTRIBUTE_GROUP),
+                    string(attribute, DEFAULT),
+                    string(attribute, DESCRIPTION),
+                    string(attribute, RESTART_REQUIRED),
+                    string(attribute, STORAGE),
+                    List.copyOf(sensitive),
+                    complex(attribute) ? attributes(attribute, VALUE_TYPE) : List.of()));
+        }
+        return List.copyOf(attributes);
+    }
+
+    // ------------------------------------------------------ operations
+
+    private static Operation operation(String name, ModelNode operation) {
+        String returnValue = null;
+        String replyValueType = null;
+        if (operation.hasDefined(REPLY_PROPERTIES)) {
+            var reply = operation.get(REPLY_PROPERTIES);
+            if (reply.hasDefined(TYPE)) {
+                returnValue = reply.get(TYPE).asType().name();
+            }
+            replyValueType = valueType(reply);
+        }
+        return new Operation(name,
+                string(operation, DESCRIPTION),
+                bool(operation, READ_ONLY),
+                bool(operation, RUNTIME_ONLY),
+                string(operation, STABILITY),
+                returnValue, replyValueType,
+                parameters(operation, REQUEST_PROPERTIES),
+                deprecated(operation));
+    }
+
+    private static List<Parameter> parameters(ModelNode modelNode, String key) {
+        if (!modelNode.hasDefined(key)) {
+            return List.of();
+        }
+        var properties = modelNode.get(key).asPropertyList();
+        List<Parameter> parameters = new ArrayList<>(properties.size());
+        for (var property : properties) {
+            var parameter = property.getValue();
+            parameters.add(new Parameter(property.getName(), value(parameter),
+                    complex(parameter) ? parameters(parameter, VALUE_TYPE) : List.of()));
+        }
+        return List.copyOf(parameters);
+    }
+
+    // ------------------------------------------------------ values
+
+    private static Value value(ModelNode modelNode) {
+        return new Value(
+                modelNode.hasDefined(ALLOWED) ? strings(modelNode, ALLOWED) : null,
+                bool(modelNode, EXPRESSIONS_ALLOWED),
+                number(modelNode, MAX),
+                number(modelNode, MAX_LENGTH),
+                number(modelNode, MIN),
+                number(modelNode, MIN_LENGTH),
+                bool(modelNode, NILLABLE),
+                bool(modelNode, REQUIRED),
+                string(modelNode, STABILITY),
+                string(modelNode, TYPE),
+                string(modelNode, UNIT),
+                valueType(modelNode),
+                string(modelNode, CAPABILITY_REFERENCE),
+                modelNode.hasDefined(ALTERNATIVES) ? strings(modelNode, ALTERNATIVES) : List.of(),
+                modelNode.hasDefined(REQUIRES) ? strings(modelNode, REQUIRES) : List.of(),
+                deprecated(modelNode));
+    }
+
+    private static boolean complex(ModelNode modelNode) {
+        return modelNode.hasDefined(VALUE_TYPE) && modelNode.get(VALUE_TYPE).getType() == ModelType.OBJECT;
+    }
+
+    private static String valueType(ModelNode modelNode) {
+        if (modelNode.hasDefined(VALUE_TYPE)) {
+            var valueType = modelNode.get(VALUE_TYPE);
+            return valueType.getType() == ModelType.STRING ? valueType.asString() : ModelType.OBJECT.name();
+        }
+        return null;
+    }
+
+    private static DeprecationInfo deprecated(ModelNode modelNode) {
+        if (modelNode.hasDefined(DEPRECATED)) {
+            var deprecated = modelNode.get(DEPRECATED);
+            return new DeprecationInfo(deprecated.get(REASON).asString(), deprecated.get(SINCE).asString());
+        }
+        return null;
+    }
+
+    // ------------------------------------------------------ helper methods
+
+    private static String string(ModelNode modelNode, String key) {
+        return modelNode.hasDefined(key) ? modelNode.get(key).asString() : null;
+    }
+
+    private static Boolean bool(ModelNode modelNode, String key) {
+        return modelNode.hasDefined(key) ? modelNode.get(key).asBoolean() : null;
+    }
+
+    private static Long number(ModelNode modelNode, String key) {
+        return modelNode.hasDefined(key) ? modelNode.get(key).asLong() : null;
+    }
+
+    private static List<String> strings(ModelNode modelNode, String key) {
+        var nodes = modelNode.get(key).asList();
+        var strings = new String[nodes.size()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = nodes.get(i).asString();
+        }
+        return List.of(strings);
+    }
+}
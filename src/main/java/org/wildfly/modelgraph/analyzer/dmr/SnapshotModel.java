@@ -0,0 +1,476 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+import org.jboss.dmr.ModelNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wildfly.modelgraph.analyzer.Version;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Attribute;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Capability;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.DeprecationInfo;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Operation;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Parameter;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Sensitive;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Value;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Management model served from a snapshot file recorded by {@link #record(ManagementModel, ResourceAddress, int,
+ * Path)}. Reading a live WildFly instance takes many management round trips. A snapshot makes it possible to repeat
+ * the analysis in seconds and without touching the server.
+ * <p>
+ * The snapshot is a binary file which is memory-mapped when opened. It consists of
+ * <ol>
+ *     <li>a header with magic number and format version,</li>
+ *     <li>one entry per resource with its resource description in the DMR binary format, its typed resource
+ *     description and its children,</li>
+ *     <li>the identity of the model,</li>
+ *     <li>an index with the address and entry offset of each resource and</li>
+ *     <li>a trailer with the offsets of the identity and the index.</li>
+ * </ol>
+ * Only the index is read when the snapshot is opened. Children and resource descriptions are decoded from the mapped
+ * file on demand. {@link #description(ResourceAddress)} decodes the typed resource description, so the analyzer
+ * doesn't need to build a {@link ModelNode} for each resource. Addresses which are not part of the snapshot have no
+ * children and an undefined description. The model can be used by multiple threads.
+ */
+public class SnapshotModel implements ManagementModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotModel.class);
+    private static final int MAGIC = 0x4d475348; // MGSH
+    private static final int FORMAT = 2;
+    private static final int TRAILER = 2 * Long.BYTES;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final Identity identity;
+    private final MutableObjectIntMap<String> index;
+
+    public SnapshotModel(Path file) {
+        this.file = file;
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new RuntimeException(String.format("Snapshot %s is too large", file));
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to read snapshot %s: %s", file, e.getMessage()), e);
+        }
+        if (buffer.limit() < 2 * Integer.BYTES + TRAILER || buffer.getInt(0) != MAGIC) {
+            throw new RuntimeException(String.format("%s is not a snapshot", file));
+        }
+        if (buffer.getInt(Integer.BYTES) != FORMAT) {
+            throw new RuntimeException(String.format("Unsupported snapshot format %d in %s",
+                    buffer.getInt(Integer.BYTES), file));
+        }
+
+        var reader = buffer.duplicate();
+        reader.position(toInt(buffer.getLong(buffer.limit() - TRAILER)));
+        this.identity = readIdentity(reader);
+        reader.position(toInt(buffer.getLong(buffer.limit() - Long.BYTES)));
+        var size = reader.getInt();
+        this.index = new ObjectIntHashMap<>(size);
+        for (int i = 0; i < size; i++) {
+            var address = readString(reader);
+            index.put(address, toInt(reader.getLong()));
+        }
+        logger.info("Loaded snapshot of {} resources from {}", size, file);
+    }
+
+    // ------------------------------------------------------ model
+
+    @Override
+    public Identity identity() {
+        return identity;
+    }
+
+    @Override
+    public List<String> children(ResourceAddress address) {
+        var offset = index.getIfAbsent(address.toString(), -1);
+        if (offset == -1) {
+            return List.of();
+        }
+        var reader = typedDescription(offset);
+        reader.position(reader.position() + Integer.BYTES + reader.getInt());
+        var size = reader.getInt();
+        List<String> children = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            children.add(readString(reader));
+        }
+        return children;
+    }
+
+    @Override
+    public ModelNode resourceDescription(ResourceAddress address) {
+        var offset = index.getIfAbsent(address.toString(), -1);
+        if (offset == -1) {
+            return new ModelNode();
+        }
+        var bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + Integer.BYTES, bytes);
+        try {
+            var description = new ModelNode();
+            description.readExternal(new ByteArrayInputStream(bytes));
+            return description;
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to read resource description of %s from %s: %s",
+                    address, file, e.getMessage()), e);
+        }
+    }
+
+    @Override
+    public ResourceDescription description(ResourceAddress address) {
+        var offset = index.getIfAbsent(address.toString(), -1);
+        if (offset == -1) {
+            return null;
+        }
+        var reader = typedDescription(offset);
+        reader.getInt();
+        return readDescription(reader);
+    }
+
+    /** Returns a reader positioned at the length of the typed resource description of the entry. */
+    private ByteBuffer typedDescription(int offset) {
+        return buffer.duplicate().position(offset + Integer.BYTES + buffer.getInt(offset));
+    }
+
+    @Override
+    public void close() {
+        // the mapping is released by the garbage collector
+        logger.debug("Closing snapshot {}", file);
+    }
+
+    // ------------------------------------------------------ record
+
+    /**
+     * Walks the management model starting at {@code address} up to {@code maxDepth} levels and writes the identity,
+     * the children and the resource descriptions to {@code file}.
+     *
+     * @return the number of recorded resources
+     */
+    public static int record(ManagementModel mm, ResourceAddress address, int maxDepth, Path file) {
+        var offsets = new ObjectIntHashMap<String>();
+        List<String> addresses = new ArrayList<>();
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            recordResource(mm, address, maxDepth, out, offsets, addresses);
+
+            long identityOffset = out.size();
+            writeIdentity(out, mm.identity());
+            long indexOffset = out.size();
+            out.writeInt(addresses.size());
+            for (var recorded : addresses) {
+                writeString(out, recorded);
+                out.writeLong(offsets.get(recorded));
+            }
+            out.writeLong(identityOffset);
+            out.writeLong(indexOffset);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to write snapshot %s: %s", file, e.getMessage()), e);
+        }
+        logger.info("Recorded snapshot of {} resources to {}", addresses.size(), file);
+        return addresses.size();
+    }
+
+    private static void recordResource(ManagementModel mm, ResourceAddress address, int maxDepth,
+            DataOutputStream out, MutableObjectIntMap<String> offsets, List<String> addresses) throws IOException {
+        if (address.size() < maxDepth) {
+            // read the description first, models may derive the children from it
+            var modelNode = mm.resourceDescription(address);
+            var description = new ByteArrayOutputStream();
+            modelNode.writeExternal(description);
+            var typedDescription = new ByteArrayOutputStream();
+            writeDescription(new DataOutputStream(typedDescription), ResourceDescription.of(modelNode));
+            var children = mm.children(address);
+
+            if (out.size() == Integer.MAX_VALUE) {
+                throw new IOException("Snapshot exceeds 2 GB");
+            }
+            offsets.put(address.toString(), out.size());
+            addresses.add(address.toString());
+            out.writeInt(description.size());
+            description.writeTo(out);
+            out.writeInt(typedDescription.size());
+            typedDescription.writeTo(out);
+            out.writeInt(children.size());
+            for (var child : children) {
+                writeString(out, child);
+            }
+
+            for (var child : children) {
+                recordResource(mm, address.add(child), maxDepth, out, offsets, addresses);
+            }
+        } else {
+            logger.warn("Skip {}. Maximum nesting of {} reached.", address, maxDepth);
+        }
+    }
+
+    // ------------------------------------------------------ typed description
+
+    private static void writeDescription(DataOutputStream out, ResourceDescription description) throws IOException {
+        out.writeBoolean(description != null);
+        if (description != null) {
+            writeString(out, description.description());
+            writeString(out, description.stability());
+            if (description.children() == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(description.children().size());
+                for (var child : description.children().entrySet()) {
+                    writeString(out, child.getKey());
+                    writeString(out, child.getValue());
+                }
+            }
+            writeList(out, description.capabilities(), (o, capability) -> {
+                writeString(o, capability.name());
+                writeString(o, capability.stability());
+            });
+            writeList(out, description.attributes(), SnapshotModel::writeAttribute);
+            writeList(out, description.operations(), (o, operation) -> {
+                writeString(o, operation.name());
+                writeString(o, operation.description());
+                writeBoolean(o, operation.readOnly());
+                writeBoolean(o, operation.runtimeOnly());
+                writeString(o, operation.stability());
+                writeString(o, operation.returnValue());
+                writeString(o, operation.replyValueType());
+                writeList(o, operation.parameters(), SnapshotModel::writeParameter);
+                writeDeprecated(o, operation.deprecated());
+            });
+            writeDeprecated(out, description.deprecated());
+        }
+    }
+
+    private static ResourceDescription readDescription(ByteBuffer reader) {
+        if (reader.get() == 0) {
+            return null;
+        }
+        var description = readString(reader);
+        var stability = readString(reader);
+        Map<String, String> children = null;
+        var size = reader.getInt();
+        if (size != -1) {
+            children = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                children.put(readString(reader), readString(reader));
+            }
+            children = Collections.unmodifiableMap(children);
+        }
+        var capabilities = readList(reader, r -> new Capability(readString(r), readString(r)));
+        var attributes = readList(reader, SnapshotModel::readAttribute);
+        var operations = readList(reader, r -> new Operation(readString(r), readString(r), readBoolean(r),
+                readBoolean(r), readString(r), readString(r), readString(r),
+                readList(r, SnapshotModel::readParameter), readDeprecated(r)));
+        return new ResourceDescription(description, stability, children, capabilities, attributes, operations,
+                readDeprecated(reader));
+    }
+
+    private static void writeAttribute(DataOutputStream out, Attribute attribute) throws IOException {
+        writeString(out, attribute.name());
+        writeValue(out, attribute.value());
+        writeString(out, attribute.accessType());
+        writeString(out, attribute.alias());
+        writeString(out, attribute.attributeGroup());
+        writeString(out, attribute.defaultValue());
+        writeString(out, attribute.description());
+        writeString(out, attribute.restartRequired());
+        writeString(out, attribute.storage());
+        writeList(out, attribute.sensitive(), (o, sensitive) -> {
+            writeString(o, sensitive.name());
+            writeString(o, sensitive.type());
+        });
+        writeList(out, attribute.attributes(), SnapshotModel::writeAttribute);
+    }
+
+    private static Attribute readAttribute(ByteBuffer reader) {
+        return new Attribute(readString(reader), readValue(reader), readString(reader), readString(reader),
+                readString(reader), readString(reader), readString(reader), readString(reader), readString(reader),
+                readList(reader, r -> new Sensitive(readString(r), readString(r))),
+                readList(reader, SnapshotModel::readAttribute));
+    }
+
+    private static void writeParameter(DataOutputStream out, Parameter parameter) throws IOException {
+        writeString(out, parameter.name());
+        writeValue(out, parameter.value());
+        writeList(out, parameter.parameters(), SnapshotModel::writeParameter);
+    }
+
+    private static Parameter readParameter(ByteBuffer reader) {
+        return new Parameter(readString(reader), readValue(reader), readList(reader, SnapshotModel::readParameter));
+    }
+
+    private static void writeValue(DataOutputStream out, Value value) throws IOException {
+        writeList(out, value.allowed(), SnapshotModel::writeString);
+        writeBoolean(out, value.expressionsAllowed());
+        writeLong(out, value.max());
+        writeLong(out, value.maxLength());
+        writeLong(out, value.min());
+        writeLong(out, value.minLength());
+        writeBoolean(out, value.nillable());
+        writeBoolean(out, value.required());
+        writeString(out, value.stability());
+        writeString(out, value.type());
+        writeString(out, value.unit());
+        writeString(out, value.valueType());
+        writeString(out, value.capabilityReference());
+        writeList(out, value.alternatives(), SnapshotModel::writeString);
+        writeList(out, value.requires(), SnapshotModel::writeString);
+        writeDeprecated(out, value.deprecated());
+    }
+
+    private static Value readValue(ByteBuffer reader) {
+        return new Value(readList(reader, SnapshotModel::readString), readBoolean(reader), readLong(reader),
+                readLong(reader), readLong(reader), readLong(reader), readBoolean(reader), readBoolean(reader),
+                readString(reader), readString(reader), readString(reader), readString(reader), readString(reader),
+                readList(reader, SnapshotModel::readString), readList(reader, SnapshotModel::readString),
+                readDeprecated(reader));
+    }
+
+    private static void writeDeprecated(DataOutputStream out, DeprecationInfo deprecated) throws IOException {
+        out.writeBoolean(deprecated != null);
+        if (deprecated != null) {
+            writeString(out, deprecated.reason());
+            writeString(out, deprecated.since());
+        }
+    }
+
+    private static DeprecationInfo readDeprecated(ByteBuffer reader) {
+        return reader.get() != 0 ? new DeprecationInfo(readString(reader), readString(reader)) : null;
+    }
+
+    // ------------------------------------------------------ identity
+
+    private static void writeIdentity(DataOutputStream out, Identity identity) throws IOException {
+        writeString(out, identity.type().name());
+        writeString(out, identity.groupId());
+        writeString(out, identity.artifactId());
+        writeString(out, identity.name());
+        writeString(out, identity.description());
+        writeString(out, identity.version().toString());
+        writeString(out, identity.managementVersion().toString());
+        writeString(out, identity.url());
+        writeString(out, identity.scmUrl());
+        out.writeInt(identity.licenses().length);
+        for (var license : identity.licenses()) {
+            writeString(out, license);
+        }
+    }
+
+    private static Identity readIdentity(ByteBuffer reader) {
+        var type = Identity.Type.valueOf(readString(reader));
+        var groupId = readString(reader);
+        var artifactId = readString(reader);
+        var name = readString(reader);
+        var description = readString(reader);
+        var version = Version.parse(readString(reader));
+        var managementVersion = Version.parse(readString(reader));
+        var url = readString(reader);
+        var scmUrl = readString(reader);
+        var licenses = new String[reader.getInt()];
+        for (int i = 0; i < licenses.length; i++) {
+            licenses[i] = readString(reader);
+        }
+        return new Identity(type, groupId, artifactId, name, description, version, managementVersion, url, scmUrl,
+                licenses);
+    }
+
+    // ------------------------------------------------------ values
+
+    @FunctionalInterface
+    private interface Writer<T> {
+
+        void write(DataOutputStream out, T value) throws IOException;
+    }
+
+    /** Writes the size of the list or {@code -1} for {@code null} followed by the elements. */
+    private static <T> void writeList(DataOutputStream out, List<T> list, Writer<T> writer) throws IOException {
+        if (list == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(list.size());
+            for (var element : list) {
+                writer.write(out, element);
+            }
+        }
+    }
+
+    private static <T> List<T> readList(ByteBuffer reader, Function<ByteBuffer, T> element) {
+        var size = reader.getInt();
+        if (size == -1) {
+            return null;
+        }
+        List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(element.apply(reader));
+        }
+        return List.copyOf(list);
+    }
+
+    private static void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : value ? 1 : 0);
+    }
+
+    private static Boolean readBoolean(ByteBuffer reader) {
+        var value = reader.get();
+        return value == -1 ? null : value == 1;
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(ByteBuffer reader) {
+        return reader.get() != 0 ? reader.getLong() : null;
+    }
+
+    // ------------------------------------------------------ strings
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            var bytes = value.getBytes(UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(ByteBuffer reader) {
+        var length = reader.getInt();
+        if (length == -1) {
+            return null;
+        }
+        var bytes = new byte[length];
+        reader.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private int toInt(long offset) {
+        if (offset < 0 || offset >= buffer.limit()) {
+            throw new RuntimeException(String.format("Snapshot %s is corrupt", file));
+        }
+        return (int) offset;
+    }
+}
@@ -3,7 +3,20 @@ package org.wildfly.modelgraph.analyzer.dmr;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.security.auth.callback.NameCallback;
 import javax.security.auth.callback.PasswordCallback;
 import javax.security.auth.callback.UnsupportedCallbackException;
@@ -11,6 +24,7 @@ import javax.security.sasl.RealmCallback;
 
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wildfly.modelgraph.analyzer.HostAndPort;
@@ -20,6 +34,8 @@ import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ATTRIBUTES_ONLY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.COMPOSITE;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.FAILED;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.FAILURE_DESCRIPTION;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.INCLUDE_ALIASES;
@@ -28,26 +44,126 @@ import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.INCL
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MANAGEMENT_MAJOR_VERSION;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MANAGEMENT_MICRO_VERSION;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MANAGEMENT_MINOR_VERSION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MODEL_DESCRIPTION;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.OPERATIONS;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.OUTCOME;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.PRODUCT_VERSION;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_CHILDREN_TYPES;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_RESOURCE;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RECURSIVE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RECURSIVE_DEPTH;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RESULT;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SUCCESS;
 
+/**
+ * Management model read from a running WildFly instance. The walk reads the resource descriptions of siblings with
+ * composite operations. A failed step only affects the resource of that step.
+ * <p>
+ * The children of a resource are derived from its resource description if the description includes the names of all
+ * child types, which is the case for resources without children and in bulk mode. Otherwise, the walk reads the
+ * child types of siblings with one composite operation.
+ * <p>
+ * By default, the operations are executed one after another. If more than one operation may be in flight,
+ * {@link #walk(ResourceAddress, int, Visitor)} reads the children of a resource concurrently using virtual threads,
+ * and the operations can be spread over a small pool of connections. The resources are still visited on the calling
+ * thread in the same depth-first order, so that parents are visited before their children.
+ * <p>
+ * In bulk mode, the resource descriptions of a whole subtree are read with one recursive operation. The result is
+ * decomposed into the resource descriptions and children of the resources of the subtree, which are served from
+ * memory until they have been requested once. The depth of the subtrees adapts to the size of the responses.
+ */
 public class WildFlyInstance implements ManagementModel {
 
+    /**
+     * The resource description of a resource and the children of it and its siblings, which are read ahead.
+     * {@code index} is the position of the resource among its siblings.
+     */
+    private record Read(Future<ModelNode> description, Future<List<List<String>>> children, int index) {
+    }
+
     private static final Logger logger = LoggerFactory.getLogger(WildFlyInstance.class);
+    /** Responses with more resources reduce the depth of the following bulk reads. */
+    static final int MAX_BULK_RESOURCES = 2_000;
+    /** Parts of failure descriptions, in lower case, of recursive reads which are repeated with a smaller depth. */
+    private static final List<String> SPLITTABLE_FAILURES = List.of("timeout", "timed out", "too large",
+            "outofmemory", "out of memory");
+    private static final int MAX_STEPS = 100;
 
     private final HostAndPort hostAndPort;
-    private final ModelControllerClient mcc;
+    private final ModelControllerClient[] clients;
+    private final AtomicInteger nextClient;
+    private final int inFlight;
+    private final Semaphore permits;
+    private final int bulkDepth;
+    private final DescriptionMemo memo;
+    private final AtomicInteger depth;
+    private final Map<ResourceAddress, ModelNode> bulkDescriptions;
+    /** Children which are known from resource descriptions, until they are requested. */
+    private final Map<ResourceAddress, List<String>> knownChildren;
+    private final Map<ResourceAddress, FutureTask<Void>> bulkReads;
 
     public WildFlyInstance(HostAndPort hostAndPort, String username, String password) {
+        this(hostAndPort, username, password, 1, 1, 0, false);
+    }
+
+    /**
+     * @param inFlight    the maximum number of concurrent management operations. If greater than one, the walk reads
+     *                    sibling resources concurrently.
+     * @param connections the number of connections, which are used in turn
+     * @param bulkDepth   if greater than zero, read subtrees of up to that many levels with one operation
+     * @param memoize     serve the resource descriptions of repeated subtrees from memory, see {@link DescriptionMemo}
+     */
+    public WildFlyInstance(HostAndPort hostAndPort, String username, String password, int inFlight,
+            int connections, int bulkDepth, boolean memoize) {
+        this(hostAndPort, connect(hostAndPort, username, password, inFlight, connections, bulkDepth), inFlight,
+                bulkDepth, memoize);
+    }
+
+    /**
+     * Uses the given clients instead of connecting to the instance. The clients are used in turn and closed by
+     * {@link #close()}.
+     */
+    WildFlyInstance(HostAndPort hostAndPort, ModelControllerClient[] clients, int inFlight, int bulkDepth,
+            boolean memoize) {
+        this.bulkDepth = bulkDepth;
+        this.memo = memoize && bulkDepth == 0 ? new DescriptionMemo() : null;
+        this.depth = new AtomicInteger(bulkDepth);
+        this.bulkDescriptions = new ConcurrentHashMap<>();
+        this.knownChildren = new ConcurrentHashMap<>();
+        this.bulkReads = new ConcurrentHashMap<>();
         this.hostAndPort = hostAndPort;
+        this.clients = clients;
+        this.nextClient = new AtomicInteger();
+        this.inFlight = inFlight;
+        this.permits = inFlight > 1 ? new Semaphore(inFlight) : null;
+        if (inFlight > 1) {
+            logger.info("Connected to WildFly instance at {} using {} connection(s) and up to {} operations in flight",
+                    hostAndPort, clients.length, inFlight);
+        } else {
+            logger.info("Connected to WildFly instance at {}", hostAndPort);
+        }
+    }
+
+    private static ModelControllerClient[] connect(HostAndPort hostAndPort, String username, String password,
+            int inFlight, int connections, int bulkDepth) {
+        if (inFlight < 1 || connections < 1) {
+            throw new RuntimeException(String.format("Invalid number of operations in flight (%d) or connections (%d)",
+                    inFlight, connections));
+        }
+        if (bulkDepth < 0) {
+            throw new RuntimeException(String.format("Invalid bulk depth %d", bulkDepth));
+        }
+        var clients = new ModelControllerClient[connections];
+        for (int i = 0; i < connections; i++) {
+            clients[i] = connect(hostAndPort, username, password);
+        }
+        return clients;
+    }
+
+    private static ModelControllerClient connect(HostAndPort hostAndPort, String username, String password) {
         try {
-            mcc = ModelControllerClient.Factory.create(InetAddress.getByName(hostAndPort.host()), hostAndPort.port(),
+            return ModelControllerClient.Factory.create(InetAddress.getByName(hostAndPort.host()), hostAndPort.port(),
                     callbacks -> {
                         for (var current : callbacks) {
                             switch (current) {
@@ -58,7 +174,6 @@ public class WildFlyInstance implements ManagementModel {
                             }
                         }
                     });
-            logger.info("Connected to WildFly instance at {}", hostAndPort);
         } catch (UnknownHostException e) {
             throw new RuntimeException(e.getMessage(), e);
         }
@@ -80,60 +195,508 @@ public class WildFlyInstance implements ManagementModel {
 
     @Override
     public List<String> children(ResourceAddress address) {
-        var rct = new Operation.Builder(READ_CHILDREN_TYPES, address)
+        var children = knownChildren.remove(address);
+        if (children == null && bulkDepth > 0) {
+            bulk(address);
+            children = knownChildren.remove(address);
+        }
+        if (children != null) {
+            return children;
+        }
+        return children(execute(readChildrenTypes(address)));
+    }
+
+    /** Returns the children of the resources. Children which are not known yet are read with composite operations. */
+    private List<List<String>> children(List<ResourceAddress> addresses) {
+        List<List<String>> children = new ArrayList<>(addresses.size());
+        List<Integer> unknown = new ArrayList<>();
+        List<Operation> operations = new ArrayList<>();
+        for (var address : addresses) {
+            var known = knownChildren.remove(address);
+            if (known == null) {
+                unknown.add(children.size());
+                operations.add(readChildrenTypes(address));
+            }
+            children.add(known);
+        }
+        if (!operations.isEmpty()) {
+            var results = composite(operations, MAX_STEPS);
+            for (int i = 0; i < unknown.size(); i++) {
+                children.set(unknown.get(i), children(results.get(i)));
+            }
+        }
+        return children;
+    }
+
+    private Operation readChildrenTypes(ResourceAddress address) {
+        return new Operation.Builder(READ_CHILDREN_TYPES, address)
                 .param(INCLUDE_SINGLETONS, true)
                 .build();
+    }
 
-        var result = execute(rct);
+    private List<String> children(ModelNode result) {
         if (result.isDefined()) {
             return result.asList().stream().map(ModelNode::asString).collect(toList());
         }
         return emptyList();
     }
 
+    /**
+     * Derives the children from the child types of a resource description like {@link JsonModel} does. Returns
+     * {@code null} if the description doesn't include the names of all child types.
+     */
+    static List<String> derivedChildren(ModelNode description) {
+        if (description.getType() == ModelType.LIST) {
+            var descriptions = description.asList();
+            if (descriptions.isEmpty() || !descriptions.getFirst().hasDefined(RESULT)) {
+                return null;
+            }
+            description = descriptions.getFirst().get(RESULT);
+        }
+        if (!description.isDefined()) {
+            return null;
+        }
+        List<String> children = new ArrayList<>();
+        if (description.hasDefined(CHILDREN)) {
+            var childTypes = description.get(CHILDREN);
+            for (var type : childTypes.keys()) {
+                var childType = childTypes.get(type);
+                if (!childType.hasDefined(MODEL_DESCRIPTION)) {
+                    return null;
+                }
+                var names = childType.get(MODEL_DESCRIPTION).keys();
+                for (var name : names) {
+                    children.add(names.size() == 1 && "*".equals(name) ? type : type + "=" + name);
+                }
+            }
+        }
+        return List.copyOf(children);
+    }
+
     @Override
     public ModelNode resourceDescription(ResourceAddress address) {
-        var rrd = new Operation.Builder(READ_RESOURCE_DESCRIPTION, address)
+        if (bulkDepth > 0) {
+            var description = bulkDescriptions.remove(address);
+            if (description == null) {
+                bulk(address);
+                description = bulkDescriptions.remove(address);
+            }
+            if (description != null) {
+                return description;
+            }
+        }
+        var memoized = memo != null ? memo.get(address) : null;
+        if (memoized != null) {
+            return described(address, memoized);
+        }
+        return memoize(address, execute(readResourceDescription(address)));
+    }
+
+    private Operation readResourceDescription(ResourceAddress address) {
+        return new Operation.Builder(READ_RESOURCE_DESCRIPTION, address)
                 .param(INCLUDE_ALIASES, true)
                 .param(OPERATIONS, true)
                 .build();
-        return execute(rrd);
+    }
+
+    /** Records a resource description which has been read for the memo. */
+    private ModelNode memoize(ResourceAddress address, ModelNode description) {
+        if (memo != null) {
+            memo.put(address, description);
+        }
+        return described(address, description);
+    }
+
+    /** Remembers the children which can be derived from the resource description. */
+    private ModelNode described(ResourceAddress address, ModelNode description) {
+        var children = derivedChildren(description);
+        if (children != null) {
+            knownChildren.put(address, children);
+        }
+        return description;
+    }
+
+    // ------------------------------------------------------ bulk
+
+    /** Reads the subtree of the resource unless it's already being read or has already been read. */
+    private void bulk(ResourceAddress address) {
+        var read = new FutureTask<Void>(() -> {
+            if (!bulkDescriptions.containsKey(address) && !knownChildren.containsKey(address)) {
+                readSubtree(address);
+            }
+        }, null);
+        var running = bulkReads.putIfAbsent(address, read);
+        if (running == null) {
+            try {
+                read.run();
+            } finally {
+                bulkReads.remove(address, read);
+            }
+            running = read;
+        }
+        join(address, running);
+    }
+
+    /**
+     * Reads the subtree with the current depth. If the response is too large or the operation times out, the subtree
+     * is split, and the read is repeated with half the depth. If the operation fails for another reason, e.g. because
+     * the resource doesn't exist or isn't accessible, or fails for a single level, the resource is read on its own
+     * later on.
+     */
+    private void readSubtree(ResourceAddress address) {
+        var depth = this.depth.get();
+        while (true) {
+            var rrd = new Operation.Builder(READ_RESOURCE_DESCRIPTION, address)
+                    .param(INCLUDE_ALIASES, true)
+                    .param(OPERATIONS, true)
+                    .param(RECURSIVE, true)
+                    .param(RECURSIVE_DEPTH, depth)
+                    .build();
+            var response = response(rrd);
+            var result = result(rrd, response);
+            // for a foo=* address, the result is an array
+            if (result.getType() == ModelType.LIST) {
+                var results = result.asList();
+                result = !results.isEmpty() && results.getFirst().hasDefined(RESULT)
+                        ? results.getFirst().get(RESULT)
+                        : new ModelNode();
+            }
+            if (result.isDefined()) {
+                var resources = decompose(address, result, depth, bulkDescriptions, knownChildren);
+                logger.debug("Read {} resources of {} with recursive depth {}", resources, address, depth);
+                adapt(depth, resources);
+                return;
+            } else if (depth == 1 || !splittable(response)) {
+                return;
+            }
+            depth = depth / 2;
+            logger.warn("Split read of {}: Retry with recursive depth {}", address, depth);
+        }
+    }
+
+    /**
+     * Returns whether a failed recursive read might succeed with a smaller depth: The response couldn't be received,
+     * e.g. because the connection has been closed, or the failure description reports a timeout or a response which is
+     * too large.
+     */
+    static boolean splittable(ModelNode response) {
+        if (!response.isDefined()) {
+            return true;
+        }
+        if (!response.hasDefined(FAILURE_DESCRIPTION)) {
+            return false;
+        }
+        var failure = response.get(FAILURE_DESCRIPTION).asString().toLowerCase(Locale.ROOT);
+        return SPLITTABLE_FAILURES.stream().anyMatch(failure::contains);
+    }
+
+    /**
+     * Decomposes the result of a recursive read into the resource descriptions and children of the resources whose
+     * children are part of the result. The resources on the last level are read with their own subtree.
+     *
+     * @return the number of decomposed resources
+     */
+    static int decompose(ResourceAddress address, ModelNode description, int remaining,
+            Map<ResourceAddress, ModelNode> descriptions, Map<ResourceAddress, List<String>> children) {
+        if (remaining == 0) {
+            return 0;
+        }
+        var resources = 1;
+        List<String> names = new ArrayList<>();
+        if (description.hasDefined(CHILDREN)) {
+            var childTypes = description.get(CHILDREN);
+            for (var type : childTypes.keys()) {
+                var childType = childTypes.get(type);
+                if (childType.hasDefined(MODEL_DESCRIPTION)) {
+                    var modelDescription = childType.get(MODEL_DESCRIPTION);
+                    var keys = modelDescription.keys();
+                    for (var key : keys) {
+                        var child = keys.size() == 1 && "*".equals(key) ? type : type + "=" + key;
+                        names.add(child);
+                        resources += decompose(address.add(child), modelDescription.get(key), remaining - 1,
+                                descriptions, children);
+                    }
+                    // same as in a single read: child types only keep their description
+                    childType.remove(MODEL_DESCRIPTION);
+                }
+            }
+        }
+        descriptions.put(address, description);
+        children.put(address, List.copyOf(names));
+        return resources;
+    }
+
+    /** Reduces the depth for large responses and increases it again for small ones. */
+    void adapt(int depth, int resources) {
+        if (resources > MAX_BULK_RESOURCES && depth > 1) {
+            if (this.depth.compareAndSet(depth, depth - 1)) {
+                logger.info("Reduce recursive depth to {} after reading {} resources", depth - 1, resources);
+            }
+        } else if (resources < MAX_BULK_RESOURCES / 8 && depth < bulkDepth) {
+            this.depth.compareAndSet(depth, depth + 1);
+        }
+    }
+
+    // ------------------------------------------------------ walk
+
+    /**
+     * Reads the resource descriptions of siblings with composite operations before their children, so that the
+     * children which can't be derived from the resource descriptions are read with one composite operation per
+     * siblings, too. Resource descriptions are read eagerly. The number of resources read ahead is bounded by the
+     * children of the resources on the current path. If more than one operation may be in flight, the siblings are
+     * spread over concurrent composite operations.
+     */
+    @Override
+    public void walk(ResourceAddress address, int maxDepth, Visitor visitor) {
+        if (address.size() >= maxDepth) {
+            logger.warn("Skip {}. Maximum nesting of {} reached.", address, maxDepth);
+            return;
+        }
+        var executor = permits != null ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        try {
+            walk(executor, address, null, read(executor, List.of(address)).getFirst(), maxDepth, visitor);
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private void walk(ExecutorService executor, ResourceAddress address, ResourceAddress parent, Read read,
+            int maxDepth, Visitor visitor) {
+        var description = join(address, read.description());
+        visitor.visit(address, parent, () -> ResourceDescription.of(description));
+
+        List<ResourceAddress> children = new ArrayList<>();
+        for (var child : join(address, read.children()).get(read.index())) {
+            var childAddress = address.add(child);
+            if (childAddress.size() < maxDepth) {
+                children.add(childAddress);
+            } else {
+                logger.warn("Skip {}. Maximum nesting of {} reached.", childAddress, maxDepth);
+            }
+        }
+        var reads = read(executor, children);
+        for (int i = 0; i < children.size(); i++) {
+            walk(executor, children.get(i), address, reads.get(i), maxDepth, visitor);
+        }
+    }
+
+    private List<Read> read(ExecutorService executor, List<ResourceAddress> addresses) {
+        List<Future<ModelNode>> descriptions = bulkDepth > 0 || addresses.size() == 1
+                ? addresses.stream().map(address -> submit(executor, () -> resourceDescription(address))).toList()
+                : readResourceDescriptions(executor, addresses);
+        var children = submit(executor, () -> {
+            // reading the resource descriptions reveals the children which are known
+            for (int i = 0; i < addresses.size(); i++) {
+                join(addresses.get(i), descriptions.get(i));
+            }
+            return children(addresses);
+        });
+        List<Read> reads = new ArrayList<>(addresses.size());
+        for (int i = 0; i < addresses.size(); i++) {
+            reads.add(new Read(descriptions.get(i), children, i));
+        }
+        return reads;
+    }
+
+    /**
+     * Reads the resource descriptions of siblings with composite operations. If more than one operation may be in
+     * flight, the siblings are spread over up to that many composite operations.
+     */
+    private List<Future<ModelNode>> readResourceDescriptions(ExecutorService executor,
+            List<ResourceAddress> addresses) {
+        List<CompletableFuture<ModelNode>> descriptions = new ArrayList<>(addresses.size());
+        List<ResourceAddress> pending = new ArrayList<>();
+        List<CompletableFuture<ModelNode>> pendingDescriptions = new ArrayList<>();
+        for (var address : addresses) {
+            var description = new CompletableFuture<ModelNode>();
+            var memoized = memo != null ? memo.get(address) : null;
+            if (memoized != null) {
+                description.complete(described(address, memoized));
+            } else {
+                pending.add(address);
+                pendingDescriptions.add(description);
+            }
+            descriptions.add(description);
+        }
+        var stepSize = permits == null
+                ? MAX_STEPS
+                : Math.clamp((pending.size() + inFlight - 1) / inFlight, 1, MAX_STEPS);
+        for (int from = 0; from < pending.size(); from += stepSize) {
+            var chunk = pending.subList(from, Math.min(from + stepSize, pending.size()));
+            var futures = pendingDescriptions.subList(from, from + chunk.size());
+            submit(executor, () -> {
+                try {
+                    var results = composite(chunk.stream().map(this::readResourceDescription).toList(), chunk.size());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        futures.get(i).complete(memoize(chunk.get(i), results.get(i)));
+                    }
+                } catch (RuntimeException e) {
+                    futures.forEach(future -> future.completeExceptionally(e));
+                }
+                return null;
+            });
+        }
+        return List.copyOf(descriptions);
+    }
+
+    /** Runs the task on the executor or, if there's no executor, on the calling thread. */
+    private <T> Future<T> submit(ExecutorService executor, Callable<T> task) {
+        var future = new FutureTask<>(task);
+        if (executor != null) {
+            executor.execute(future);
+        } else {
+            future.run();
+        }
+        return future;
+    }
+
+    private <T> T join(ResourceAddress address, Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(String.format("Interrupted while reading %s", address), e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(String.format("Unable to read %s: %s", address, e.getCause().getMessage()),
+                    e.getCause());
+        }
+    }
+
+    // ------------------------------------------------------ operations
+
+    /**
+     * Executes the operations as steps of composite operations with up to {@code stepSize} steps and returns the
+     * result of each step. Failures are isolated per step: A failed step has an undefined result, but doesn't affect
+     * the results of the other steps. Steps which have not been executed on their own, e.g. because the composite
+     * operation was rejected as a whole or rolled back, are executed one by one, see
+     * {@link #stepResponses(ModelNode, int)}.
+     */
+    private List<ModelNode> composite(List<Operation> operations, int stepSize) {
+        if (operations.size() == 1) {
+            return List.of(execute(operations.getFirst()));
+        }
+        List<ModelNode> results = new ArrayList<>(operations.size());
+        for (int from = 0; from < operations.size(); from += stepSize) {
+            var steps = operations.subList(from, Math.min(from + stepSize, operations.size()));
+            var composite = new Operation.Builder(COMPOSITE, ResourceAddress.of("/")).steps(steps).build();
+            var stepResponses = stepResponses(response(composite), steps.size());
+            var repeated = 0;
+            for (int i = 0; i < steps.size(); i++) {
+                var stepResponse = stepResponses.get(i);
+                if (stepResponse != null) {
+                    results.add(result(steps.get(i), stepResponse));
+                } else {
+                    repeated++;
+                    results.add(execute(steps.get(i)));
+                }
+            }
+            if (repeated > 0) {
+                logger.warn("Executed {} of {} steps of composite operation one by one", repeated, steps.size());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Splits the response of a composite operation into the responses of its steps. A step response is only kept if
+     * the step has been executed on its own: It succeeded, or it failed with a failure description of its own. If a
+     * step fails, the other steps of the composite operation are rolled back or cancelled, and their responses don't
+     * tell anything about their own outcome. These steps and steps which are missing from the response are
+     * {@code null}.
+     */
+    static List<ModelNode> stepResponses(ModelNode response, int steps) {
+        var stepResponses = response.hasDefined(RESULT) ? response.get(RESULT) : new ModelNode();
+        List<ModelNode> responses = new ArrayList<>(steps);
+        for (int i = 0; i < steps; i++) {
+            var step = "step-" + (i + 1);
+            ModelNode stepResponse = null;
+            if (stepResponses.hasDefined(step)) {
+                var outcome = stepResponses.get(step).get(OUTCOME).asString("");
+                if (SUCCESS.equals(outcome)
+                        || (FAILED.equals(outcome) && stepResponses.get(step).hasDefined(FAILURE_DESCRIPTION))) {
+                    stepResponse = stepResponses.get(step);
+                }
+            }
+            responses.add(stepResponse);
+        }
+        return responses;
     }
 
     @Override
     public void close() {
         logger.debug("Closing connection to WildFly instance");
-        try {
-            mcc.close();
-        } catch (IOException e) {
-            logger.error("Unable to close connection to WildFly instance at {}: {}", hostAndPort, e.getMessage());
+        if (memo != null) {
+            logger.info("Served {} resource descriptions of repeated subtrees from memory", memo.hits());
+        }
+        bulkDescriptions.clear();
+        knownChildren.clear();
+        for (var client : clients) {
+            try {
+                client.close();
+            } catch (IOException e) {
+                logger.error("Unable to close connection to WildFly instance at {}: {}", hostAndPort, e.getMessage());
+            }
         }
     }
 
     private ModelNode execute(Operation operation) {
-        var result = new ModelNode();
+        return result(operation, response(operation));
+    }
+
+    /** Executes the operation and returns the response or an undefined node if the operation couldn't be sent. */
+    private ModelNode response(Operation operation) {
+        if (permits == null) {
+            return response(clients[0], operation);
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("Unable to execute {}: Interrupted", operation.asCli());
+            return new ModelNode();
+        }
+        try {
+            return response(clients[Math.floorMod(nextClient.getAndIncrement(), clients.length)], operation);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private ModelNode response(ModelControllerClient mcc, Operation operation) {
         try {
             logger.debug("Execute operation {}", operation);
-            var modelNode = mcc.execute(operation);
-            if (modelNode.hasDefined(OUTCOME)) {
-                var outcome = modelNode.get(OUTCOME).asString();
-                if (SUCCESS.equals(outcome)) {
-                    if (modelNode.hasDefined(RESULT)) {
-                        result = modelNode.get(RESULT);
-                    }
-                } else if (FAILED.equals(outcome)) {
-                    if (modelNode.hasDefined(FAILURE_DESCRIPTION)) {
-                        var error = modelNode.get(FAILURE_DESCRIPTION).asString();
-                        logger.error("Unable to execute {}: {}", operation.asCli(), error);
-                    }
-                } else {
-                    logger.error("Unable to execute {}: Unknown outcome {}", operation.asCli(), outcome);
+            return mcc.execute(operation);
+        } catch (IOException e) {
+            logger.error("Unable to execute {}: {}", operation.asCli(), e.getMessage());
+            return new ModelNode();
+        }
+    }
+
+    /** Returns the result of a response or an undefined node if the operation failed. */
+    private ModelNode result(Operation operation, ModelNode response) {
+        var result = new ModelNode();
+        if (!response.isDefined()) {
+            // already logged
+            return result;
+        }
+        if (response.hasDefined(OUTCOME)) {
+            var outcome = response.get(OUTCOME).asString();
+            if (SUCCESS.equals(outcome)) {
+                if (response.hasDefined(RESULT)) {
+                    result = response.get(RESULT);
+                }
+            } else if (FAILED.equals(outcome)) {
+                if (response.hasDefined(FAILURE_DESCRIPTION)) {
+                    var error = response.get(FAILURE_DESCRIPTION).asString();
+                    logger.error("Unable to execute {}: {}", operation.asCli(), error);
                 }
             } else {
-                logger.error("Unable to execute {}: No outcome", operation.asCli());
+                logger.error("Unable to execute {}: Unknown outcome {}", operation.asCli(), outcome);
             }
-        } catch (IOException e) {
-            logger.error("Unable to execute {}: {}", operation.asCli(), e.getMessage());
+        } else {
+            logger.error("Unable to execute {}: No outcome", operation.asCli());
         }
         return result;
     }
@@ -0,0 +1,87 @@
+package org.wildfly.modelgraph.analyzer.graph;
+
+import java.util.List;
+import java.util.Map;
+
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterNode;
+
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAJOR;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MINOR;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ORDINAL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.PATCH;
+
+/**
+ * Keys of the nodes for graph writers which look up nodes in memory instead of matching them with Cypher. A key
+ * identifies a node by the same properties as the {@code MATCH} clauses of the Cypher statements. Version nodes are
+ * shared by all deprecated nodes with the same version.
+ */
+public final class GraphKeys {
+
+    public static String resourceKey(ResourceAddress address) {
+        return "r:" + address;
+    }
+
+    public static String capabilityKey(String name) {
+        return "c:" + name;
+    }
+
+    public static String attributeKey(ResourceAddress address, List<String> path, String name) {
+        return "a:" + address + "@" + qualifiedName(path, name);
+    }
+
+    /** Returns the key of the resource or the complex attribute which the attribute belongs to. */
+    public static String attributeParentKey(AttributeNode attribute) {
+        var path = attribute.path();
+        return path.isEmpty()
+                ? resourceKey(attribute.address())
+                : attributeKey(attribute.address(), parent(path), path.getLast());
+    }
+
+    public static String operationKey(ResourceAddress address, String name) {
+        return "o:" + address + ":" + name;
+    }
+
+    /** Global operations are created once and provided by all resources. */
+    public static String globalOperationKey(String name) {
+        return "g:" + name;
+    }
+
+    public static String parameterKey(ResourceAddress address, String operation, List<String> path, String name) {
+        return "p:" + address + ":" + operation + "(" + qualifiedName(path, name) + ")";
+    }
+
+    /** Returns the key of the operation or the complex parameter which the parameter belongs to. */
+    public static String parameterParentKey(ParameterNode parameter) {
+        var path = parameter.path();
+        return path.isEmpty()
+                ? operationKey(parameter.address(), parameter.operation())
+                : parameterKey(parameter.address(), parameter.operation(), parent(path), path.getLast());
+    }
+
+    public static String versionKey(Deprecation deprecation) {
+        return "v:" + deprecation.ordinal();
+    }
+
+    /** Returns the properties of the version node of a deprecation. */
+    public static Map<String, Object> versionProperties(Deprecation deprecation) {
+        return Map.of(
+                MAJOR, deprecation.major(),
+                MINOR, deprecation.minor(),
+                PATCH, deprecation.patch(),
+                ORDINAL, deprecation.ordinal());
+    }
+
+    private static String qualifiedName(List<String> path, String name) {
+        return path.isEmpty() ? name : String.join(".", path) + "." + name;
+    }
+
+    private static List<String> parent(List<String> path) {
+        return path.subList(0, path.size() - 1);
+    }
+
+    private GraphKeys() {
+    }
+}
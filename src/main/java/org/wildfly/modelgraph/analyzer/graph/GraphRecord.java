@@ -0,0 +1,230 @@
+package org.wildfly.modelgraph.analyzer.graph;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.wildfly.modelgraph.analyzer.dmr.Identity;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Attribute;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Operation;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Parameter;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Value;
+
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ACCESS_TYPE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ADDRESS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALIAS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ALLOWED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ATTRIBUTE_GROUP;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILD_DESCRIPTIONS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DEFAULT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.EXPRESSIONS_ALLOWED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.GLOBAL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAX;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAX_LENGTH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MIN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MIN_LENGTH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NAME;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NILLABLE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_ONLY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REQUIRED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RESTART_REQUIRED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RETURN_VALUE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RUNTIME_ONLY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SINGLETON;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STABILITY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STORAGE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.TYPE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.UNIT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.VALUE_TYPE;
+
+/**
+ * Backend-neutral description of the nodes and relationships which are created for the management model. The
+ * analyzer emits these records, and {@link GraphWriter}s turn them into Cypher, CSV files or whatever their backend
+ * needs.
+ * <p>
+ * Attributes and parameters are identified by their resource address, the names of their parent attributes /
+ * parameters ({@code path}, empty for top-level attributes and parameters) and their name. Parameters are
+ * additionally identified by the name of their operation.
+ * <p>
+ * Nodes keep their properties as typed components. Attributes, operations and parameters refer to the immutable parts
+ * of the {@link org.wildfly.modelgraph.analyzer.dmr.ResourceDescription} they were created from, so creating a record
+ * doesn't copy any properties. Only the properties of the node itself belong to the record, nested attributes and
+ * parameters are separate records. Writers which need the properties as map use {@code properties()}. The map
+ * contains the defined properties in a fixed order. The values are strings, booleans, longs or lists of strings.
+ * <p>
+ * Records are immutable and don't contain any backend specific data, so writers are free to buffer, batch or reorder
+ * them. All records of a resource share the same {@link #address()}.
+ */
+public sealed interface GraphRecord {
+
+    /** The address of the resource this record belongs to, or {@code null} for the identity. */
+    ResourceAddress address();
+
+    enum Relation {
+        ALTERNATIVE, REQUIRES
+    }
+
+    /** Version a resource, attribute, operation or parameter has been deprecated since. */
+    record Deprecation(String reason, int major, int minor, int patch) {
+
+        public int ordinal() {
+            int ordinal = 0;
+            int[] numbers = new int[]{patch, minor, major};
+            for (int i = 0; i < numbers.length; i++) {
+                ordinal |= numbers[i] << i * 10;
+            }
+            return ordinal;
+        }
+    }
+
+    // ------------------------------------------------------ nodes
+
+    record IdentityNode(Identity identity) implements GraphRecord {
+
+        @Override
+        public ResourceAddress address() {
+            return null;
+        }
+    }
+
+    /** @param childDescriptions the descriptions of the child types as {@code type|description^...} */
+    record ResourceNode(ResourceAddress address, String description, String stability, String childDescriptions,
+                        Deprecation deprecation) implements GraphRecord {
+
+        public Map<String, Object> properties() {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put(NAME, address.getName());
+            properties.put(ADDRESS, address.toString());
+            properties.put(SINGLETON, address.isSingleton());
+            putIfDefined(properties, DESCRIPTION, description);
+            putIfDefined(properties, STABILITY, stability);
+            putIfDefined(properties, CHILD_DESCRIPTIONS, childDescriptions);
+            return properties;
+        }
+    }
+
+    record AttributeNode(ResourceAddress address, List<String> path, Attribute attribute,
+                         Deprecation deprecation) implements GraphRecord {
+
+        public String name() {
+            return attribute.name();
+        }
+
+        public Map<String, Object> properties() {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put(NAME, attribute.name());
+            putValue(properties, attribute.value());
+            putIfDefined(properties, ACCESS_TYPE, attribute.accessType());
+            putIfDefined(properties, ALIAS, attribute.alias());
+            putIfDefined(properties, ATTRIBUTE_GROUP, attribute.attributeGroup());
+            putIfDefined(properties, DEFAULT, attribute.defaultValue());
+            putIfDefined(properties, DESCRIPTION, attribute.description());
+            putIfDefined(properties, RESTART_REQUIRED, attribute.restartRequired());
+            putIfDefined(properties, STORAGE, attribute.storage());
+            return properties;
+        }
+    }
+
+    record OperationNode(ResourceAddress address, Operation operation, boolean global,
+                         Deprecation deprecation) implements GraphRecord {
+
+        public String name() {
+            return operation.name();
+        }
+
+        public Map<String, Object> properties() {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put(NAME, operation.name());
+            properties.put(GLOBAL, global);
+            putIfDefined(properties, DESCRIPTION, operation.description());
+            putIfDefined(properties, READ_ONLY, operation.readOnly());
+            putIfDefined(properties, RUNTIME_ONLY, operation.runtimeOnly());
+            putIfDefined(properties, STABILITY, operation.stability());
+            putIfDefined(properties, RETURN_VALUE, operation.returnValue());
+            putIfDefined(properties, VALUE_TYPE, operation.replyValueType());
+            return properties;
+        }
+    }
+
+    record ParameterNode(ResourceAddress address, String operation, List<String> path, Parameter parameter,
+                         Deprecation deprecation) implements GraphRecord {
+
+        public String name() {
+            return parameter.name();
+        }
+
+        public Map<String, Object> properties() {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            properties.put(NAME, parameter.name());
+            putValue(properties, parameter.value());
+            return properties;
+        }
+    }
+
+    // ------------------------------------------------------ relationships
+
+    record ChildOf(ResourceAddress child, ResourceAddress parent) implements GraphRecord {
+
+        @Override
+        public ResourceAddress address() {
+            return child;
+        }
+    }
+
+    /** Resource declares a capability. Creates the capability if necessary. */
+    record DeclaresCapability(ResourceAddress address, String name, String stability) implements GraphRecord {
+    }
+
+    /** Resource provides a global operation which has already been created by another resource. */
+    record ProvidesGlobalOperation(ResourceAddress address, String name) implements GraphRecord {
+    }
+
+    /** Attribute references an existing capability. */
+    record AttributeReferencesCapability(ResourceAddress address, List<String> path, String name,
+                                         String capability) implements GraphRecord {
+    }
+
+    /** Attribute is sensitive. Creates a new constraint. */
+    record SensitiveConstraint(ResourceAddress address, List<String> path, String name, String constraint,
+                               String type) implements GraphRecord {
+    }
+
+    record AttributeRelation(ResourceAddress address, List<String> path, String source, String target,
+                             Relation relation) implements GraphRecord {
+    }
+
+    /** Parameter references an existing capability. */
+    record ParameterReferencesCapability(ResourceAddress address, String operation, List<String> path, String name,
+                                         String capability) implements GraphRecord {
+    }
+
+    record ParameterRelation(ResourceAddress address, String operation, List<String> path, String source,
+                             String target, Relation relation) implements GraphRecord {
+    }
+
+    // ------------------------------------------------------ properties
+
+    /** Puts the properties shared by attributes and parameters. */
+    private static void putValue(Map<String, Object> properties, Value value) {
+        putIfDefined(properties, ALLOWED, value.allowed());
+        putIfDefined(properties, EXPRESSIONS_ALLOWED, value.expressionsAllowed());
+        putIfDefined(properties, MAX, value.max());
+        putIfDefined(properties, MAX_LENGTH, value.maxLength());
+        putIfDefined(properties, MIN, value.min());
+        putIfDefined(properties, MIN_LENGTH, value.minLength());
+        putIfDefined(properties, NILLABLE, value.nillable());
+        putIfDefined(properties, REQUIRED, value.required());
+        putIfDefined(properties, STABILITY, value.stability());
+        putIfDefined(properties, TYPE, value.type());
+        putIfDefined(properties, UNIT, value.unit());
+        putIfDefined(properties, VALUE_TYPE, value.valueType());
+    }
+
+    private static void putIfDefined(Map<String, Object> properties, String name, Object value) {
+        if (value != null) {
+            properties.put(name, value);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.wildfly.modelgraph.analyzer.graph;
+
+import java.util.function.Consumer;
+
+import org.neo4j.driver.summary.SummaryCounters;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+
+/** Writes the records emitted by the analyzer to a backend. */
+public interface GraphWriter extends AutoCloseable {
+
+    /**
+     * Writes the record. Implementations may defer the write. The counters are passed to the consumer as soon as the
+     * record has been written.
+     */
+    void write(GraphRecord record, Consumer<SummaryCounters> counters);
+
+    boolean exists(ResourceAddress address);
+
+    /** Writes all deferred records. */
+    default void flush() {
+    }
+
+    /**
+     * Creates a writer which can be used by another thread in parallel to this writer. Forked writers share the
+     * connection to the backend, but write in their own transactions. They must be closed before this writer.
+     *
+     * @throws UnsupportedOperationException if this writer can't be used in parallel
+     */
+    default GraphWriter fork() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " can't be forked");
+    }
+
+    @Override
+    void close();
+}
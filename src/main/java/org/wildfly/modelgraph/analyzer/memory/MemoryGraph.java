@@ -0,0 +1,314 @@
+package org.wildfly.modelgraph.analyzer.memory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.primitive.IntLists;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+/**
+ * Property graph kept in memory. Nodes and relationships are identified by sequential {@code int} IDs. Labels,
+ * relationship types and property keys are interned and stored as {@code int}s, too. Each node has exactly one label.
+ * <p>
+ * The adjacency lists of the nodes hold the IDs of their outgoing and incoming relationships, so traversals don't
+ * box. Nodes can optionally be registered under a unique key, which is used to find them again when creating
+ * relationships. There's at most one relationship of a type between two nodes.
+ * <p>
+ * The lookup methods ({@link #nodes(String)}, {@link #nodes(String, String, Object)}, {@link #outgoing(int, String)},
+ * {@link #incoming(int, String)} and {@link #count(String, String, String)}) are meant for tests and tools which
+ * verify or analyze the shape of the graph. This class is not thread-safe.
+ */
+public class MemoryGraph {
+
+    public static final int NONE = -1;
+
+    // interned labels, relationship types and property keys
+    private final Names labels;
+    private final Names types;
+    private final Names propertyKeys;
+
+    // nodes
+    private final MutableIntList nodeLabels;
+    private final MutableList<MutableIntObjectMap<Object>> nodeProperties;
+    private final MutableList<MutableIntList> outgoing;
+    private final MutableList<MutableIntList> incoming;
+    private final MutableList<MutableIntList> nodesByLabel;
+    private final MutableObjectIntMap<String> keys;
+
+    // relationships
+    private final MutableIntList starts;
+    private final MutableIntList ends;
+    private final MutableIntList relationshipTypes;
+    private final MutableIntObjectMap<MutableIntObjectMap<Object>> relationshipProperties;
+    private final MutableList<MutableLongSet> relationshipsByType;
+
+    public MemoryGraph() {
+        this.labels = new Names();
+        this.types = new Names();
+        this.propertyKeys = new Names();
+        this.nodeLabels = new IntArrayList();
+        this.nodeProperties = Lists.mutable.empty();
+        this.outgoing = Lists.mutable.empty();
+        this.incoming = Lists.mutable.empty();
+        this.nodesByLabel = Lists.mutable.empty();
+        this.keys = new ObjectIntHashMap<>();
+        this.starts = new IntArrayList();
+        this.ends = new IntArrayList();
+        this.relationshipTypes = new IntArrayList();
+        this.relationshipProperties = new IntObjectHashMap<>();
+        this.relationshipsByType = Lists.mutable.empty();
+    }
+
+    // ------------------------------------------------------ create
+
+    /**
+     * Creates a node and returns its ID. If {@code key} is not {@code null}, the node is registered under that key.
+     * {@code null} property values are skipped.
+     */
+    public int createNode(String label, String key, Map<String, ?> properties) {
+        var id = nodeLabels.size();
+        var labelId = labels.intern(label);
+        if (labelId == nodesByLabel.size()) {
+            nodesByLabel.add(new IntArrayList());
+        }
+        nodeLabels.add(labelId);
+        nodeProperties.add(properties(properties));
+        outgoing.add(new IntArrayList(2));
+        incoming.add(new IntArrayList(2));
+        nodesByLabel.get(labelId).add(id);
+        if (key != null) {
+            keys.put(key, id);
+        }
+        return id;
+    }
+
+    /** Registers an existing node under an additional key. */
+    public void register(String key, int node) {
+        keys.put(key, node);
+    }
+
+    /**
+     * Creates a relationship between two existing nodes. Returns {@code false} if there's already a relationship of
+     * that type from {@code start} to {@code end}.
+     */
+    public boolean createRelationship(int start, int end, String type, Map<String, ?> properties) {
+        var typeId = types.intern(type);
+        if (typeId == relationshipsByType.size()) {
+            relationshipsByType.add(new LongHashSet());
+        }
+        if (!relationshipsByType.get(typeId).add(pair(start, end))) {
+            return false;
+        }
+        var id = starts.size();
+        starts.add(start);
+        ends.add(end);
+        relationshipTypes.add(typeId);
+        outgoing.get(start).add(id);
+        incoming.get(end).add(id);
+        if (properties != null && !properties.isEmpty()) {
+            relationshipProperties.put(id, properties(properties));
+        }
+        return true;
+    }
+
+    // ------------------------------------------------------ nodes
+
+    public int nodeCount() {
+        return nodeLabels.size();
+    }
+
+    /** Returns the ID of the node registered under {@code key} or {@link #NONE}. */
+    public int node(String key) {
+        return keys.getIfAbsent(key, NONE);
+    }
+
+    public String label(int node) {
+        return labels.name(nodeLabels.get(node));
+    }
+
+    public Object property(int node, String key) {
+        var keyId = propertyKeys.id(key);
+        return keyId != NONE ? nodeProperties.get(node).get(keyId) : null;
+    }
+
+    public Map<String, Object> properties(int node) {
+        return names(nodeProperties.get(node));
+    }
+
+    /** Returns the IDs of all nodes with the given label. */
+    public IntList nodes(String label) {
+        var labelId = labels.id(label);
+        return labelId != NONE ? nodesByLabel.get(labelId).asUnmodifiable() : IntLists.immutable.empty();
+    }
+
+    /** Returns the IDs of all nodes with the given label and property value. */
+    public IntList nodes(String label, String key, Object value) {
+        var keyId = propertyKeys.id(key);
+        if (keyId == NONE) {
+            return IntLists.immutable.empty();
+        }
+        return nodes(label).select(node -> value.equals(nodeProperties.get(node).get(keyId)));
+    }
+
+    /** Returns the end nodes of the outgoing relationships of {@code node} with the given type. */
+    public IntList outgoing(int node, String type) {
+        var typeId = types.id(type);
+        var result = new IntArrayList();
+        outgoing.get(node).forEach(relationship -> {
+            if (relationshipTypes.get(relationship) == typeId) {
+                result.add(ends.get(relationship));
+            }
+        });
+        return result;
+    }
+
+    /** Returns the start nodes of the incoming relationships of {@code node} with the given type. */
+    public IntList incoming(int node, String type) {
+        var typeId = types.id(type);
+        var result = new IntArrayList();
+        incoming.get(node).forEach(relationship -> {
+            if (relationshipTypes.get(relationship) == typeId) {
+                result.add(starts.get(relationship));
+            }
+        });
+        return result;
+    }
+
+    // ------------------------------------------------------ relationships
+
+    public int relationshipCount() {
+        return starts.size();
+    }
+
+    public boolean hasRelationship(int start, int end, String type) {
+        var typeId = types.id(type);
+        return typeId != NONE && relationshipsByType.get(typeId).contains(pair(start, end));
+    }
+
+    /** Returns the IDs of all relationships with the given type. */
+    public IntList relationships(String type) {
+        var typeId = types.id(type);
+        var result = new IntArrayList();
+        for (int i = 0; i < relationshipTypes.size(); i++) {
+            if (relationshipTypes.get(i) == typeId) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    public int start(int relationship) {
+        return starts.get(relationship);
+    }
+
+    public int end(int relationship) {
+        return ends.get(relationship);
+    }
+
+    public String type(int relationship) {
+        return types.name(relationshipTypes.get(relationship));
+    }
+
+    public Object relationshipProperty(int relationship, String key) {
+        var properties = relationshipProperties.get(relationship);
+        var keyId = propertyKeys.id(key);
+        return properties != null && keyId != NONE ? properties.get(keyId) : null;
+    }
+
+    // ------------------------------------------------------ patterns
+
+    /**
+     * Counts the relationships matching {@code (:startLabel)-[:type]->(:endLabel)}. {@code null} matches any label or
+     * type.
+     */
+    public int count(String startLabel, String type, String endLabel) {
+        var startLabelId = startLabel != null ? labels.id(startLabel) : NONE;
+        var typeId = type != null ? types.id(type) : NONE;
+        var endLabelId = endLabel != null ? labels.id(endLabel) : NONE;
+        if ((startLabel != null && startLabelId == NONE) || (type != null && typeId == NONE)
+                || (endLabel != null && endLabelId == NONE)) {
+            return 0;
+        }
+        var count = 0;
+        for (int i = 0; i < starts.size(); i++) {
+            if ((type == null || relationshipTypes.get(i) == typeId)
+                    && (startLabel == null || nodeLabels.get(starts.get(i)) == startLabelId)
+                    && (endLabel == null || nodeLabels.get(ends.get(i)) == endLabelId)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Returns the number of nodes per label in the order the labels were created. */
+    public Map<String, Integer> labelCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < nodesByLabel.size(); i++) {
+            counts.put(labels.name(i), nodesByLabel.get(i).size());
+        }
+        return counts;
+    }
+
+    /** Returns the number of relationships per type in the order the types were created. */
+    public Map<String, Integer> typeCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int i = 0; i < relationshipsByType.size(); i++) {
+            counts.put(types.name(i), relationshipsByType.get(i).size());
+        }
+        return counts;
+    }
+
+    // ------------------------------------------------------ internals
+
+    private MutableIntObjectMap<Object> properties(Map<String, ?> properties) {
+        var result = new IntObjectHashMap<>(properties.size());
+        properties.forEach((key, value) -> {
+            if (value != null) {
+                result.put(propertyKeys.intern(key), value);
+            }
+        });
+        return result;
+    }
+
+    private Map<String, Object> names(MutableIntObjectMap<Object> properties) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        properties.forEachKeyValue((key, value) -> result.put(propertyKeys.name(key), value));
+        return result;
+    }
+
+    private static long pair(int start, int end) {
+        return ((long) start << 32) | (end & 0xffffffffL);
+    }
+
+    /** Interns names as sequential {@code int}s. */
+    private static class Names {
+
+        private final MutableObjectIntMap<String> ids = new ObjectIntHashMap<>();
+        private final MutableList<String> names = Lists.mutable.empty();
+
+        int intern(String name) {
+            return ids.getIfAbsentPut(name, () -> {
+                names.add(name);
+                return names.size() - 1;
+            });
+        }
+
+        int id(String name) {
+            return ids.getIfAbsent(name, NONE);
+        }
+
+        String name(int id) {
+            return names.get(id);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package org.wildfly.modelgraph.analyzer.memory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wildfly.modelgraph.analyzer.dmr.Identity;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeReferencesCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ChildOf;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.DeclaresCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.IdentityNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.OperationNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterReferencesCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ProvidesGlobalOperation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Relation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ResourceNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.SensitiveConstraint;
+import org.wildfly.modelgraph.analyzer.graph.GraphWriter;
+
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ARTIFACT_ID;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.GROUP_ID;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.IDENTIFIER;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.LICENSES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NAME;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REASON;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SCM_URL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STABILITY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.TYPE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.URL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.VERSION;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.attributeKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.attributeParentKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.capabilityKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.globalOperationKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.operationKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.parameterKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.parameterParentKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.resourceKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.versionKey;
+import static org.wildfly.modelgraph.analyzer.graph.GraphKeys.versionProperties;
+import static org.wildfly.modelgraph.analyzer.memory.MemoryGraph.NONE;
+
+/**
+ * Graph writer which builds the graph in memory using a {@link MemoryGraph}. No connection to Neo4j is required.
+ * The graph has the same labels, relationship types and properties as the graph created by the Cypher statements, so
+ * it can be used to benchmark the analyzer end to end, to verify the shape of the graph and to analyze a management
+ * model offline.
+ * <p>
+ * Like the {@code MATCH} clauses of the Cypher statements, relationships to unknown nodes are skipped. When the
+ * writer is closed, the number of nodes per label and relationships per type is logged.
+ */
+public class MemoryWriter implements GraphWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryWriter.class);
+
+    private final MemoryGraph graph;
+
+    public MemoryWriter() {
+        this(new MemoryGraph());
+    }
+
+    public MemoryWriter(MemoryGraph graph) {
+        this.graph = graph;
+        logger.info("Memory mode: building the graph in memory");
+    }
+
+    public MemoryGraph graph() {
+        return graph;
+    }
+
+    @Override
+    public void write(GraphRecord record, Consumer<SummaryCounters> counters) {
+        var nodes = graph.nodeCount();
+        var relationships = graph.relationshipCount();
+        switch (record) {
+            case IdentityNode identityNode -> identity(identityNode.identity());
+            case ResourceNode resource -> resource(resource);
+            case ChildOf childOf -> relationship(resourceKey(childOf.child()), resourceKey(childOf.parent()),
+                    "CHILD_OF");
+            case DeclaresCapability capability -> declaresCapability(capability);
+            case AttributeNode attribute -> attribute(attribute);
+            case AttributeReferencesCapability reference -> relationship(
+                    attributeKey(reference.address(), reference.path(), reference.name()),
+                    capabilityKey(reference.capability()), "REFERENCES_CAPABILITY");
+            case SensitiveConstraint sensitive -> sensitive(sensitive);
+            case AttributeRelation relation -> relationship(
+                    attributeKey(relation.address(), relation.path(), relation.source()),
+                    attributeKey(relation.address(), relation.path(), relation.target()), relation.relation());
+            case OperationNode operation -> operation(operation);
+            case ProvidesGlobalOperation globalOperation -> providesGlobalOperation(globalOperation);
+            case ParameterNode parameter -> parameter(parameter);
+            case ParameterReferencesCapability reference -> relationship(
+                    parameterKey(reference.address(), reference.operation(), reference.path(), reference.name()),
+                    capabilityKey(reference.capability()), "REFERENCES_CAPABILITY");
+            case ParameterRelation relation -> relationship(
+                    parameterKey(relation.address(), relation.operation(), relation.path(), relation.source()),
+                    parameterKey(relation.address(), relation.operation(), relation.path(), relation.target()),
+                    relation.relation());
+        }
+        counters.accept(new InternalSummaryCounters(graph.nodeCount() - nodes, 0,
+                graph.relationshipCount() - relationships, 0, 0, 0, 0, 0, 0, 0, 0, 0));
+    }
+
+    @Override
+    public boolean exists(ResourceAddress address) {
+        return graph.node(resourceKey(address)) != NONE;
+    }
+
+    @Override
+    public void close() {
+        logger.info("Built {} nodes and {} relationships in memory", graph.nodeCount(), graph.relationshipCount());
+        logger.info("Nodes: {}", graph.labelCounts());
+        logger.info("Relationships: {}", graph.typeCounts());
+    }
+
+    // ------------------------------------------------------ nodes
+
+    private void identity(Identity identity) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(TYPE, identity.type().id);
+        properties.put(IDENTIFIER, identity.identifier());
+        properties.put(GROUP_ID, identity.groupId());
+        properties.put(ARTIFACT_ID, identity.artifactId());
+        properties.put(VERSION, identity.version().toString());
+        properties.put(NAME, identity.name());
+        properties.put(DESCRIPTION, identity.description());
+        properties.put(URL, identity.url());
+        properties.put(SCM_URL, identity.scmUrl());
+        properties.put(LICENSES, String.join(", ", identity.licenses()));
+        graph.createNode("Identity", null, properties);
+    }
+
+    private void resource(ResourceNode resource) {
+        var id = graph.createNode("Resource", resourceKey(resource.address()), resource.properties());
+        deprecated(id, resource.deprecation());
+    }
+
+    private void declaresCapability(DeclaresCapability capability) {
+        var key = capabilityKey(capability.name());
+        if (graph.node(key) == NONE) {
+            var properties = capability.stability() != null
+                    ? Map.<String, Object>of(NAME, capability.name(), STABILITY, capability.stability())
+                    : Map.<String, Object>of(NAME, capability.name());
+            graph.createNode("Capability", key, properties);
+        }
+        relationship(resourceKey(capability.address()), key, "DECLARES_CAPABILITY");
+    }
+
+    private void attribute(AttributeNode attribute) {
+        var parent = graph.node(attributeParentKey(attribute));
+        if (parent != NONE) {
+            var id = graph.createNode("Attribute",
+                    attributeKey(attribute.address(), attribute.path(), attribute.name()), attribute.properties());
+            graph.createRelationship(parent, id, attribute.path().isEmpty() ? "HAS_ATTRIBUTE" : "CONSISTS_OF", null);
+            deprecated(id, attribute.deprecation());
+        }
+    }
+
+    private void sensitive(SensitiveConstraint sensitive) {
+        var attribute = graph.node(attributeKey(sensitive.address(), sensitive.path(), sensitive.name()));
+        if (attribute != NONE) {
+            var id = graph.createNode("Constraint", null, Map.of(NAME, sensitive.constraint(),
+                    TYPE, sensitive.type()));
+            graph.createRelationship(attribute, id, "IS_SENSITIVE", null);
+        }
+    }
+
+    private void operation(OperationNode operation) {
+        var resource = graph.node(resourceKey(operation.address()));
+        if (resource != NONE) {
+            var id = graph.createNode("Operation", operationKey(operation.address(), operation.name()),
+                    operation.properties());
+            if (operation.global()) {
+                graph.register(globalOperationKey(operation.name()), id);
+            }
+            graph.createRelationship(resource, id, "PROVIDES", null);
+            deprecated(id, operation.deprecation());
+        }
+    }
+
+    private void providesGlobalOperation(ProvidesGlobalOperation globalOperation) {
+        var global = graph.node(globalOperationKey(globalOperation.name()));
+        if (global != NONE) {
+            // parameters of global operations are looked up using the address of the resource
+            graph.register(operationKey(globalOperation.address(), globalOperation.name()), global);
+        }
+        relationship(resourceKey(globalOperation.address()), globalOperationKey(globalOperation.name()), "PROVIDES");
+    }
+
+    private void parameter(ParameterNode parameter) {
+        var parent = graph.node(parameterParentKey(parameter));
+        if (parent != NONE) {
+            var id = graph.createNode("Parameter",
+                    parameterKey(parameter.address(), parameter.operation(), parameter.path(), parameter.name()),
+                    parameter.properties());
+            graph.createRelationship(parent, id, parameter.path().isEmpty() ? "ACCEPTS" : "CONSISTS_OF", null);
+            deprecated(id, parameter.deprecation());
+        }
+    }
+
+    private void deprecated(int id, Deprecation deprecation) {
+        if (deprecation != null) {
+            var key = versionKey(deprecation);
+            var version = graph.node(key);
+            if (version == NONE) {
+                version = graph.createNode("Version", key, versionProperties(deprecation));
+            }
+            graph.createRelationship(id, version, "DEPRECATED_SINCE",
+                    deprecation.reason() != null ? Map.of(REASON, deprecation.reason()) : null);
+        }
+    }
+
+    // ------------------------------------------------------ relationships
+
+    private void relationship(String startKey, String endKey, Relation relation) {
+        var start = graph.node(startKey);
+        var end = graph.node(endKey);
+        if (start != NONE && end != NONE) {
+            // MERGE (source)-[:ALTERNATIVE]-(target) ignores the direction
+            if (relation != Relation.ALTERNATIVE || !graph.hasRelationship(end, start, relation.name())) {
+                graph.createRelationship(start, end, relation.name(), null);
+            }
+        }
+    }
+
+    private void relationship(String startKey, String endKey, String type) {
+        var start = graph.node(startKey);
+        var end = graph.node(endKey);
+        if (start != NONE && end != NONE) {
+            graph.createRelationship(start, end, type, null);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.AsyncTransaction;
+import org.neo4j.driver.summary.ResultSummary;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wildfly.modelgraph.analyzer.HostAndPort;
+
+/**
+ * Graph client which executes the statements asynchronously using the {@link AsyncSession} of the Neo4j driver.
+ * <p>
+ * {@link #execute(Cypher, Consumer)} sends the statement and returns without waiting for its result, so the analyzer
+ * can read the next resource description while the statements are written. The statements of a transaction are
+ * pipelined: they are sent in the order they were submitted, and the database executes them in this order, but the
+ * client doesn't wait for the result of one statement before it sends the next one. Like {@link Neo4jClient}, the
+ * statements are executed in chunked transactions. Since a statement may depend on nodes created in the previous
+ * chunk, a new transaction is only started once the previous one has been committed.
+ * <p>
+ * At most {@code inFlight} statements are pending. If the window is full, {@code execute()} blocks until a
+ * statement has been completed.
+ * <p>
+ * Threading of the consumers: The counters are passed to the consumers when the transaction has been committed, on
+ * the thread which calls {@code execute()}, {@code flush()} or {@code close()}. Records returned by a statement are
+ * passed to its record consumer as soon as they arrive, on the threads of the driver. Record consumers must therefore
+ * be thread-safe, and they may not have been called yet when the next statement is submitted.
+ * <p>
+ * If a statement fails, the transaction is rolled back right away, all following statements are skipped and the next
+ * call to this client throws the failure. Unlike {@link Neo4jClient}, transient errors are not retried, and the chunk
+ * size doesn't adapt to the commit latency. Since parallel workers which merge the same nodes may deadlock, this
+ * client is not used together with several workers.
+ */
+public class AsyncNeo4jClient implements GraphClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncNeo4jClient.class);
+
+    private final Driver driver;
+    private final boolean ownsDriver;
+    private final AsyncSession session;
+    private final int inFlight;
+    private final Semaphore window;
+    private final int txSize;
+    private final long txTimeout;
+    private final Queue<Chunk> committed;
+    private final AtomicReference<RuntimeException> failure;
+    private Chunk chunk;
+    private CompletableFuture<Void> commit;
+
+    public AsyncNeo4jClient(HostAndPort hostAndPort, String username, String password, boolean clean, boolean append,
+            int inFlight, int txSize, long txTimeout) {
+        this(Neo4jClient.connect(hostAndPort, username, password), clean, append, inFlight, txSize, txTimeout);
+    }
+
+    private AsyncNeo4jClient(Driver driver, boolean clean, boolean append, int inFlight, int txSize, long txTimeout) {
+        this(driver, true, inFlight, txSize, txTimeout);
+        Neo4jClient.setup(driver, clean, append);
+        logger.info("Async mode: up to {} statements in flight", inFlight);
+    }
+
+    AsyncNeo4jClient(Driver driver, boolean ownsDriver, int inFlight, int txSize, long txTimeout) {
+        this.driver = driver;
+        this.ownsDriver = ownsDriver;
+        this.session = driver.session(AsyncSession.class);
+        this.inFlight = inFlight;
+        this.window = new Semaphore(inFlight);
+        this.txSize = Math.max(1, txSize);
+        this.txTimeout = txTimeout;
+        this.committed = new ConcurrentLinkedQueue<>();
+        this.failure = new AtomicReference<>();
+        this.commit = CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public void execute(Cypher cypher, Consumer<SummaryCounters> counters) {
+        checkFailure();
+        var current = chunk();
+        window.acquireUninterruptibly();
+        var records = cypher.records();
+        logger.debug("Submit {} using {}", cypher.statement(), cypher.parameters());
+        CompletableFuture<ResultSummary> summary;
+        try {
+            summary = current.tx.runAsync(cypher.statement(), cypher.parameters())
+                    .thenCompose(cursor -> records != null
+                            ? cursor.forEachAsync(records)
+                            : cursor.consumeAsync())
+                    .toCompletableFuture();
+        } catch (RuntimeException e) {
+            // the transaction has been rolled back by a failed statement in the meantime
+            window.release();
+            fail(current, e);
+            throw failure.get();
+        }
+        summary.whenComplete((result, throwable) -> {
+            window.release();
+            if (throwable != null) {
+                fail(current, throwable);
+            }
+        });
+        current.statements.add(new Statement(summary, counters));
+
+        if (current.statements.size() >= txSize || (System.nanoTime() - current.start) / 1_000_000 >= txTimeout) {
+            commit();
+        }
+    }
+
+    @Override
+    public void flush() {
+        commit();
+        await();
+    }
+
+    @Override
+    public GraphClient fork() {
+        return new AsyncNeo4jClient(driver, false, inFlight, txSize, txTimeout);
+    }
+
+    @Override
+    public void close() {
+        logger.debug("Closing connection to Neo4j database");
+        try {
+            flush();
+        } finally {
+            session.closeAsync().toCompletableFuture().join();
+            if (ownsDriver) {
+                driver.close();
+            }
+        }
+    }
+
+    // ------------------------------------------------------ failures and counters
+
+    /** Waits for the last commit and throws the first failure, if any. */
+    private void await() {
+        try {
+            commit.join();
+        } catch (CompletionException e) {
+            // the failure has already been recorded
+        }
+        checkFailure();
+    }
+
+    /** Passes the counters of all committed transactions to the consumers and throws the first failure, if any. */
+    private void checkFailure() {
+        Chunk done;
+        while ((done = committed.poll()) != null) {
+            for (var statement : done.statements) {
+                statement.counters.accept(statement.summary.join().counters());
+            }
+        }
+        var throwable = failure.get();
+        if (throwable != null) {
+            throw throwable;
+        }
+    }
+
+    private void fail(Chunk chunk, Throwable throwable) {
+        failure.compareAndSet(null, unwrap(throwable));
+        if (chunk.rolledBack.compareAndSet(false, true)) {
+            logger.debug("Roll back transaction after failure: {}", throwable.getMessage());
+            chunk.tx.rollbackAsync().exceptionally(ignored -> null);
+        }
+    }
+
+    private RuntimeException unwrap(Throwable throwable) {
+        var cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new CompletionException(cause);
+    }
+
+    // ------------------------------------------------------ transactions
+
+    private Chunk chunk() {
+        if (chunk == null) {
+            // only one transaction per session, and the next chunk may depend on the nodes of the previous one
+            await();
+            try {
+                chunk = new Chunk(session.beginTransactionAsync().toCompletableFuture().join());
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+        }
+        return chunk;
+    }
+
+    private void commit() {
+        if (chunk != null) {
+            var current = chunk;
+            chunk = null;
+            var start = System.nanoTime();
+            commit = CompletableFuture.allOf(current.statements.stream()
+                            .map(Statement::summary)
+                            .toArray(CompletableFuture[]::new))
+                    .thenCompose(ignored -> current.tx.commitAsync())
+                    .thenRun(() -> {
+                        logger.debug("Committed {} statements in {} ms", current.statements.size(),
+                                (System.nanoTime() - start) / 1_000_000);
+                        committed.add(current);
+                    })
+                    .whenComplete((result, throwable) -> {
+                        if (throwable != null) {
+                            fail(current, throwable);
+                        }
+                    });
+        }
+    }
+
+    /** The statements of one transaction. */
+    private static final class Chunk {
+
+        final AsyncTransaction tx;
+        final List<Statement> statements;
+        final AtomicBoolean rolledBack;
+        final long start;
+
+        Chunk(AsyncTransaction tx) {
+            this.tx = tx;
+            this.statements = new ArrayList<>();
+            this.rolledBack = new AtomicBoolean();
+            this.start = System.nanoTime();
+        }
+    }
+
+    private record Statement(CompletableFuture<ResultSummary> summary, Consumer<SummaryCounters> counters) {
+    }
+}
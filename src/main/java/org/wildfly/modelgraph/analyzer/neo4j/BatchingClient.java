@@ -0,0 +1,136 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Graph client which collects batchable statements of the same shape and writes them as one
+ * {@code UNWIND $rows AS row ...} statement. Two statements have the same shape if they share the same kind, depth
+ * and statement text. Only the parameters differ, and they become the rows of the batch.
+ * <p>
+ * Batches are written in the order of {@link Cypher.Kind} and depth, so that statements can rely on nodes created
+ * by statements of an earlier kind. All pending batches are written as soon as the number of pending rows reaches
+ * the batch size, before a statement which is not batchable is executed, and before an existence check.
+ * <p>
+ * The counters and records of a batch are passed to the consumers of the first statement of the batch. This is fine
+ * as long as statements with the same shape account their counters and process their records in the same way.
+ */
+public class BatchingClient implements GraphClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingClient.class);
+    private static final Comparator<Batch> ORDER = Comparator
+            .comparing((Batch batch) -> batch.kind)
+            .thenComparingInt(batch -> batch.depth);
+
+    private final GraphClient delegate;
+    private final int batchSize;
+    private final Map<Shape, Batch> batches;
+    private final Map<String, String> unwindStatements;
+    private int pending;
+
+    public BatchingClient(GraphClient delegate, int batchSize) {
+        this.delegate = delegate;
+        this.batchSize = batchSize;
+        this.batches = new HashMap<>();
+        this.unwindStatements = new HashMap<>();
+        this.pending = 0;
+        logger.info("Batch mode: write up to {} rows per statement", batchSize);
+    }
+
+    private BatchingClient(BatchingClient parent) {
+        this.delegate = parent.delegate.fork();
+        this.batchSize = parent.batchSize;
+        this.batches = new HashMap<>();
+        this.unwindStatements = new HashMap<>();
+        this.pending = 0;
+    }
+
+    @Override
+    public void execute(Cypher cypher, Consumer<SummaryCounters> counters) {
+        if (cypher.batchable()) {
+            var shape = new Shape(cypher.kind(), cypher.depth(), cypher.statement());
+            var batch = batches.computeIfAbsent(shape, key -> new Batch(cypher, counters,
+                    unwindStatements.computeIfAbsent(key.statement(), statement -> cypher.unwindStatement())));
+            batch.rows.add(cypher.parameterMap());
+            pending++;
+            if (pending >= batchSize) {
+                flushBatches();
+            }
+        } else {
+            flushBatches();
+            delegate.execute(cypher, counters);
+        }
+    }
+
+    @Override
+    public GraphClient fork() {
+        return new BatchingClient(this);
+    }
+
+    @Override
+    public void flush() {
+        flushBatches();
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            flushBatches();
+        } finally {
+            delegate.close();
+        }
+    }
+
+    private void flushBatches() {
+        if (!batches.isEmpty()) {
+            List<Batch> ordered = new ArrayList<>(batches.values());
+            ordered.sort(ORDER);
+            batches.clear();
+            pending = 0;
+            for (var batch : ordered) {
+                logger.debug("Write batch of {} rows for {} statement", batch.rows.size(), batch.kind);
+                delegate.execute(batch.unwind(), batch.counters);
+            }
+        }
+    }
+
+    private record Shape(Cypher.Kind kind, int depth, String statement) {
+    }
+
+    private static class Batch {
+
+        final Cypher.Kind kind;
+        final int depth;
+        final String statement;
+        final Consumer<SummaryCounters> counters;
+        final Consumer<Record> records;
+        final Set<String> ids;
+        final List<Map<String, Value>> rows;
+
+        Batch(Cypher cypher, Consumer<SummaryCounters> counters, String statement) {
+            this.kind = cypher.kind();
+            this.depth = cypher.depth();
+            this.statement = statement;
+            this.counters = counters;
+            this.records = cypher.records();
+            this.ids = cypher.ids();
+            this.rows = new ArrayList<>();
+        }
+
+        Cypher unwind() {
+            return new Cypher(statement).rows(rows, ids).records(records);
+        }
+    }
+}
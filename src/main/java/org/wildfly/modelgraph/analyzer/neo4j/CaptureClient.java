@@ -0,0 +1,128 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Graph client which writes the statements to a file instead of executing them. Each statement is preceded by a
+ * comment with its parameters.
+ * <p>
+ * The statements are rendered and written by a background thread, so capturing hardly slows down the analyzer. The
+ * queue to the background thread is bounded. Forked clients share the queue and the background thread. Since no
+ * statement is executed, the counters are always empty.
+ * <p>
+ * If a statement can't be rendered or written, the background thread records the failure and keeps draining the
+ * queue, so the analyzer never blocks. {@link #close()} throws the failure.
+ */
+public class CaptureClient implements GraphClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(CaptureClient.class);
+    private static final int QUEUE_SIZE = 10_000;
+    private static final Cypher END = new Cypher("");
+
+    private final Path file;
+    private final BlockingQueue<Cypher> queue;
+    private final Thread thread;
+    private final boolean owner;
+    private volatile Exception failure;
+
+    public CaptureClient(Path file) {
+        BufferedWriter writer;
+        try {
+            writer = Files.newBufferedWriter(file);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Unable to create capture file %s: %s", file, e.getMessage()), e);
+        }
+        this.file = file;
+        this.queue = new LinkedBlockingQueue<>(QUEUE_SIZE);
+        this.thread = Thread.ofPlatform().name("capture").start(() -> drain(writer));
+        this.owner = true;
+        logger.info("Capture statements to {}", file);
+    }
+
+    private CaptureClient(CaptureClient parent) {
+        this.file = parent.file;
+        this.queue = parent.queue;
+        this.thread = parent.thread;
+        this.owner = false;
+    }
+
+    @Override
+    public void execute(Cypher cypher, Consumer<SummaryCounters> counters) {
+        put(cypher);
+        counters.accept(InternalSummaryCounters.EMPTY_STATS);
+    }
+
+    @Override
+    public GraphClient fork() {
+        return new CaptureClient(this);
+    }
+
+    @Override
+    public void close() {
+        if (owner) {
+            put(END);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw new RuntimeException(String.format("Unable to write capture file %s: %s", file,
+                        failure.getMessage()), failure);
+            }
+        }
+    }
+
+    private void put(Cypher cypher) {
+        try {
+            queue.put(cypher);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(String.format("Interrupted while capturing statements to %s", file), e);
+        }
+    }
+
+    private void drain(BufferedWriter writer) {
+        try {
+            Cypher cypher;
+            while ((cypher = queue.take()) != END) {
+                // after a failure, keep draining, so that the analyzer doesn't block
+                if (failure == null) {
+                    try {
+                        write(writer, cypher);
+                    } catch (Exception e) {
+                        failure = e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                failure = failure != null ? failure : e;
+            }
+        }
+    }
+
+    private void write(BufferedWriter writer, Cypher cypher) throws IOException {
+        writer.write("// ");
+        writer.write(cypher.parameters().toString());
+        writer.newLine();
+        writer.write(cypher.statement());
+        writer.write(';');
+        writer.newLine();
+    }
+}
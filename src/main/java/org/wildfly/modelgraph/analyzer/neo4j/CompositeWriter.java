@@ -0,0 +1,417 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeReferencesCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ChildOf;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.DeclaresCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.OperationNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterReferencesCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ProvidesGlobalOperation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Relation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ResourceNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.SensitiveConstraint;
+import org.wildfly.modelgraph.analyzer.graph.GraphWriter;
+
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAJOR;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MINOR;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NAME;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ORDINAL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.PARENT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.PATCH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REASON;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.TYPE;
+
+/**
+ * Graph writer which writes each resource with one statement. The records of a resource are collected in one
+ * document, which is passed as parameter {@code $doc} to a single statement. The statement creates the resource,
+ * links the parent and unwinds the capabilities, attributes, operations and parameters.
+ * <p>
+ * Nested attributes and parameters refer to their parents by their index in the document, so the statement doesn't
+ * need to match any paths. A document is written as soon as the records of the next resource arrive, before an
+ * existence check, and on flush.
+ * <p>
+ * The summary of the statement can't be split by record. Instead, the counters passed to the consumers of the
+ * records are derived from the document, when the statement has been executed. Capabilities and versions are counted
+ * when they're seen for the first time by this writer or one of its forks.
+ */
+public class CompositeWriter implements GraphWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompositeWriter.class);
+    private static final String DEPRECATED = """
+            FOREACH (deprecation IN CASE WHEN %1$s.deprecation IS NULL THEN [] ELSE [%1$s.deprecation] END |
+              MERGE (v:Version {major: deprecation.major, minor: deprecation.minor, patch: deprecation.patch, \
+            ordinal: deprecation.ordinal})
+              MERGE (%2$s)-[:DEPRECATED_SINCE {reason: deprecation.reason}]->(v))
+            """;
+    static final String STATEMENT = """
+            WITH $doc AS doc
+            CREATE (r:Resource) SET r += doc.props
+            WITH r, doc
+            """ + DEPRECATED.formatted("doc", "r") + """
+            WITH r, doc
+            CALL {
+              WITH r, doc
+              MATCH (parent:Resource {address: doc.parent})
+              MERGE (r)-[:CHILD_OF]->(parent)
+            }
+            CALL {
+              WITH r, doc
+              UNWIND doc.capabilities AS capability
+              MERGE (c:Capability {name: capability.name}) ON CREATE SET c.stability = capability.stability
+              MERGE (r)-[:DECLARES_CAPABILITY]->(c)
+            }
+            CALL {
+              WITH r, doc
+              UNWIND doc.attributes AS attribute
+              CREATE (a:Attribute) SET a += attribute.props
+              WITH r, doc, collect(a) AS attributes
+              UNWIND range(0, size(attributes) - 1) AS i
+              WITH r, attributes, attributes[i] AS a, doc.attributes[i] AS attribute
+              FOREACH (ignored IN CASE WHEN attribute.parent < 0 THEN [1] ELSE [] END |
+                MERGE (r)-[:HAS_ATTRIBUTE]->(a))
+              FOREACH (parent IN CASE WHEN attribute.parent < 0 THEN [] ELSE [attributes[attribute.parent]] END |
+                MERGE (parent)-[:CONSISTS_OF]->(a))
+            """ + DEPRECATED.formatted("attribute", "a") + """
+              FOREACH (sensitive IN attribute.sensitive |
+                CREATE (a)-[:IS_SENSITIVE]->(:Constraint {name: sensitive.name, type: sensitive.type}))
+              FOREACH (target IN [t IN attribute.alternatives | attributes[t]] | MERGE (a)-[:ALTERNATIVE]-(target))
+              FOREACH (target IN [t IN attribute.requires | attributes[t]] | MERGE (a)-[:REQUIRES]->(target))
+              WITH a, attribute
+              UNWIND attribute.capabilities AS capability
+              MATCH (c:Capability {name: capability})
+              MERGE (a)-[:REFERENCES_CAPABILITY]->(c)
+            }
+            CALL {
+              WITH r, doc
+              UNWIND doc.globalOperations AS name
+              MATCH (o:Operation {name: name})
+              MERGE (r)-[:PROVIDES]->(o)
+            }
+            CALL {
+              WITH r, doc
+              UNWIND doc.operations AS operation
+              CREATE (r)-[:PROVIDES]->(o:Operation) SET o += operation.props
+            """ + DEPRECATED.formatted("operation", "o") + """
+              WITH doc, collect(o) AS operations
+              UNWIND doc.parameters AS parameter
+              CREATE (p:Parameter) SET p += parameter.props
+              WITH doc, operations, collect(p) AS parameters
+              UNWIND range(0, size(parameters) - 1) AS i
+              WITH operations, parameters, parameters[i] AS p, doc.parameters[i] AS parameter
+              FOREACH (o IN CASE WHEN parameter.parent < 0 THEN [operations[parameter.operation]] ELSE [] END |
+                MERGE (o)-[:ACCEPTS]->(p))
+              FOREACH (parent IN CASE WHEN parameter.parent < 0 THEN [] ELSE [parameters[parameter.parent]] END |
+                MERGE (parent)-[:CONSISTS_OF]->(p))
+            """ + DEPRECATED.formatted("parameter", "p") + """
+              FOREACH (target IN [t IN parameter.alternatives | parameters[t]] | MERGE (p)-[:ALTERNATIVE]-(target))
+              FOREACH (target IN [t IN parameter.requires | parameters[t]] | MERGE (p)-[:REQUIRES]->(target))
+              WITH p, parameter
+              UNWIND parameter.capabilities AS capability
+              MATCH (c:Capability {name: capability})
+              MERGE (p)-[:REFERENCES_CAPABILITY]->(c)
+            }""";
+
+    private final GraphClient client;
+    private final CypherWriter cypherWriter;
+    private final Set<String> capabilities;
+    private final Set<Integer> versions;
+    private Document document;
+
+    public CompositeWriter(GraphClient client) {
+        this.client = client;
+        this.cypherWriter = new CypherWriter(client);
+        this.capabilities = ConcurrentHashMap.newKeySet();
+        this.versions = ConcurrentHashMap.newKeySet();
+        logger.info("Composite mode: write one statement per resource");
+    }
+
+    private CompositeWriter(CompositeWriter parent) {
+        this.client = parent.client.fork();
+        this.cypherWriter = new CypherWriter(client, parent.cypherWriter);
+        this.capabilities = parent.capabilities;
+        this.versions = parent.versions;
+    }
+
+    @Override
+    public void write(GraphRecord record, Consumer<SummaryCounters> counters) {
+        if (record instanceof ResourceNode resource) {
+            writeDocument();
+            document = new Document(resource.address());
+            document.resource(resource, counters);
+        } else if (document != null && document.address.equals(record.address())) {
+            document.add(record, counters);
+        } else {
+            // not part of a resource (e.g. the identity)
+            writeDocument();
+            cypherWriter.write(record, counters);
+        }
+    }
+
+    @Override
+    public boolean exists(ResourceAddress address) {
+        writeDocument();
+        return cypherWriter.exists(address);
+    }
+
+    @Override
+    public GraphWriter fork() {
+        return new CompositeWriter(this);
+    }
+
+    @Override
+    public void flush() {
+        writeDocument();
+        client.flush();
+    }
+
+    @Override
+    public void close() {
+        try {
+            writeDocument();
+        } finally {
+            client.close();
+        }
+    }
+
+    private void writeDocument() {
+        if (document != null) {
+            var pending = document.counters;
+            var cypher = new Cypher(STATEMENT).parameter("doc", document.doc);
+            document = null;
+            client.execute(cypher, summary -> pending.forEach(Runnable::run));
+        }
+    }
+
+    // ------------------------------------------------------ document
+
+    private final class Document {
+
+        final ResourceAddress address;
+        final Map<String, Object> doc;
+        final List<Map<String, Object>> capabilities;
+        final List<Map<String, Object>> attributes;
+        final List<String> globalOperations;
+        final List<Map<String, Object>> operations;
+        final List<Map<String, Object>> parameters;
+        final Map<String, Integer> attributeIndex;
+        final Map<String, Integer> operationIndex;
+        final Map<String, Integer> parameterIndex;
+        final Set<String> alternatives;
+        final List<Runnable> counters;
+
+        Document(ResourceAddress address) {
+            this.address = address;
+            this.doc = new HashMap<>();
+            this.capabilities = new ArrayList<>();
+            this.attributes = new ArrayList<>();
+            this.globalOperations = new ArrayList<>();
+            this.operations = new ArrayList<>();
+            this.parameters = new ArrayList<>();
+            this.attributeIndex = new HashMap<>();
+            this.operationIndex = new HashMap<>();
+            this.parameterIndex = new HashMap<>();
+            this.alternatives = new HashSet<>();
+            this.counters = new ArrayList<>();
+            doc.put(PARENT, null);
+            doc.put("capabilities", capabilities);
+            doc.put("attributes", attributes);
+            doc.put("globalOperations", globalOperations);
+            doc.put("operations", operations);
+            doc.put("parameters", parameters);
+        }
+
+        void resource(ResourceNode resource, Consumer<SummaryCounters> consumer) {
+            doc.put("props", resource.properties());
+            doc.put("deprecation", deprecation(resource.deprecation()));
+            count(consumer, 1 + newVersion(resource.deprecation()), deprecated(resource.deprecation()));
+        }
+
+        void add(GraphRecord record, Consumer<SummaryCounters> consumer) {
+            switch (record) {
+                case ChildOf childOf -> {
+                    doc.put(PARENT, childOf.parent().toString());
+                    count(consumer, 0, 1);
+                }
+                case DeclaresCapability capability -> {
+                    Map<String, Object> entry = new HashMap<>();
+                    entry.put(NAME, capability.name());
+                    entry.put("stability", capability.stability());
+                    this.capabilities.add(entry);
+                    count(consumer, CompositeWriter.this.capabilities.add(capability.name()) ? 1 : 0, 1);
+                }
+                case AttributeNode attribute -> {
+                    var parent = attribute.path().isEmpty()
+                            ? Integer.valueOf(-1)
+                            : attributeIndex.get(String.join(".", attribute.path()));
+                    if (parent != null) {
+                        attributeIndex.put(qualifiedName(attribute.path(), attribute.name()), attributes.size());
+                        attributes.add(entity(parent, attribute.properties(), attribute.deprecation()));
+                        count(consumer, 1 + newVersion(attribute.deprecation()),
+                                1 + deprecated(attribute.deprecation()));
+                    } else {
+                        count(consumer, 0, 0);
+                    }
+                }
+                case AttributeReferencesCapability reference -> capabilityReference(consumer,
+                        attributes, attributeIndex.get(qualifiedName(reference.path(), reference.name())),
+                        reference.capability());
+                case SensitiveConstraint sensitive -> {
+                    var index = attributeIndex.get(qualifiedName(sensitive.path(), sensitive.name()));
+                    if (index != null) {
+                        list(attributes.get(index), "sensitive").add(Map.of(NAME, sensitive.constraint(),
+                                TYPE, sensitive.type()));
+                        count(consumer, 1, 1);
+                    } else {
+                        count(consumer, 0, 0);
+                    }
+                }
+                case AttributeRelation relation -> relation(consumer, "a", attributes,
+                        attributeIndex.get(qualifiedName(relation.path(), relation.source())),
+                        attributeIndex.get(qualifiedName(relation.path(), relation.target())), relation.relation());
+                case OperationNode operation -> {
+                    operationIndex.put(operation.name(), operations.size());
+                    Map<String, Object> entry = new HashMap<>();
+                    entry.put("props", operation.properties());
+                    entry.put("deprecation", deprecation(operation.deprecation()));
+                    operations.add(entry);
+                    count(consumer, 1 + newVersion(operation.deprecation()), 1 + deprecated(operation.deprecation()));
+                }
+                case ProvidesGlobalOperation globalOperation -> {
+                    globalOperations.add(globalOperation.name());
+                    count(consumer, 0, 1);
+                }
+                case ParameterNode parameter -> {
+                    var operation = operationIndex.get(parameter.operation());
+                    var parent = parameter.path().isEmpty()
+                            ? Integer.valueOf(-1)
+                            : parameterIndex.get(parameterKey(parameter.operation(), parameter.path()));
+                    if (operation != null && parent != null) {
+                        parameterIndex.put(parameterKey(parameter.operation(),
+                                qualifiedName(parameter.path(), parameter.name())), parameters.size());
+                        var entry = entity(parent, parameter.properties(), parameter.deprecation());
+                        entry.put("operation", operation);
+                        parameters.add(entry);
+                        count(consumer, 1 + newVersion(parameter.deprecation()),
+                                1 + deprecated(parameter.deprecation()));
+                    } else {
+                        count(consumer, 0, 0);
+                    }
+                }
+                case ParameterReferencesCapability reference -> capabilityReference(consumer, parameters,
+                        parameterIndex.get(parameterKey(reference.operation(),
+                                qualifiedName(reference.path(), reference.name()))), reference.capability());
+                case ParameterRelation relation -> relation(consumer, "p:" + relation.operation(), parameters,
+                        parameterIndex.get(parameterKey(relation.operation(),
+                                qualifiedName(relation.path(), relation.source()))),
+                        parameterIndex.get(parameterKey(relation.operation(),
+                                qualifiedName(relation.path(), relation.target()))), relation.relation());
+                default -> throw new IllegalStateException("Unexpected record " + record);
+            }
+        }
+
+        private Map<String, Object> entity(int parent, Map<String, Object> properties, Deprecation deprecation) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put(PARENT, parent);
+            entry.put("props", properties);
+            entry.put("deprecation", deprecation(deprecation));
+            entry.put("sensitive", new ArrayList<>());
+            entry.put("alternatives", new ArrayList<>());
+            entry.put("requires", new ArrayList<>());
+            entry.put("capabilities", new ArrayList<>());
+            return entry;
+        }
+
+        private void capabilityReference(Consumer<SummaryCounters> consumer, List<Map<String, Object>> entities,
+                Integer index, String capability) {
+            if (index != null) {
+                list(entities.get(index), "capabilities").add(capability);
+                count(consumer, 0, 1);
+            } else {
+                count(consumer, 0, 0);
+            }
+        }
+
+        private void relation(Consumer<SummaryCounters> consumer, String scope, List<Map<String, Object>> entities,
+                Integer source, Integer target, Relation relation) {
+            if (source != null && target != null) {
+                if (relation == Relation.ALTERNATIVE) {
+                    // MERGE (source)-[:ALTERNATIVE]-(target) ignores the direction
+                    if (alternatives.contains(scope + ":" + target + ":" + source)) {
+                        count(consumer, 0, 0);
+                        return;
+                    }
+                    alternatives.add(scope + ":" + source + ":" + target);
+                    list(entities.get(source), "alternatives").add(target);
+                } else {
+                    list(entities.get(source), "requires").add(target);
+                }
+                count(consumer, 0, 1);
+            } else {
+                count(consumer, 0, 0);
+            }
+        }
+
+        private void count(Consumer<SummaryCounters> consumer, int nodes, int relationships) {
+            counters.add(() -> consumer.accept(
+                    new InternalSummaryCounters(nodes, 0, relationships, 0, 0, 0, 0, 0, 0, 0, 0, 0)));
+        }
+
+        private int newVersion(Deprecation deprecation) {
+            return deprecation != null && versions.add(deprecation.ordinal()) ? 1 : 0;
+        }
+
+        private int deprecated(Deprecation deprecation) {
+            return deprecation != null ? 1 : 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<Object> list(Map<String, Object> entity, String name) {
+            return (List<Object>) entity.get(name);
+        }
+
+        private String parameterKey(String operation, String qualifiedName) {
+            return operation + "(" + qualifiedName + ")";
+        }
+
+        private String parameterKey(String operation, List<String> path) {
+            return parameterKey(operation, String.join(".", path));
+        }
+
+        private String qualifiedName(List<String> path, String name) {
+            return path.isEmpty() ? name : String.join(".", path) + "." + name;
+        }
+
+        private Map<String, Object> deprecation(Deprecation deprecation) {
+            if (deprecation == null) {
+                return null;
+            }
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put(MAJOR, deprecation.major());
+            map.put(MINOR, deprecation.minor());
+            map.put(PATCH, deprecation.patch());
+            map.put(ORDINAL, deprecation.ordinal());
+            map.put(REASON, deprecation.reason());
+            return map;
+        }
+    }
+}
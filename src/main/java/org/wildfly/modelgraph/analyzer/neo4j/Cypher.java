@@ -1,28 +1,67 @@
 package org.wildfly.modelgraph.analyzer.neo4j;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
+import org.neo4j.driver.Record;
 import org.neo4j.driver.Value;
 import org.neo4j.driver.Values;
 
 public class Cypher {
 
-    private final StringBuilder builder;
+    /**
+     * The kind of statement. Statements of the same kind and nesting depth don't depend on each other and can be
+     * batched. The order of the constants is the order in which batches are written: statements of a later kind
+     * may only depend on nodes and relationships created by statements of an earlier kind (or a smaller depth).
+     */
+    public enum Kind {
+        RESOURCE,
+        CHILD_OF,
+        CAPABILITY,
+        ATTRIBUTE,
+        ATTRIBUTE_CAPABILITY,
+        SENSITIVE,
+        ATTRIBUTE_RELATION,
+        OPERATION,
+        GLOBAL_OPERATION,
+        PARAMETER,
+        PARAMETER_CAPABILITY,
+        PARAMETER_RELATION
+    }
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$(\\w+)");
+    private static final String ROWS = "rows";
+
+    private final String template;
     private final Map<String, Value> parameters;
+    private StringBuilder builder;
+    private Kind kind;
+    private int depth;
+    private Consumer<Record> records;
+    private Set<String> ids;
+    private List<Map<String, Value>> rows;
 
+    /**
+     * Creates a new statement. The statement is only copied into a builder if something is appended, so pre-rendered
+     * statements (templates) which just need parameters are used as-is.
+     */
     public Cypher(String cypher) {
-        builder = new StringBuilder(cypher);
+        template = cypher;
         parameters = new HashMap<>();
     }
 
     public Cypher comma() {
-        builder.append(", ");
+        builder().append(", ");
         return this;
     }
 
     public Cypher append(String cypher) {
-        builder.append(cypher);
+        builder().append(cypher);
         return this;
     }
 
@@ -32,6 +71,7 @@ public class Cypher {
 
     public <T> Cypher append(String attribute, String placeholder, T value) {
         var safePlaceHolder = placeholder.replace('-', '_');
+        var builder = builder();
         if (attribute.contains("-")) {
             builder.append("`");
         }
@@ -44,16 +84,137 @@ public class Cypher {
         return this;
     }
 
+    /** Sets the value of a placeholder which is already part of the statement. */
+    public <T> Cypher parameter(String placeholder, T value) {
+        parameters.put(placeholder, Values.value(value));
+        return this;
+    }
+
+    /**
+     * Binds a node by its element ID. Unlike other parameters, element IDs are replaced when the statement is
+     * {@linkplain #rebind(Map) rebound}.
+     */
+    public Cypher id(String placeholder, String elementId) {
+        if (ids == null) {
+            ids = new HashSet<>();
+        }
+        ids.add(placeholder);
+        return parameter(placeholder, elementId);
+    }
+
+    /**
+     * Sets a consumer for the records returned by this statement. Like the counters, the records are passed to the
+     * consumer as soon as the statement has been executed.
+     */
+    public Cypher records(Consumer<Record> records) {
+        this.records = records;
+        return this;
+    }
+
+    /** Marks this statement as batchable. See {@link Kind} for the constraints of batchable statements. */
+    public Cypher kind(Kind kind) {
+        return kind(kind, 0);
+    }
+
+    /**
+     * Marks this statement as batchable. Use the depth for nested attributes and parameters which depend on the
+     * statements of their parent attributes and parameters.
+     */
+    public Cypher kind(Kind kind, int depth) {
+        this.kind = kind;
+        this.depth = depth;
+        return this;
+    }
+
     @Override
     public String toString() {
-        return builder.toString();
+        return statement();
     }
 
     String statement() {
-        return builder.toString();
+        return builder != null ? builder.toString() : template;
     }
 
     Value parameters() {
         return Values.value(parameters);
     }
+
+    Map<String, Value> parameterMap() {
+        return parameters;
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    Consumer<Record> records() {
+        return records;
+    }
+
+    Set<String> ids() {
+        return ids;
+    }
+
+    /**
+     * Passes a list of parameter maps as {@code $rows}. The rows may contain the element IDs given by {@code ids},
+     * which are replaced when this statement is {@linkplain #rebind(Map) rebound}.
+     */
+    Cypher rows(List<Map<String, Value>> rows, Set<String> ids) {
+        this.rows = rows;
+        this.ids = ids;
+        parameters.put(ROWS, Values.value(rows));
+        return this;
+    }
+
+    /**
+     * Replaces the element IDs of nodes which have been created again, e.g. because the transaction which created
+     * them has been rolled back and replayed. {@code replaced} maps the old element IDs to the new ones.
+     */
+    void rebind(Map<String, String> replaced) {
+        if (ids != null && !replaced.isEmpty()) {
+            if (rows == null) {
+                rebind(parameters, replaced);
+            } else {
+                rows.forEach(row -> rebind(row, replaced));
+                parameters.put(ROWS, Values.value(rows));
+            }
+        }
+    }
+
+    private void rebind(Map<String, Value> parameters, Map<String, String> replaced) {
+        for (var id : ids) {
+            var value = parameters.get(id);
+            if (value != null) {
+                var elementId = value.asString();
+                // a node can be replaced more than once if the replay fails as well
+                while (replaced.containsKey(elementId)) {
+                    elementId = replaced.get(elementId);
+                }
+                parameters.put(id, Values.value(elementId));
+            }
+        }
+    }
+
+    boolean batchable() {
+        return kind != null;
+    }
+
+    /**
+     * Turns this statement into a statement which processes a list of parameter maps given as {@code $rows}. Each
+     * placeholder {@code $foo} is replaced by {@code row.foo}.
+     */
+    String unwindStatement() {
+        return "UNWIND $rows AS row " + PLACEHOLDER.matcher(statement()).replaceAll("row.$1");
+    }
+
+    private StringBuilder builder() {
+        if (builder == null) {
+            builder = new StringBuilder(template);
+        }
+        return builder;
+    }
 }
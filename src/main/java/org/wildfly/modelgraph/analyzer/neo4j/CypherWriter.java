@@ -0,0 +1,479 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.set.MutableSet;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wildfly.modelgraph.analyzer.dmr.Identity;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeReferencesCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ChildOf;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.DeclaresCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.IdentityNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.OperationNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterReferencesCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ProvidesGlobalOperation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Relation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ResourceNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.SensitiveConstraint;
+import org.wildfly.modelgraph.analyzer.graph.GraphWriter;
+import org.wildfly.modelgraph.analyzer.neo4j.Templates.NodeTemplate;
+
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ADDRESS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ARTIFACT_ID;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILD;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.GROUP_ID;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.IDENTIFIER;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.LICENSES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MAJOR;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MINOR;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.NAME;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ORDINAL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.PARENT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.PATCH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.REASON;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SCM_URL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STABILITY;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.TYPE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.URL;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.VERSION;
+
+/**
+ * Renders the records as Cypher statements and executes them using a {@link GraphClient}.
+ * <p>
+ * The statements are taken from a fixed set of {@link Templates}. Only the parameters differ, so Neo4j can reuse the
+ * query plans, and statements of the same kind can be batched.
+ * <p>
+ * The statements which create resources, attributes, operations and parameters return the element IDs of the new
+ * nodes. The IDs are kept in a bounded {@link ElementIdCache}. If all nodes a statement depends on are in the cache,
+ * the statement binds them by element ID. Otherwise, the nodes are matched by address, name and path.
+ */
+public class CypherWriter implements GraphWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CypherWriter.class);
+    private static final String PROPS = "props";
+    private static final String PATH = "path";
+    private static final String OPERATION = "operation";
+    private static final String CAPABILITY = "capability";
+    private static final String CONSTRAINT = "constraint";
+    private static final String SOURCE = "source";
+    private static final String TARGET = "target";
+    private static final String CACHE_KEY = "cacheKey";
+
+    private final GraphClient client;
+    private final int cacheSize;
+    private final ElementIdCache cache;
+    private final Templates templates;
+    private final AtomicReference<MutableSet<String>> addresses;
+
+    public CypherWriter(GraphClient client) {
+        this(client, 0);
+    }
+
+    public CypherWriter(GraphClient client, int cacheSize) {
+        this.client = client;
+        this.cacheSize = cacheSize;
+        this.cache = new ElementIdCache(cacheSize);
+        this.templates = new Templates(cache.enabled());
+        this.addresses = new AtomicReference<>();
+    }
+
+    /**
+     * Creates a writer for another thread. The element IDs are not shared, since the nodes created by one writer are
+     * not visible to the other writers before the transaction has been committed. The existing addresses are shared.
+     */
+    CypherWriter(GraphClient client, CypherWriter parent) {
+        this.client = client;
+        this.cacheSize = parent.cacheSize;
+        this.cache = new ElementIdCache(cacheSize);
+        this.templates = parent.templates;
+        this.addresses = parent.addresses;
+    }
+
+    @Override
+    public void write(GraphRecord record, Consumer<SummaryCounters> counters) {
+        var cypher = switch (record) {
+            case IdentityNode identityNode -> identity(identityNode.identity());
+            case ResourceNode resource -> resource(resource);
+            case ChildOf childOf -> childOf(childOf);
+            case DeclaresCapability capability -> declaresCapability(capability);
+            case AttributeNode attribute -> attribute(attribute);
+            case AttributeReferencesCapability reference -> attributeReferencesCapability(reference);
+            case SensitiveConstraint sensitive -> sensitive(sensitive);
+            case AttributeRelation relation -> attributeRelation(relation);
+            case OperationNode operation -> operation(operation);
+            case ProvidesGlobalOperation globalOperation -> providesGlobalOperation(globalOperation);
+            case ParameterNode parameter -> parameter(parameter);
+            case ParameterReferencesCapability reference -> parameterReferencesCapability(reference);
+            case ParameterRelation relation -> parameterRelation(relation);
+        };
+        client.execute(cypher, counters);
+    }
+
+    /**
+     * Checks whether a resource exists. The addresses of all existing resources are loaded once with the first check.
+     * All further checks are answered from memory.
+     */
+    @Override
+    public boolean exists(ResourceAddress address) {
+        var existing = addresses.get();
+        if (existing == null) {
+            synchronized (addresses) {
+                existing = addresses.get();
+                if (existing == null) {
+                    existing = loadAddresses();
+                    addresses.set(existing);
+                }
+            }
+        }
+        return existing.contains(address.toString());
+    }
+
+    @Override
+    public GraphWriter fork() {
+        return new CypherWriter(client.fork(), this);
+    }
+
+    @Override
+    public void flush() {
+        client.flush();
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    // ------------------------------------------------------ resources
+
+    private Cypher identity(Identity identity) {
+        return new Cypher("MERGE (:Identity {")
+                .append(TYPE, identity.type().id).comma()
+                .append(IDENTIFIER, identity.identifier()).comma()
+                .append(GROUP_ID, identity.groupId()).comma()
+                .append(ARTIFACT_ID, identity.artifactId()).comma()
+                .append(VERSION, identity.version().toString()).comma()
+                .append(NAME, identity.name()).comma()
+                .append(DESCRIPTION, identity.description()).comma()
+                .append(URL, identity.url()).comma()
+                .append(SCM_URL, identity.scmUrl()).comma()
+                .append(LICENSES, String.join(", ", identity.licenses()))
+                .append("})");
+    }
+
+    private MutableSet<String> loadAddresses() {
+        MutableSet<String> existing = Sets.mutable.empty();
+        client.execute(new Cypher("MATCH (r:Resource) RETURN r.address AS address")
+                .records(record -> existing.add(record.get(ADDRESS).asString())), counters -> {});
+        // wait for asynchronous clients
+        client.flush();
+        logger.info("Found {} existing resources", existing.size());
+        return existing.asSynchronized();
+    }
+
+    private Cypher resource(ResourceNode resource) {
+        var existing = addresses.get();
+        if (existing != null) {
+            existing.add(resource.address().toString());
+        }
+        var cypher = node(templates.resource, resource.properties(), resource.deprecation(),
+                resourceKey(resource.address()));
+        return cypher.kind(Cypher.Kind.RESOURCE);
+    }
+
+    private Cypher childOf(ChildOf childOf) {
+        var childId = cache.get(resourceKey(childOf.child()));
+        var parentId = cache.get(resourceKey(childOf.parent()));
+        Cypher cypher;
+        if (childId != null && parentId != null) {
+            cypher = new Cypher(templates.childOfById)
+                    .id("childId", childId)
+                    .id("parentId", parentId);
+        } else {
+            cypher = new Cypher(templates.childOfByAddress)
+                    .parameter(CHILD, childOf.child().toString())
+                    .parameter(PARENT, childOf.parent().toString());
+        }
+        return cypher.kind(Cypher.Kind.CHILD_OF);
+    }
+
+    // ------------------------------------------------------ capabilities
+
+    private Cypher declaresCapability(DeclaresCapability capability) {
+        var resourceId = cache.get(resourceKey(capability.address()));
+        Cypher cypher;
+        if (resourceId != null) {
+            cypher = new Cypher(templates.capabilityById).id("rId", resourceId);
+        } else {
+            cypher = new Cypher(templates.capabilityByAddress).parameter(ADDRESS, capability.address().toString());
+        }
+        return cypher.parameter(NAME, capability.name())
+                .parameter(STABILITY, capability.stability())
+                .kind(Cypher.Kind.CAPABILITY);
+    }
+
+    // ------------------------------------------------------ attributes
+
+    private Cypher attribute(AttributeNode attribute) {
+        var key = attributeKey(attribute.address(), attribute.path(), attribute.name());
+        var depth = attribute.path().size();
+        Cypher cypher;
+        if (depth == 0) {
+            var resourceId = cache.get(resourceKey(attribute.address()));
+            if (resourceId != null) {
+                cypher = node(templates.attributeByResourceId, attribute.properties(), attribute.deprecation(), key)
+                        .id("rId", resourceId);
+            } else {
+                cypher = node(templates.attributeByAddress, attribute.properties(), attribute.deprecation(), key)
+                        .parameter(ADDRESS, attribute.address().toString());
+            }
+        } else {
+            var parentId = cache.get(attributeKey(attribute.address(), parent(attribute.path()),
+                    attribute.path().getLast()));
+            if (parentId != null) {
+                cypher = node(templates.nestedAttributeByParentId, attribute.properties(), attribute.deprecation(),
+                        key).id("parentId", parentId);
+            } else {
+                cypher = node(templates.nestedAttributeByPath.get(depth), attribute.properties(),
+                        attribute.deprecation(), key)
+                        .parameter(ADDRESS, attribute.address().toString())
+                        .parameter(PATH, attribute.path());
+            }
+        }
+        return cypher.parameter(NAME, attribute.name()).kind(Cypher.Kind.ATTRIBUTE, depth);
+    }
+
+    private Cypher attributeReferencesCapability(AttributeReferencesCapability reference) {
+        var id = cache.get(attributeKey(reference.address(), reference.path(), reference.name()));
+        var depth = reference.path().size();
+        Cypher cypher;
+        if (id != null) {
+            cypher = new Cypher(templates.attributeCapabilityById).id("aId", id);
+        } else {
+            cypher = matchByPath(templates.attributeCapabilityByPath.get(depth), reference.address(),
+                    reference.path()).parameter(NAME, reference.name());
+        }
+        return cypher.parameter(CAPABILITY, reference.capability())
+                .kind(Cypher.Kind.ATTRIBUTE_CAPABILITY, depth);
+    }
+
+    private Cypher sensitive(SensitiveConstraint sensitive) {
+        var id = cache.get(attributeKey(sensitive.address(), sensitive.path(), sensitive.name()));
+        var depth = sensitive.path().size();
+        Cypher cypher;
+        if (id != null) {
+            cypher = new Cypher(templates.sensitiveById).id("aId", id);
+        } else {
+            cypher = matchByPath(templates.sensitiveByPath.get(depth), sensitive.address(), sensitive.path())
+                    .parameter(NAME, sensitive.name());
+        }
+        return cypher.parameter(CONSTRAINT, sensitive.constraint())
+                .parameter(TYPE, sensitive.type())
+                .kind(Cypher.Kind.SENSITIVE, depth);
+    }
+
+    private Cypher attributeRelation(AttributeRelation relation) {
+        var sourceId = cache.get(attributeKey(relation.address(), relation.path(), relation.source()));
+        var targetId = cache.get(attributeKey(relation.address(), relation.path(), relation.target()));
+        var depth = relation.path().size();
+        Cypher cypher;
+        if (sourceId != null && targetId != null) {
+            cypher = relationById(relation.relation(), sourceId, targetId);
+        } else {
+            var templates = relation.relation() == Relation.ALTERNATIVE
+                    ? this.templates.attributeAlternativeByPath
+                    : this.templates.attributeRequiresByPath;
+            cypher = matchByPath(templates.get(depth), relation.address(), relation.path())
+                    .parameter(SOURCE, relation.source())
+                    .parameter(TARGET, relation.target());
+        }
+        return cypher.kind(Cypher.Kind.ATTRIBUTE_RELATION, depth);
+    }
+
+    // ------------------------------------------------------ operations
+
+    private Cypher operation(OperationNode operation) {
+        var key = operation.global()
+                ? globalOperationKey(operation.name())
+                : operationKey(operation.address(), operation.name());
+        var resourceId = cache.get(resourceKey(operation.address()));
+        Cypher cypher;
+        if (resourceId != null) {
+            cypher = node(templates.operationByResourceId, operation.properties(), operation.deprecation(), key)
+                    .id("rId", resourceId);
+        } else {
+            cypher = node(templates.operationByAddress, operation.properties(), operation.deprecation(), key)
+                    .parameter(ADDRESS, operation.address().toString());
+        }
+        return cypher.parameter(NAME, operation.name()).kind(Cypher.Kind.OPERATION);
+    }
+
+    private Cypher providesGlobalOperation(ProvidesGlobalOperation globalOperation) {
+        var resourceId = cache.get(resourceKey(globalOperation.address()));
+        var operationId = cache.get(globalOperationKey(globalOperation.name()));
+        Cypher cypher;
+        if (resourceId != null && operationId != null) {
+            cypher = new Cypher(templates.globalOperationById)
+                    .id("rId", resourceId)
+                    .id("oId", operationId);
+        } else {
+            cypher = new Cypher(templates.globalOperationByAddress)
+                    .parameter(ADDRESS, globalOperation.address().toString())
+                    .parameter(NAME, globalOperation.name());
+        }
+        return cypher.kind(Cypher.Kind.GLOBAL_OPERATION);
+    }
+
+    // ------------------------------------------------------ parameters
+
+    private Cypher parameter(ParameterNode parameter) {
+        var key = parameterKey(parameter.address(), parameter.operation(), parameter.path(), parameter.name());
+        var depth = parameter.path().size();
+        Cypher cypher;
+        if (depth == 0) {
+            var operationId = operationId(parameter.address(), parameter.operation());
+            if (operationId != null) {
+                cypher = node(templates.parameterByOperationId, parameter.properties(), parameter.deprecation(), key)
+                        .id("oId", operationId);
+            } else {
+                cypher = node(templates.parameterByAddress, parameter.properties(), parameter.deprecation(), key)
+                        .parameter(ADDRESS, parameter.address().toString())
+                        .parameter(OPERATION, parameter.operation());
+            }
+        } else {
+            var parentId = cache.get(parameterKey(parameter.address(), parameter.operation(),
+                    parent(parameter.path()), parameter.path().getLast()));
+            if (parentId != null) {
+                cypher = node(templates.nestedParameterByParentId, parameter.properties(), parameter.deprecation(),
+                        key).id("parentId", parentId);
+            } else {
+                cypher = node(templates.nestedParameterByPath.get(depth), parameter.properties(),
+                        parameter.deprecation(), key)
+                        .parameter(ADDRESS, parameter.address().toString())
+                        .parameter(OPERATION, parameter.operation())
+                        .parameter(PATH, parameter.path());
+            }
+        }
+        return cypher.parameter(NAME, parameter.name()).kind(Cypher.Kind.PARAMETER, depth);
+    }
+
+    private Cypher parameterReferencesCapability(ParameterReferencesCapability reference) {
+        var id = cache.get(parameterKey(reference.address(), reference.operation(), reference.path(),
+                reference.name()));
+        var depth = reference.path().size();
+        Cypher cypher;
+        if (id != null) {
+            cypher = new Cypher(templates.parameterCapabilityById).id("pId", id);
+        } else {
+            cypher = matchByPath(templates.parameterCapabilityByPath.get(depth), reference.address(),
+                    reference.path())
+                    .parameter(OPERATION, reference.operation())
+                    .parameter(NAME, reference.name());
+        }
+        return cypher.parameter(CAPABILITY, reference.capability())
+                .kind(Cypher.Kind.PARAMETER_CAPABILITY, depth);
+    }
+
+    private Cypher parameterRelation(ParameterRelation relation) {
+        var sourceId = cache.get(parameterKey(relation.address(), relation.operation(), relation.path(),
+                relation.source()));
+        var targetId = cache.get(parameterKey(relation.address(), relation.operation(), relation.path(),
+                relation.target()));
+        var depth = relation.path().size();
+        Cypher cypher;
+        if (sourceId != null && targetId != null) {
+            cypher = relationById(relation.relation(), sourceId, targetId);
+        } else {
+            var templates = relation.relation() == Relation.ALTERNATIVE
+                    ? this.templates.parameterAlternativeByPath
+                    : this.templates.parameterRequiresByPath;
+            cypher = matchByPath(templates.get(depth), relation.address(), relation.path())
+                    .parameter(OPERATION, relation.operation())
+                    .parameter(SOURCE, relation.source())
+                    .parameter(TARGET, relation.target());
+        }
+        return cypher.kind(Cypher.Kind.PARAMETER_RELATION, depth);
+    }
+
+    private String operationId(ResourceAddress address, String operation) {
+        var id = cache.get(operationKey(address, operation));
+        // parameters of global operations are created with the address of the first resource
+        return id != null ? id : cache.get(globalOperationKey(operation));
+    }
+
+    // ------------------------------------------------------ keys
+
+    private String resourceKey(ResourceAddress address) {
+        return "r:" + address;
+    }
+
+    private String attributeKey(ResourceAddress address, List<String> path, String name) {
+        return "a:" + address + "@" + qualifiedName(path, name);
+    }
+
+    private String operationKey(ResourceAddress address, String name) {
+        return "o:" + address + ":" + name;
+    }
+
+    private String globalOperationKey(String name) {
+        return "g:" + name;
+    }
+
+    private String parameterKey(ResourceAddress address, String operation, List<String> path, String name) {
+        return "p:" + address + ":" + operation + "(" + qualifiedName(path, name) + ")";
+    }
+
+    private String qualifiedName(List<String> path, String name) {
+        return path.isEmpty() ? name : String.join(".", path) + "." + name;
+    }
+
+    private List<String> parent(List<String> path) {
+        return path.subList(0, path.size() - 1);
+    }
+
+    // ------------------------------------------------------ helper methods
+
+    private Cypher node(NodeTemplate template, Map<String, Object> properties, Deprecation deprecation,
+            String key) {
+        var cypher = new Cypher(template.get(deprecation != null)).parameter(PROPS, properties);
+        if (deprecation != null) {
+            cypher.parameter(MAJOR, deprecation.major())
+                    .parameter(MINOR, deprecation.minor())
+                    .parameter(PATCH, deprecation.patch())
+                    .parameter(ORDINAL, deprecation.ordinal())
+                    .parameter(REASON, deprecation.reason());
+        }
+        if (cache.enabled()) {
+            cypher.parameter(CACHE_KEY, key).records(cache::put);
+        }
+        return cypher;
+    }
+
+    private Cypher matchByPath(String template, ResourceAddress address, List<String> path) {
+        var cypher = new Cypher(template).parameter(ADDRESS, address.toString());
+        if (!path.isEmpty()) {
+            cypher.parameter(PATH, path);
+        }
+        return cypher;
+    }
+
+    private Cypher relationById(Relation relation, String sourceId, String targetId) {
+        var template = relation == Relation.ALTERNATIVE ? templates.alternativeById : templates.requiresById;
+        return new Cypher(template)
+                .id("sourceId", sourceId)
+                .id("targetId", targetId);
+    }
+}
@@ -0,0 +1,103 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.DeclaresCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.IdentityNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.OperationNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ResourceNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.SensitiveConstraint;
+import org.wildfly.modelgraph.analyzer.graph.GraphWriter;
+
+/**
+ * Graph writer for dry runs, which doesn't connect to Neo4j. The counters are derived from the records: Each node
+ * record counts as one node (attributes, operations and parameters also as one relationship to their parent), each
+ * relationship record as one relationship. Capabilities and versions are counted when they're seen for the first time.
+ * <p>
+ * If a capture file is given, the statements which would be executed are written to that file by a
+ * {@link CaptureClient}. Otherwise, no statements are rendered at all, so a dry run measures the read side of the
+ * analyzer.
+ */
+public class DryRunWriter implements GraphWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DryRunWriter.class);
+
+    private final Set<String> capabilities;
+    private final Set<Integer> versions;
+    private final GraphWriter capture;
+
+    public DryRunWriter(Path captureFile) {
+        this.capabilities = ConcurrentHashMap.newKeySet();
+        this.versions = ConcurrentHashMap.newKeySet();
+        this.capture = captureFile != null ? new CypherWriter(new CaptureClient(captureFile)) : null;
+        logger.info("Dry run mode: no Neo4j connection will be established");
+    }
+
+    private DryRunWriter(DryRunWriter parent) {
+        this.capabilities = parent.capabilities;
+        this.versions = parent.versions;
+        this.capture = parent.capture != null ? parent.capture.fork() : null;
+    }
+
+    @Override
+    public void write(GraphRecord record, Consumer<SummaryCounters> counters) {
+        if (capture != null) {
+            capture.write(record, summary -> {});
+        }
+        counters.accept(switch (record) {
+            case IdentityNode ignored -> counters(1, 0);
+            case ResourceNode resource -> counters(1 + newVersion(resource.deprecation()),
+                    deprecated(resource.deprecation()));
+            case AttributeNode attribute -> counters(1 + newVersion(attribute.deprecation()),
+                    1 + deprecated(attribute.deprecation()));
+            case OperationNode operation -> counters(1 + newVersion(operation.deprecation()),
+                    1 + deprecated(operation.deprecation()));
+            case ParameterNode parameter -> counters(1 + newVersion(parameter.deprecation()),
+                    1 + deprecated(parameter.deprecation()));
+            case DeclaresCapability capability -> counters(capabilities.add(capability.name()) ? 1 : 0, 1);
+            case SensitiveConstraint ignored -> counters(1, 1);
+            default -> counters(0, 1);
+        });
+    }
+
+    @Override
+    public boolean exists(ResourceAddress address) {
+        return false;
+    }
+
+    @Override
+    public GraphWriter fork() {
+        return new DryRunWriter(this);
+    }
+
+    @Override
+    public void close() {
+        if (capture != null) {
+            capture.close();
+        }
+    }
+
+    private SummaryCounters counters(int nodes, int relationships) {
+        return new InternalSummaryCounters(nodes, 0, relationships, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+    }
+
+    private int newVersion(Deprecation deprecation) {
+        return deprecation != null && versions.add(deprecation.ordinal()) ? 1 : 0;
+    }
+
+    private int deprecated(Deprecation deprecation) {
+        return deprecation != null ? 1 : 0;
+    }
+}
@@ -0,0 +1,49 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.neo4j.driver.Record;
+
+/**
+ * Bounded cache of element IDs of created nodes. The least recently used IDs are evicted first. The keys identify the
+ * nodes, e.g. by address and name.
+ * <p>
+ * The cache is filled by the records of the statements which create nodes (see {@link #KEY} and {@link #ID}).
+ * Since the asynchronous client passes the records from the threads of the driver, all methods are synchronized.
+ */
+class ElementIdCache {
+
+    static final String KEY = "key";
+    static final String ID = "id";
+
+    private final int size;
+    private final Map<String, String> ids;
+
+    ElementIdCache(int size) {
+        this.size = size;
+        this.ids = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > ElementIdCache.this.size;
+            }
+        };
+    }
+
+    boolean enabled() {
+        return size > 0;
+    }
+
+    synchronized String get(String key) {
+        return ids.get(key);
+    }
+
+    synchronized void put(String key, String id) {
+        ids.put(key, id);
+    }
+
+    /** Stores the element ID of a record returned by a statement. */
+    void put(Record record) {
+        put(record.get(KEY).asString(), record.get(ID).asString());
+    }
+}
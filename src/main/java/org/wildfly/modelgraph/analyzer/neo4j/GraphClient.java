@@ -1,12 +1,30 @@
 package org.wildfly.modelgraph.analyzer.neo4j;
 
+import java.util.function.Consumer;
+
 import org.neo4j.driver.summary.SummaryCounters;
 
 public interface GraphClient extends AutoCloseable {
 
-    SummaryCounters execute(Cypher cypher);
+    /**
+     * Executes the statement. Implementations may defer the execution. The counters are passed to the consumer as soon
+     * as the statement has been executed.
+     */
+    void execute(Cypher cypher, Consumer<SummaryCounters> counters);
+
+    /** Executes all deferred statements. */
+    default void flush() {
+    }
 
-    boolean exists(Cypher cypher);
+    /**
+     * Creates a client which can be used by another thread in parallel to this client. Forked clients share the
+     * connection, but execute the statements in their own session. They must be closed before this client.
+     *
+     * @throws UnsupportedOperationException if this client can't be used in parallel
+     */
+    default GraphClient fork() {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " can't be forked");
+    }
 
     @Override
     void close();
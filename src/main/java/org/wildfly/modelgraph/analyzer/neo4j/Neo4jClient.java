@@ -1,32 +1,91 @@
 package org.wildfly.modelgraph.analyzer.neo4j;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
 import org.neo4j.driver.AuthTokens;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.GraphDatabase;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
 import org.neo4j.driver.exceptions.DatabaseException;
+import org.neo4j.driver.exceptions.TransientException;
 import org.neo4j.driver.summary.SummaryCounters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wildfly.modelgraph.analyzer.HostAndPort;
 import org.wildfly.modelgraph.analyzer.Strings;
 
+/**
+ * Graph client which keeps one session open for the whole run and executes the statements in chunked transactions.
+ * A transaction is committed after {@code txSize} statements or {@code txTimeout} milliseconds, whatever comes first.
+ * <p>
+ * The chunk size adapts to the observed commit latency: If a commit takes longer than half of the timeout, the chunk
+ * size is halved. If it takes less than a tenth of the timeout, the chunk size is doubled again (up to
+ * {@code txSize}).
+ * <p>
+ * The counters are passed to the consumers when the transaction has been committed. Counters of statements in a
+ * transaction which has been rolled back are never reported. Records returned by a statement are passed to its record
+ * consumer right away.
+ * <p>
+ * If the database reports a transient error, e.g. a deadlock between clients which merge the same capability or
+ * version nodes in parallel, the transaction is rolled back and all its statements are replayed in a new
+ * transaction. The records of replayed statements are passed to the record consumers again.
+ * <p>
+ * Statements may bind nodes by {@linkplain Cypher#id(String, String) element ID}. If such a node has been created in
+ * the rolled back transaction, the replay creates it again with a new element ID. The client keeps track of the
+ * element IDs returned by the statements (see {@link ElementIdCache#KEY} and {@link ElementIdCache#ID}) and replaces
+ * the old element IDs in the replayed statements and in all statements executed afterwards, which might have been
+ * rendered before the replay.
+ */
 public class Neo4jClient implements GraphClient {
 
     private static final Logger logger = LoggerFactory.getLogger(Neo4jClient.class);
+    private static final int MAX_RETRIES = 5;
+    private static final long RETRY_DELAY = 50;
 
     private final Driver driver;
+    private final boolean ownsDriver;
+    private final int txSize;
+    private final long txTimeout;
+    private final List<Statement> statements;
+    private final Map<String, String> replaced;
+    private Session session;
+    private Transaction tx;
+    private long txStart;
+    private int chunkSize;
+
+    public Neo4jClient(HostAndPort hostAndPort, String username, String password, boolean clean, boolean append,
+            int txSize, long txTimeout) {
+        this(connect(hostAndPort, username, password), true, txSize, txTimeout);
+        setup(driver, clean, append);
+    }
+
+    Neo4jClient(Driver driver, boolean ownsDriver, int txSize, long txTimeout) {
+        this.driver = driver;
+        this.ownsDriver = ownsDriver;
+        this.txSize = Math.max(1, txSize);
+        this.txTimeout = txTimeout;
+        this.statements = new ArrayList<>();
+        this.replaced = new HashMap<>();
+        this.chunkSize = this.txSize;
+    }
 
-    public Neo4jClient(HostAndPort hostAndPort, String username, String password, boolean clean, boolean append) {
+    static Driver connect(HostAndPort hostAndPort, String username, String password) {
         var uri = "bolt://" + hostAndPort;
         var authToken = !Strings.isEmpty(username) && !Strings.isEmpty(password)
                 ? AuthTokens.basic(username, password)
                 : AuthTokens.none();
-        driver = GraphDatabase.driver(uri, authToken);
+        var driver = GraphDatabase.driver(uri, authToken);
         logger.info("Connected to Neo4j database at {}", hostAndPort);
-        setup(clean, append);
+        return driver;
     }
 
-    private void setup(boolean clean, boolean append) {
+    static void setup(Driver driver, boolean clean, boolean append) {
         if (clean) {
             try (var session = driver.session(); var tx = session.beginTransaction()) {
                 var result = tx.run("MATCH (n) DETACH DELETE(n)");
@@ -36,12 +95,12 @@ public class Neo4jClient implements GraphClient {
                         summary.counters().relationshipsDeleted());
                 tx.commit();
             }
-            failSafeDrop("DROP INDEX parameter_name IF EXISTS");
-            failSafeDrop("DROP INDEX operation_name IF EXISTS");
-            failSafeDrop("DROP INDEX capability_name IF EXISTS");
-            failSafeDrop("DROP INDEX resource_name IF EXISTS");
-            failSafeDrop("DROP CONSTRAINT unique_address IF EXISTS");
-            failSafeDrop("DROP INDEX attribute_name IF EXISTS");
+            failSafeDrop(driver, "DROP INDEX parameter_name IF EXISTS");
+            failSafeDrop(driver, "DROP INDEX operation_name IF EXISTS");
+            failSafeDrop(driver, "DROP INDEX capability_name IF EXISTS");
+            failSafeDrop(driver, "DROP INDEX resource_name IF EXISTS");
+            failSafeDrop(driver, "DROP CONSTRAINT unique_address IF EXISTS");
+            failSafeDrop(driver, "DROP INDEX attribute_name IF EXISTS");
         }
         if (!append) {
             try (var session = driver.session();
@@ -57,7 +116,7 @@ public class Neo4jClient implements GraphClient {
         }
     }
 
-    private void failSafeDrop(String statement) {
+    private static void failSafeDrop(Driver driver, String statement) {
         try (var session = driver.session();
              var tx = session.beginTransaction()) {
             tx.run(statement);
@@ -67,33 +126,204 @@ public class Neo4jClient implements GraphClient {
         }
     }
 
-    public SummaryCounters execute(Cypher cypher) {
-        try (var session = driver.session();
-             var tx = session.beginTransaction()) {
-
-            logger.debug("Execute {} using {}", cypher.statement(), cypher.parameters());
-            var result = tx.run(cypher.statement(), cypher.parameters());
-            tx.commit();
-            var counters = result.consume().counters();
-            logger.debug("{} node and {} relations created", counters.nodesCreated(), counters.relationshipsCreated());
-            return counters;
+    public void execute(Cypher cypher, Consumer<SummaryCounters> counters) {
+        var statement = new Statement(cypher, counters);
+        statements.add(statement);
+        // the statement might have been rendered before a replay
+        cypher.rebind(replaced);
+        try {
+            run(statement);
+        } catch (TransientException e) {
+            replay(e);
+        } catch (RuntimeException e) {
+            rollback();
+            throw e;
+        }
+        if (statements.size() >= chunkSize
+                || (System.nanoTime() - txStart) / 1_000_000 >= txTimeout) {
+            commit();
         }
     }
 
-    public boolean exists(Cypher cypher) {
-        cypher.append(" RETURN count(r) AS node_count");
-        try (var session = driver.session()) {
-            long count = session.executeRead(tx -> {
-                var result = tx.run(cypher.statement(), cypher.parameters());
-                return result.single().get("node_count").asLong();
+    private void run(Statement statement) {
+        var cypher = statement.cypher;
+        logger.debug("Execute {} using {}", cypher.statement(), cypher.parameters());
+        var result = transaction().run(cypher.statement(), cypher.parameters());
+        if (cypher.records() != null) {
+            result.forEachRemaining(record -> {
+                created(statement, record);
+                cypher.records().accept(record);
             });
-            return count > 0;
         }
+        statement.summary = result.consume().counters();
+        logger.debug("{} node and {} relations created", statement.summary.nodesCreated(),
+                statement.summary.relationshipsCreated());
+    }
+
+    @Override
+    public GraphClient fork() {
+        return new Neo4jClient(driver, false, txSize, txTimeout);
+    }
+
+    @Override
+    public void flush() {
+        commit();
     }
 
     @Override
     public void close() {
         logger.debug("Closing connection to Neo4j database");
-        driver.close();
+        try {
+            commit();
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+            if (ownsDriver) {
+                driver.close();
+            }
+        }
+    }
+
+    // ------------------------------------------------------ transactions
+
+    private Transaction transaction() {
+        if (session == null) {
+            session = driver.session();
+        }
+        if (tx == null) {
+            tx = session.beginTransaction();
+            txStart = System.nanoTime();
+        }
+        return tx;
+    }
+
+    private void commit() {
+        if (tx != null) {
+            var start = System.nanoTime();
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    tx.commit();
+                    closeTransaction();
+                    break;
+                } catch (TransientException e) {
+                    closeTransaction();
+                    if (attempt > MAX_RETRIES) {
+                        statements.clear();
+                        throw e;
+                    }
+                    replay(e);
+                } catch (RuntimeException e) {
+                    closeTransaction();
+                    statements.clear();
+                    throw e;
+                }
+            }
+            var latency = (System.nanoTime() - start) / 1_000_000;
+            adjustChunkSize(latency);
+            logger.debug("Committed {} statements in {} ms. Next chunk size: {}", statements.size(), latency,
+                    chunkSize);
+
+            statements.forEach(statement -> statement.counters.accept(statement.summary));
+            statements.clear();
+        }
+    }
+
+    /**
+     * Rolls back the current transaction and executes all statements of the transaction again in a new
+     * transaction.
+     */
+    private void replay(TransientException cause) {
+        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
+            abortTransaction();
+            logger.debug("Retry {} statements after transient error ({} of {}): {}", statements.size(), attempt,
+                    MAX_RETRIES, cause.getMessage());
+            try {
+                Thread.sleep(RETRY_DELAY << (attempt - 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            try {
+                for (var statement : statements) {
+                    statement.cypher.rebind(replaced);
+                    run(statement);
+                }
+                return;
+            } catch (TransientException e) {
+                cause = e;
+            } catch (RuntimeException e) {
+                rollback();
+                throw e;
+            }
+        }
+        rollback();
+        throw cause;
+    }
+
+    /**
+     * Remembers the element ID of a node created by a statement. If the statement has been replayed, the old element
+     * ID is mapped to the new one.
+     */
+    private void created(Statement statement, Record record) {
+        if (record.containsKey(ElementIdCache.KEY) && record.containsKey(ElementIdCache.ID)) {
+            if (statement.created == null) {
+                statement.created = new HashMap<>();
+            }
+            var id = record.get(ElementIdCache.ID).asString();
+            var previous = statement.created.put(record.get(ElementIdCache.KEY).asString(), id);
+            if (previous != null && !previous.equals(id)) {
+                replaced.put(previous, id);
+            }
+        }
+    }
+
+    private void rollback() {
+        try {
+            abortTransaction();
+        } finally {
+            statements.clear();
+        }
+    }
+
+    private void abortTransaction() {
+        if (tx != null) {
+            try {
+                if (tx.isOpen()) {
+                    tx.rollback();
+                }
+            } finally {
+                closeTransaction();
+            }
+        }
+    }
+
+    private void closeTransaction() {
+        if (tx != null) {
+            tx.close();
+            tx = null;
+        }
+    }
+
+    private void adjustChunkSize(long latency) {
+        if (latency > txTimeout / 2) {
+            chunkSize = Math.max(1, chunkSize / 2);
+        } else if (latency < txTimeout / 10) {
+            chunkSize = Math.min(txSize, chunkSize * 2);
+        }
+    }
+
+    /** A statement of the current transaction. */
+    private static class Statement {
+
+        final Cypher cypher;
+        final Consumer<SummaryCounters> counters;
+        SummaryCounters summary;
+        Map<String, String> created;
+
+        Statement(Cypher cypher, Consumer<SummaryCounters> counters) {
+            this.cypher = cypher;
+            this.counters = counters;
+        }
     }
 }
@@ -0,0 +1,191 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * Pre-rendered statements used by {@link CypherWriter}. There's a small, fixed set of statements per kind, so Neo4j
+ * can reuse the query plans. Optional properties are passed as one map using {@code SET n += $props}.
+ * <p>
+ * Statements which depend on the nesting of attributes and parameters are rendered once per depth. The names of the
+ * parent attributes / parameters are passed as list {@code $path}.
+ * <p>
+ * Statements which create nodes come in two variants: with and without a deprecation.
+ */
+final class Templates {
+
+    /** A statement which creates a node. */
+    record NodeTemplate(String plain, String deprecated) {
+
+        String get(boolean deprecation) {
+            return deprecation ? deprecated : plain;
+        }
+    }
+
+    /** Statements rendered on demand for each depth. */
+    static final class DepthTemplates<T> {
+
+        private final IntFunction<T> render;
+        private final Map<Integer, T> templates;
+
+        DepthTemplates(IntFunction<T> render) {
+            this.render = render;
+            this.templates = new ConcurrentHashMap<>();
+        }
+
+        T get(int depth) {
+            return templates.computeIfAbsent(depth, render::apply);
+        }
+    }
+
+    // ------------------------------------------------------ match clauses
+
+    static final String RESOURCE_BY_ADDRESS = "MATCH (r:Resource {address: $address})";
+    private static final String OPERATION_BY_ADDRESS = RESOURCE_BY_ADDRESS
+            + "-[:PROVIDES]->(o:Operation {name: $operation})";
+
+    // ------------------------------------------------------ statements
+
+    final NodeTemplate resource;
+    final String childOfByAddress;
+    final String childOfById;
+    final String capabilityByAddress;
+    final String capabilityById;
+
+    final NodeTemplate attributeByAddress;
+    final NodeTemplate attributeByResourceId;
+    final NodeTemplate nestedAttributeByParentId;
+    final DepthTemplates<NodeTemplate> nestedAttributeByPath;
+    final String attributeCapabilityById;
+    final DepthTemplates<String> attributeCapabilityByPath;
+    final String sensitiveById;
+    final DepthTemplates<String> sensitiveByPath;
+    final String alternativeById;
+    final String requiresById;
+    final DepthTemplates<String> attributeAlternativeByPath;
+    final DepthTemplates<String> attributeRequiresByPath;
+
+    final NodeTemplate operationByAddress;
+    final NodeTemplate operationByResourceId;
+    final String globalOperationByAddress;
+    final String globalOperationById;
+
+    final NodeTemplate parameterByAddress;
+    final NodeTemplate parameterByOperationId;
+    final NodeTemplate nestedParameterByParentId;
+    final DepthTemplates<NodeTemplate> nestedParameterByPath;
+    final String parameterCapabilityById;
+    final DepthTemplates<String> parameterCapabilityByPath;
+    final DepthTemplates<String> parameterAlternativeByPath;
+    final DepthTemplates<String> parameterRequiresByPath;
+
+    private final boolean returnElementIds;
+
+    Templates(boolean returnElementIds) {
+        this.returnElementIds = returnElementIds;
+
+        resource = node("CREATE (r:Resource) SET r += $props", "r");
+        childOfByAddress = "MATCH (child:Resource {address: $child}), (parent:Resource {address: $parent})"
+                + " MERGE (child)-[:CHILD_OF]->(parent)";
+        childOfById = matchId("child") + " " + matchId("parent") + " MERGE (child)-[:CHILD_OF]->(parent)";
+        var capability = " MERGE (c:Capability {name: $name}) ON CREATE SET c.stability = $stability"
+                + " MERGE (r)-[:DECLARES_CAPABILITY]->(c)";
+        capabilityByAddress = RESOURCE_BY_ADDRESS + capability;
+        capabilityById = matchId("r") + capability;
+
+        // attributes
+        var attribute = " MERGE (r)-[:HAS_ATTRIBUTE]->(a:Attribute {name: $name}) SET a += $props";
+        var nestedAttribute = "-[:CONSISTS_OF]->(a:Attribute {name: $name}) SET a += $props";
+        attributeByAddress = node(RESOURCE_BY_ADDRESS + attribute, "a");
+        attributeByResourceId = node(matchId("r") + attribute, "a");
+        nestedAttributeByParentId = node(matchId("parent") + " MERGE (parent)" + nestedAttribute, "a");
+        nestedAttributeByPath = new DepthTemplates<>(depth -> node(RESOURCE_BY_ADDRESS
+                + path(depth, "Attribute", "HAS_ATTRIBUTE") + " MERGE (n" + (depth - 1) + ")" + nestedAttribute, "a"));
+        var referencesCapability = " MATCH (c:Capability {name: $capability}) MERGE (%s)-[:REFERENCES_CAPABILITY]->(c)";
+        attributeCapabilityById = matchId("a") + referencesCapability.formatted("a");
+        attributeCapabilityByPath = new DepthTemplates<>(depth -> matchAttribute(depth, "a", "$name")
+                + referencesCapability.formatted("a"));
+        var sensitive = " MERGE (a)-[:IS_SENSITIVE]->(:Constraint {name: $constraint, type: $type})";
+        sensitiveById = matchId("a") + sensitive;
+        sensitiveByPath = new DepthTemplates<>(depth -> matchAttribute(depth, "a", "$name") + sensitive);
+        alternativeById = matchId("source") + " " + matchId("target") + " MERGE (source)-[:ALTERNATIVE]-(target)";
+        requiresById = matchId("source") + " " + matchId("target") + " MERGE (source)-[:REQUIRES]->(target)";
+        attributeAlternativeByPath = new DepthTemplates<>(depth -> attributeRelation(depth)
+                + " MERGE (source)-[:ALTERNATIVE]-(target)");
+        attributeRequiresByPath = new DepthTemplates<>(depth -> attributeRelation(depth)
+                + " MERGE (source)-[:REQUIRES]->(target)");
+
+        // operations
+        var operation = " MERGE (r)-[:PROVIDES]->(o:Operation {name: $name}) SET o += $props";
+        operationByAddress = node(RESOURCE_BY_ADDRESS + operation, "o");
+        operationByResourceId = node(matchId("r") + operation, "o");
+        globalOperationByAddress = RESOURCE_BY_ADDRESS + ", (o:Operation {name: $name}) MERGE (r)-[:PROVIDES]->(o)";
+        globalOperationById = matchId("r") + " " + matchId("o") + " MERGE (r)-[:PROVIDES]->(o)";
+
+        // parameters
+        var parameter = " MERGE (o)-[:ACCEPTS]->(p:Parameter {name: $name}) SET p += $props";
+        var nestedParameter = "-[:CONSISTS_OF]->(p:Parameter {name: $name}) SET p += $props";
+        parameterByAddress = node(OPERATION_BY_ADDRESS + parameter, "p");
+        parameterByOperationId = node(matchId("o") + parameter, "p");
+        nestedParameterByParentId = node(matchId("parent") + " MERGE (parent)" + nestedParameter, "p");
+        nestedParameterByPath = new DepthTemplates<>(depth -> node(OPERATION_BY_ADDRESS
+                + path(depth, "Parameter", "ACCEPTS") + " MERGE (n" + (depth - 1) + ")" + nestedParameter, "p"));
+        parameterCapabilityById = matchId("p") + referencesCapability.formatted("p");
+        parameterCapabilityByPath = new DepthTemplates<>(depth -> matchParameter(depth, "p", "$name")
+                + referencesCapability.formatted("p"));
+        parameterAlternativeByPath = new DepthTemplates<>(depth -> parameterRelation(depth)
+                + " MERGE (source)-[:ALTERNATIVE]-(target)");
+        parameterRequiresByPath = new DepthTemplates<>(depth -> parameterRelation(depth)
+                + " MERGE (source)-[:REQUIRES]->(target)");
+    }
+
+    // ------------------------------------------------------ rendering
+
+    private NodeTemplate node(String statement, String variable) {
+        var deprecated = " MERGE (v:Version {major: $major, minor: $minor, patch: $patch, ordinal: $ordinal})"
+                + " MERGE (" + variable + ")-[:DEPRECATED_SINCE {reason: $reason}]->(v)";
+        var returnElementId = returnElementIds
+                ? " RETURN $cacheKey AS " + ElementIdCache.KEY + ", elementId(" + variable + ") AS " + ElementIdCache.ID
+                : "";
+        return new NodeTemplate(statement + returnElementId, statement + deprecated + returnElementId);
+    }
+
+    private static String matchId(String variable) {
+        return "MATCH (" + variable + ") WHERE elementId(" + variable + ") = $" + variable + "Id";
+    }
+
+    /** Renders {@code -[:relation]->(n0:type {name: $path[0]})-[:CONSISTS_OF]->(n1:type {name: $path[1]})...} */
+    private static String path(int depth, String type, String relation) {
+        var builder = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            builder.append("-[:").append(i == 0 ? relation : "CONSISTS_OF").append("]->")
+                    .append("(n").append(i).append(':').append(type).append(" {name: $path[").append(i).append("]})");
+        }
+        return builder.toString();
+    }
+
+    private static String matchAttribute(int depth, String variable, String name) {
+        return RESOURCE_BY_ADDRESS + path(depth, "Attribute", "HAS_ATTRIBUTE")
+                + (depth == 0 ? "-[:HAS_ATTRIBUTE]->" : "-[:CONSISTS_OF]->")
+                + "(" + variable + ":Attribute {name: " + name + "})";
+    }
+
+    private static String matchParameter(int depth, String variable, String name) {
+        return OPERATION_BY_ADDRESS + path(depth, "Parameter", "ACCEPTS")
+                + (depth == 0 ? "-[:ACCEPTS]->" : "-[:CONSISTS_OF]->")
+                + "(" + variable + ":Parameter {name: " + name + "})";
+    }
+
+    private static String attributeRelation(int depth) {
+        var parent = depth == 0 ? "(r)-[:HAS_ATTRIBUTE]->" : "(n" + (depth - 1) + ")-[:CONSISTS_OF]->";
+        return matchAttribute(depth, "source", "$source")
+                + " MATCH " + parent + "(target:Attribute {name: $target})";
+    }
+
+    private static String parameterRelation(int depth) {
+        var parent = depth == 0 ? "(o)-[:ACCEPTS]->" : "(n" + (depth - 1) + ")-[:CONSISTS_OF]->";
+        return matchParameter(depth, "source", "$source")
+                + " MATCH " + parent + "(target:Parameter {name: $target})";
+    }
+}
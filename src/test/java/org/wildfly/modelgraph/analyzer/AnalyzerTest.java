@@ -0,0 +1,212 @@
+package org.wildfly.modelgraph.analyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.wildfly.modelgraph.analyzer.dmr.Identity;
+import org.wildfly.modelgraph.analyzer.dmr.ManagementModel;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.OperationNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ProvidesGlobalOperation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ResourceNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalyzerTest {
+
+    @Test
+    void parallel() {
+        var records = new ConcurrentLinkedQueue<GraphRecord>();
+        var analyzer = new Analyzer(new TreeModel(), new RecordingWriter(records), 4);
+        analyzer.start("/", false);
+
+        // 1 root, 3 subsystems with 2 children each
+        assertEquals(10, records.stream().filter(record -> record instanceof ResourceNode).count());
+        // resources and the identity
+        assertEquals(11, analyzer.stats().resources.sum());
+        // global operations are created once and linked otherwise
+        assertEquals(1, records.stream().filter(record -> record instanceof OperationNode).count());
+        assertEquals(9, records.stream().filter(record -> record instanceof ProvidesGlobalOperation).count());
+    }
+
+    @Test
+    void parallelSubtree() {
+        var records = new ConcurrentLinkedQueue<GraphRecord>();
+        var lost = new ConcurrentLinkedQueue<GraphRecord>();
+        // both children are written before any of them is committed
+        var barrier = new CyclicBarrier(2);
+        var analyzer = new Analyzer(new TreeModel(2), new TransactionalWriter(records, lost, barrier), 4);
+        analyzer.start("/subsystem=a", false);
+
+        // x=1 and x=2 are analyzed in parallel: one creates the global operation, the other links it
+        assertEquals(3, records.stream().filter(record -> record instanceof ResourceNode).count());
+        assertEquals(1, records.stream().filter(record -> record instanceof OperationNode).count());
+        assertEquals(1, records.stream().filter(record -> record instanceof ProvidesGlobalOperation).count());
+        assertTrue(lost.isEmpty());
+    }
+
+    @Test
+    void pipeline() {
+        var records = new ConcurrentLinkedQueue<GraphRecord>();
+        var analyzer = new Analyzer(new TreeModel(), new RecordingWriter(records), 1, 2);
+        analyzer.start("/", false);
+
+        var resources = records.stream()
+                .filter(record -> record instanceof ResourceNode)
+                .map(record -> ((ResourceNode) record).address().toString())
+                .toList();
+        // same order as the sequential traversal
+        assertEquals(List.of("/", "/subsystem=a", "/subsystem=a/x=1", "/subsystem=a/x=2", "/subsystem=b",
+                "/subsystem=b/x=1", "/subsystem=b/x=2", "/subsystem=c", "/subsystem=c/x=1", "/subsystem=c/x=2"),
+                resources);
+        assertEquals(11, analyzer.stats().resources.sum());
+        assertEquals(1, records.stream().filter(record -> record instanceof OperationNode).count());
+    }
+
+    /**
+     * Model with subsystems a, b, c and two children x=1, x=2 per subsystem. Resources with at least
+     * {@code operationsFrom} segments provide the global operation {@code read-resource}.
+     */
+    private static class TreeModel implements ManagementModel {
+
+        private final int operationsFrom;
+
+        TreeModel() {
+            this(0);
+        }
+
+        TreeModel(int operationsFrom) {
+            this.operationsFrom = operationsFrom;
+        }
+
+        @Override
+        public Identity identity() {
+            return Identity.wildFly(Version.parse("1.0.0"), Version.parse("1.0.0"));
+        }
+
+        @Override
+        public List<String> children(ResourceAddress address) {
+            return switch (address.size()) {
+                case 0 -> List.of("subsystem=a", "subsystem=b", "subsystem=c");
+                case 1 -> List.of("x=1", "x=2");
+                default -> List.of();
+            };
+        }
+
+        @Override
+        public ModelNode resourceDescription(ResourceAddress address) {
+            var description = new ModelNode();
+            description.get("description").set("Resource " + address);
+            if (address.size() >= operationsFrom) {
+                description.get("operations").get("read-resource").get("description").set("Read the resource");
+            }
+            return description;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private record RecordingWriter(Queue<GraphRecord> records) implements GraphWriter {
+
+        @Override
+        public void write(GraphRecord record, Consumer<SummaryCounters> counters) {
+            records.add(record);
+            counters.accept(new InternalSummaryCounters(1, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0));
+        }
+
+        @Override
+        public boolean exists(ResourceAddress address) {
+            return false;
+        }
+
+        @Override
+        public GraphWriter fork() {
+            return this;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Writer whose forks only publish their records when they are flushed. Links to global operations which haven't
+     * been published yet are lost, like a {@code MATCH} against an uncommitted node in another transaction. Forks
+     * which have written resources at the second level wait for each other before they publish their records.
+     */
+    private static class TransactionalWriter implements GraphWriter {
+
+        private final Queue<GraphRecord> records;
+        private final Queue<GraphRecord> lost;
+        private final CyclicBarrier barrier;
+        private final List<GraphRecord> pending;
+
+        TransactionalWriter(Queue<GraphRecord> records, Queue<GraphRecord> lost, CyclicBarrier barrier) {
+            this.records = records;
+            this.lost = lost;
+            this.barrier = barrier;
+            this.pending = new ArrayList<>();
+        }
+
+        @Override
+        public void write(GraphRecord record, Consumer<SummaryCounters> counters) {
+            if (record instanceof ProvidesGlobalOperation link && !visible(link.name())) {
+                lost.add(record);
+            } else {
+                pending.add(record);
+            }
+            counters.accept(new InternalSummaryCounters(1, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0));
+        }
+
+        private boolean visible(String operation) {
+            return Stream.concat(records.stream(), pending.stream())
+                    .anyMatch(record -> record instanceof OperationNode node && node.name().equals(operation));
+        }
+
+        @Override
+        public boolean exists(ResourceAddress address) {
+            return false;
+        }
+
+        @Override
+        public GraphWriter fork() {
+            return new TransactionalWriter(records, lost, barrier);
+        }
+
+        @Override
+        public void flush() {
+            if (pending.stream().anyMatch(record -> record instanceof ResourceNode resource
+                    && resource.address().size() == 2)) {
+                try {
+                    barrier.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            records.addAll(pending);
+            pending.clear();
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+}
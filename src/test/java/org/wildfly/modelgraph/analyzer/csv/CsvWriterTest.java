@@ -0,0 +1,118 @@
+package org.wildfly.modelgraph.analyzer.csv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ChildOf;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.DeclaresCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Relation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.attribute;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.resource;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.value;
+
+class CsvWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resources() throws IOException {
+        var root = ResourceAddress.of("/");
+        var subsystem = ResourceAddress.of("/subsystem=foo");
+        try (var writer = new CsvWriter(directory)) {
+            writer.write(resource(root), counters -> {
+                assertEquals(1, counters.nodesCreated());
+                assertEquals(0, counters.relationshipsCreated());
+            });
+            writer.write(resource(subsystem, "Say \"foo\"",
+                    new Deprecation("reason", 1, 2, 3)), counters -> {
+                // resource and version
+                assertEquals(2, counters.nodesCreated());
+                assertEquals(1, counters.relationshipsCreated());
+            });
+            writer.write(new ChildOf(subsystem, root), counters -> assertEquals(1, counters.relationshipsCreated()));
+            assertTrue(writer.exists(subsystem));
+            assertFalse(writer.exists(ResourceAddress.of("/subsystem=bar")));
+        }
+
+        assertEquals(List.of(":ID,name,address,singleton:boolean,description,stability,child-descriptions"),
+                Files.readAllLines(directory.resolve("Resource-header.csv")));
+        assertEquals(List.of("0,\"/\",\"/\",false,,,",
+                        "1,\"subsystem=foo\",\"/subsystem=foo\",true,\"Say \"\"foo\"\"\",,"),
+                Files.readAllLines(directory.resolve("Resource.csv")));
+        assertEquals(List.of("2,1,2,3," + new Deprecation("", 1, 2, 3).ordinal()),
+                Files.readAllLines(directory.resolve("Version.csv")));
+        assertEquals(List.of("1,2,DEPRECATED_SINCE,\"reason\"", "1,0,CHILD_OF,"),
+                Files.readAllLines(directory.resolve("relationships.csv")));
+    }
+
+    @Test
+    void capabilities() throws IOException {
+        var foo = ResourceAddress.of("/subsystem=foo");
+        var bar = ResourceAddress.of("/subsystem=bar");
+        try (var writer = new CsvWriter(directory)) {
+            writer.write(resource(foo), counters -> {});
+            writer.write(resource(bar), counters -> {});
+            writer.write(new DeclaresCapability(foo, "org.wildfly.foo", null), counters -> {
+                assertEquals(1, counters.nodesCreated());
+                assertEquals(1, counters.relationshipsCreated());
+            });
+            writer.write(new DeclaresCapability(bar, "org.wildfly.foo", null), counters -> {
+                assertEquals(0, counters.nodesCreated());
+                assertEquals(1, counters.relationshipsCreated());
+            });
+        }
+
+        assertEquals(List.of("2,\"org.wildfly.foo\","), Files.readAllLines(directory.resolve("Capability.csv")));
+        assertEquals(List.of("0,2,DECLARES_CAPABILITY,", "1,2,DECLARES_CAPABILITY,"),
+                Files.readAllLines(directory.resolve("relationships.csv")));
+    }
+
+    @Test
+    void attributes() throws IOException {
+        var address = ResourceAddress.of("/subsystem=foo");
+        try (var writer = new CsvWriter(directory)) {
+            writer.write(resource(address), counters -> {});
+            writer.write(attribute(address, List.of(), "a", value(List.of("x", "y"), 42L, null), null), counters -> {});
+            writer.write(attribute(address, List.of(), "b"), counters -> {});
+            writer.write(attribute(address, List.of("b"), "c"), counters -> {});
+            writer.write(new AttributeRelation(address, List.of(), "a", "b", Relation.ALTERNATIVE),
+                    counters -> assertEquals(1, counters.relationshipsCreated()));
+            writer.write(new AttributeRelation(address, List.of(), "b", "a", Relation.ALTERNATIVE),
+                    counters -> assertEquals(0, counters.relationshipsCreated()));
+            writer.write(new AttributeRelation(address, List.of(), "a", "unknown", Relation.REQUIRES),
+                    counters -> assertEquals(0, counters.relationshipsCreated()));
+        }
+
+        var attributes = Files.readAllLines(directory.resolve("Attribute.csv"));
+        assertEquals(3, attributes.size());
+        assertTrue(attributes.getFirst().startsWith("1,\"a\",\"x\u001fy\",,42,"));
+        assertEquals(List.of("0,1,HAS_ATTRIBUTE,", "0,2,HAS_ATTRIBUTE,", "2,3,CONSISTS_OF,", "1,2,ALTERNATIVE,"),
+                Files.readAllLines(directory.resolve("relationships.csv")));
+    }
+
+    @Test
+    void arrayDelimiter() {
+        var address = ResourceAddress.of("/subsystem=foo");
+        try (var writer = new CsvWriter(directory)) {
+            writer.write(resource(address), counters -> {});
+            writer.write(attribute(address, List.of(), "a", value(List.of("x;y", "z,"), null, null), null),
+                    counters -> {});
+            assertThrows(RuntimeException.class, () -> writer.write(attribute(address, List.of(), "b",
+                    value(List.of("x\u001fy"), null, null), null), counters -> {}));
+            assertTrue(writer.importCommand().contains(" --array-delimiter=U+001F "));
+        }
+    }
+}
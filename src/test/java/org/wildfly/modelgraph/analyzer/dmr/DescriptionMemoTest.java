@@ -0,0 +1,119 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DescriptionMemoTest {
+
+    @Test
+    void typePath() {
+        assertNull(DescriptionMemo.typePath(ResourceAddress.of("/")));
+        assertNull(DescriptionMemo.typePath(ResourceAddress.of("/deployment=foo.war")));
+        assertEquals("/subsystem=undertow/server=default",
+                DescriptionMemo.typePath(ResourceAddress.of("/subsystem=undertow/server=default")));
+        assertEquals("/deployment=*/subsystem=undertow/servlet=*",
+                DescriptionMemo.typePath(ResourceAddress.of("/deployment=foo.war/subsystem=undertow/servlet=*")));
+        assertEquals("/deployment=*/subdeployment=*/subsystem=undertow/servlet=*",
+                DescriptionMemo.typePath(ResourceAddress.of(
+                        "/deployment=foo.ear/subdeployment=bar.war/subsystem=undertow/servlet=*")));
+    }
+
+    @Test
+    void typePathInDomain() {
+        assertEquals("/profile=*/subsystem=ee",
+                DescriptionMemo.typePath(ResourceAddress.of("/profile=full/subsystem=ee")));
+        assertEquals("/host=*/server=*/subsystem=ee",
+                DescriptionMemo.typePath(ResourceAddress.of("/host=primary/server=server-one/subsystem=ee")));
+        assertEquals("/host=*/server=*/deployment=*/subsystem=ee",
+                DescriptionMemo.typePath(ResourceAddress.of(
+                        "/host=primary/server=server-one/deployment=foo.war/subsystem=ee")));
+    }
+
+    @Test
+    void verified() {
+        var memo = new DescriptionMemo();
+        var a1 = ResourceAddress.of("/deployment=a.war/subsystem=undertow");
+        var a2 = ResourceAddress.of("/deployment=b.war/subsystem=undertow");
+        var a3 = ResourceAddress.of("/deployment=c.war/subsystem=undertow");
+
+        memo.put(a1, description("Undertow"));
+        assertNull(memo.get(a2));
+        memo.put(a2, description("Undertow"));
+
+        var memoized = memo.get(a3);
+        assertEquals(description("Undertow"), memoized);
+        assertNotSame(memoized, memo.get(a3));
+        assertEquals(2, memo.hits());
+    }
+
+    @Test
+    void varying() {
+        var memo = new DescriptionMemo();
+        var a1 = ResourceAddress.of("/profile=full/subsystem=ee");
+        var a2 = ResourceAddress.of("/profile=ha/subsystem=ee");
+        var a3 = ResourceAddress.of("/profile=default/subsystem=ee");
+
+        memo.put(a1, description("EE"));
+        memo.put(a2, description("Jakarta EE"));
+        memo.put(a3, description("EE"));
+        assertNull(memo.get(a3));
+        assertEquals(0, memo.hits());
+    }
+
+    @Test
+    void varyingAfterVerified() {
+        var memo = new DescriptionMemo();
+        memo.put(ResourceAddress.of("/profile=full/subsystem=ee"), description("EE"));
+        memo.put(ResourceAddress.of("/profile=ha/subsystem=ee"), description("EE"));
+        assertEquals(description("EE"), memo.get(ResourceAddress.of("/profile=default/subsystem=ee")));
+
+        memo.put(ResourceAddress.of("/profile=load-balancer/subsystem=ee"), description("Jakarta EE"));
+        memo.put(ResourceAddress.of("/profile=full-ha/subsystem=ee"), description("EE"));
+        assertNull(memo.get(ResourceAddress.of("/profile=default/subsystem=ee")));
+    }
+
+    @Test
+    void sampled() {
+        var memo = new DescriptionMemo();
+        memo.put(ResourceAddress.of("/deployment=a.war/subsystem=ee"), description("EE"));
+        memo.put(ResourceAddress.of("/deployment=b.war/subsystem=ee"), description("EE"));
+        for (int i = 1; i < DescriptionMemo.SAMPLE; i++) {
+            assertEquals(description("EE"), memo.get(ResourceAddress.of("/deployment=c" + i + ".war/subsystem=ee")));
+        }
+
+        // the sampled resource is read again and differs
+        var sampled = ResourceAddress.of("/deployment=d.war/subsystem=ee");
+        assertNull(memo.get(sampled));
+        memo.put(sampled, description("Jakarta EE"));
+        assertNull(memo.get(ResourceAddress.of("/deployment=e.war/subsystem=ee")));
+        assertEquals(DescriptionMemo.SAMPLE - 1, memo.hits());
+    }
+
+    @Test
+    void profilesAndDeployments() {
+        var memo = new DescriptionMemo();
+        memo.put(ResourceAddress.of("/profile=full/subsystem=ee"), description("EE"));
+        memo.put(ResourceAddress.of("/host=primary/server=one/deployment=a.war/subsystem=ee"), description("EE"));
+        assertNull(memo.get(ResourceAddress.of("/host=primary/server=one/deployment=b.war/subsystem=ee")));
+        assertNull(memo.get(ResourceAddress.of("/profile=ha/subsystem=ee")));
+    }
+
+    @Test
+    void rootAndNested() {
+        var memo = new DescriptionMemo();
+        memo.put(ResourceAddress.of("/subsystem=undertow"), description("Undertow"));
+        memo.put(ResourceAddress.of("/deployment=a.war/subsystem=undertow"), description("Undertow"));
+        assertNull(memo.get(ResourceAddress.of("/deployment=b.war/subsystem=undertow")));
+    }
+
+    private ModelNode description(String description) {
+        var node = new ModelNode();
+        node.get("description").set(description);
+        node.get("attributes").setEmptyObject();
+        return node;
+    }
+}
@@ -0,0 +1,203 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.dmr.ModelNode;
+
+import static org.wildfly.modelgraph.analyzer.dmr.JsonModelReader.read;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ADDRESS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.COMPOSITE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.FAILED;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MODEL_DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.OP;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.OUTCOME;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_CHILDREN_TYPES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.READ_RESOURCE_DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RECURSIVE;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RECURSIVE_DEPTH;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RESULT;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.STEPS;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.SUCCESS;
+
+/**
+ * Fake WildFly instance which serves the grpc model or another model like a server does: Single resource descriptions only include
+ * the descriptions of the child types, recursive reads include the resources up to the recursive depth, and composite
+ * operations return the responses of their steps. Tracks the operations which are pending at the same time.
+ */
+class FakeServer {
+
+    private static final String METADATA = "/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/metadata.json";
+    private static final String MODEL = "/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/management-api.json";
+
+    /** A recursive read-resource-description. */
+    record RecursiveRead(String address, int depth) {
+    }
+
+    final JsonModel model;
+    final AtomicInteger pending;
+    final AtomicInteger maxPending;
+    final Set<Integer> usedClients;
+    final List<RecursiveRead> recursiveReads;
+    /** Delay of each operation in milliseconds. */
+    volatile long delay;
+    /**
+     * Returns the failure description of a recursive read of an address with a depth, {@code ""} to fail the operation
+     * with an {@link IOException} or {@code null} to execute it.
+     */
+    volatile BiFunction<String, Integer, String> recursiveFailure;
+    private final ModelNode recursive;
+
+    FakeServer() {
+        this(read(MODEL));
+    }
+
+    /** Serves the model, which has the shape of {@code management-api.json}. */
+    FakeServer(String model) {
+        this.model = new JsonModel(read(METADATA), model);
+        this.recursive = ModelNode.fromJSONString(model);
+        this.pending = new AtomicInteger();
+        this.maxPending = new AtomicInteger();
+        this.usedClients = ConcurrentHashMap.newKeySet();
+        this.recursiveReads = Collections.synchronizedList(new ArrayList<>());
+        this.recursiveFailure = (address, depth) -> null;
+    }
+
+    ModelControllerClient[] clients(int connections) {
+        var clients = new ModelControllerClient[connections];
+        for (int i = 0; i < connections; i++) {
+            var client = i;
+            clients[i] = (ModelControllerClient) Proxy.newProxyInstance(FakeServer.class.getClassLoader(),
+                    new Class<?>[]{ModelControllerClient.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "execute" -> {
+                            usedClients.add(client);
+                            yield execute((ModelNode) args[0]);
+                        }
+                        case "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+        return clients;
+    }
+
+    WildFlyInstance instance(int inFlight, int connections, int bulkDepth) {
+        return new WildFlyInstance(null, clients(connections), inFlight, bulkDepth, false);
+    }
+
+    private ModelNode execute(ModelNode operation) throws IOException {
+        maxPending.accumulateAndGet(pending.incrementAndGet(), Math::max);
+        try {
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            return response(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    private ModelNode response(ModelNode operation) throws IOException {
+        var address = ResourceAddress.of("/");
+        for (var segment : operation.get(ADDRESS).asPropertyList()) {
+            address = address.add(segment.getName() + "=" + segment.getValue().asString());
+        }
+        switch (operation.get(OP).asString()) {
+            case COMPOSITE -> {
+                var result = new ModelNode();
+                var steps = operation.get(STEPS).asList();
+                for (int i = 0; i < steps.size(); i++) {
+                    result.get("step-" + (i + 1)).set(response(steps.get(i)));
+                }
+                return success(result);
+            }
+            case READ_RESOURCE_DESCRIPTION -> {
+                if (operation.get(RECURSIVE).asBoolean(false)) {
+                    var depth = operation.get(RECURSIVE_DEPTH).asInt();
+                    recursiveReads.add(new RecursiveRead(address.toString(), depth));
+                    var failure = recursiveFailure.apply(address.toString(), depth);
+                    if ("".equals(failure)) {
+                        throw new IOException("Connection closed");
+                    } else if (failure != null) {
+                        return failed(failure);
+                    }
+                    var description = lookup(recursive, address);
+                    return description.isDefined() ? success(limit(description.clone(), depth)) : notFound(address);
+                }
+                var description = model.resourceDescription(address);
+                return description.isDefined() ? success(description) : notFound(address);
+            }
+            case READ_CHILDREN_TYPES -> {
+                var result = new ModelNode();
+                result.setEmptyList();
+                model.children(address).forEach(result::add);
+                return success(result);
+            }
+            default -> {
+                return failed("Unknown operation " + operation.get(OP).asString());
+            }
+        }
+    }
+
+    private static ModelNode lookup(ModelNode recursive, ResourceAddress address) {
+        if (address.parent() == null) {
+            return recursive;
+        }
+        // only read the shared model, since the operations are executed concurrently
+        var node = lookup(recursive, address.parent());
+        for (var key : new String[]{CHILDREN, address.type(), MODEL_DESCRIPTION, address.value()}) {
+            if (!node.hasDefined(key)) {
+                return new ModelNode();
+            }
+            node = node.get(key);
+        }
+        return node;
+    }
+
+    /** Keeps the child resources up to the depth. Deeper child types only keep their description. */
+    private static ModelNode limit(ModelNode description, int depth) {
+        if (description.hasDefined(CHILDREN)) {
+            for (var childType : description.get(CHILDREN).asPropertyList()) {
+                var type = description.get(CHILDREN, childType.getName());
+                if (depth == 0) {
+                    type.remove(MODEL_DESCRIPTION);
+                } else if (type.hasDefined(MODEL_DESCRIPTION)) {
+                    for (var name : type.get(MODEL_DESCRIPTION).keys()) {
+                        limit(type.get(MODEL_DESCRIPTION, name), depth - 1);
+                    }
+                }
+            }
+        }
+        return description;
+    }
+
+    private static ModelNode success(ModelNode result) {
+        var response = new ModelNode();
+        response.get(OUTCOME).set(SUCCESS);
+        response.get(RESULT).set(result);
+        return response;
+    }
+
+    private static ModelNode failed(String failure) {
+        var response = new ModelNode();
+        response.get(OUTCOME).set(FAILED);
+        response.get(FAILURE_DESCRIPTION).set(failure);
+        return response;
+    }
+
+    private static ModelNode notFound(ResourceAddress address) {
+        return failed(String.format("WFLYCTL0216: Management resource '%s' not found", address));
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.wildfly.modelgraph.analyzer.dmr.JsonModelReader.read;
 import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ATTRIBUTES;
@@ -58,4 +59,17 @@ class GrpcJsonModelTest implements JsonModelReader {
         List<String> children = model.children(ResourceAddress.of("/subsystem=nonexistent"));
         assertTrue(children.isEmpty());
     }
+
+    @Test
+    void nested() {
+        ResourceAddress address = ResourceAddress.of("/deployment=*/subsystem=grpc");
+        assertEquals(List.of("grpc-service"), model.children(address));
+        assertTrue(model.resourceDescription(address.add("grpc-service")).hasDefined(ATTRIBUTES));
+    }
+
+    @Test
+    void resourceDescriptionOfNonExistent() {
+        ModelNode resource = model.resourceDescription(ResourceAddress.of("/subsystem=nonexistent"));
+        assertFalse(resource.isDefined());
+    }
 }
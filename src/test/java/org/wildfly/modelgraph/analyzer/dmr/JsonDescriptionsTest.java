@@ -0,0 +1,122 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.wildfly.modelgraph.analyzer.dmr.JsonModelReader.read;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MODEL_DESCRIPTION;
+
+class JsonDescriptionsTest implements JsonModelReader {
+
+    private static final String METADATA = "/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/metadata.json";
+    private static final String MODEL = "/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/management-api.json";
+
+    /** Values of all shapes found in management models. */
+    private static final String VALUES = """
+            {
+                "description": "Foo",
+                "capabilities": [{"name": "org.foo", "stability": "default"}, {"stability": "preview"}],
+                "children": {"bar": {"description": "Bar"}, "baz": {}, "qux": null},
+                "attributes": {
+                    "a": {
+                        "type": {"TYPE_MODEL_VALUE": "OBJECT"},
+                        "value-type": {"TYPE_MODEL_VALUE": "STRING"},
+                        "default": {"x": 1},
+                        "max": 2147483648,
+                        "min": "1",
+                        "nillable": "true",
+                        "allowed": [1, "b"],
+                        "expressions-allowed": false
+                    },
+                    "b": {
+                        "type": {"TYPE_MODEL_VALUE": "LIST"},
+                        "value-type": "STRING",
+                        "default": 1.5,
+                        "description": null,
+                        "deprecated": {"reason": "Use a", "since": "1.0.0"}
+                    },
+                    "c": {
+                        "type": {"TYPE_MODEL_VALUE": "OBJECT"},
+                        "value-type": {"d": {"type": {"TYPE_MODEL_VALUE": "BOOLEAN"}, "default": true}},
+                        "access-constraints": {"sensitive": {"credential": {"type": "core"}}}
+                    }
+                },
+                "operations": {
+                    "op": {
+                        "read-only": true,
+                        "reply-properties": {"type": {"TYPE_MODEL_VALUE": "LIST"}, "value-type": "INT"},
+                        "request-properties": {
+                            "p": {"type": "OBJECT", "value-type": {"q": {"default": {"EXPRESSION_VALUE": "${q}"}}}}
+                        }
+                    },
+                    "other": {"reply-properties": {"type": "STRING"}}
+                }
+            }""";
+
+    @Test
+    void values() {
+        var json = Json.createReader(new StringReader(VALUES)).readObject();
+
+        assertEquals(ResourceDescription.of(JsonNodes.resourceDescription(json)),
+                JsonDescriptions.resourceDescription(json));
+    }
+
+    @Test
+    void sameAsModelNodes() {
+        var model = new JsonModel(read(METADATA), read(MODEL));
+        var addresses = addresses(model);
+
+        assertTrue(addresses.size() > 1);
+        for (var address : addresses) {
+            assertEquals(ResourceDescription.of(model.resourceDescription(address)), model.description(address),
+                    address.toString());
+        }
+        assertNull(model.description(ResourceAddress.of("/subsystem=nonexistent")));
+    }
+
+    @Test
+    void sameForAllPaths() {
+        List<String> fixtures = new ArrayList<>();
+        fixtures.add(VALUES);
+        resources(Json.createReader(new StringReader(read(MODEL))).readObject(), fixtures);
+
+        assertTrue(fixtures.size() > 2);
+        for (var fixture : fixtures) {
+            var json = Json.createReader(new StringReader(fixture)).readObject();
+            var direct = JsonDescriptions.resourceDescription(json);
+
+            assertEquals(direct, ResourceDescription.of(JsonNodes.resourceDescription(json)), fixture);
+            assertEquals(direct, ResourceDescription.of(ModelNode.fromJSONString(fixture)), fixture);
+        }
+    }
+
+    /** Collects the resources of a recursive resource description as JSON. */
+    private static void resources(JsonObject description, List<String> resources) {
+        resources.add(description.toString());
+        var children = description.getJsonObject(CHILDREN);
+        if (children != null) {
+            for (var childType : children.values()) {
+                var modelDescription = childType.asJsonObject().getJsonObject(MODEL_DESCRIPTION);
+                if (modelDescription != null) {
+                    modelDescription.values().forEach(child -> resources(child.asJsonObject(), resources));
+                }
+            }
+        }
+    }
+
+    static List<ResourceAddress> addresses(ManagementModel model) {
+        List<ResourceAddress> addresses = new ArrayList<>();
+        model.walk(ResourceAddress.of("/"), 10, (address, parent, description) -> addresses.add(address));
+        return addresses;
+    }
+}
@@ -0,0 +1,50 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonModelScannerTest {
+
+    @Test
+    void ranges() {
+        var json = """
+                {"description": "root {with} \\"braces\\"",
+                 "children": {
+                   "subsystem": {"description": "Subsystems", "model-description": {
+                     "foo": {"attributes": {"a": [1, {"b": "}"}]}},
+                     "b\\u0061r": {}
+                   }},
+                   "deployment": {"model-description": {"*": {"description": "]"}}}
+                 },
+                 "address": null}""";
+        var bytes = json.getBytes(UTF_8);
+        var result = JsonModelScanner.scan(bytes);
+
+        assertEquals(List.of("subsystem/foo", "subsystem/bar", "deployment/*"), result.ranges().stream()
+                .map(range -> range.type() + "/" + range.name())
+                .toList());
+        var foo = result.ranges().getFirst();
+        assertEquals("{\"attributes\": {\"a\": [1, {\"b\": \"}\"}]}}",
+                new String(bytes, foo.start(), foo.end() - foo.start(), UTF_8));
+        assertEquals("""
+                {"description": "root {with} \\"braces\\"",
+                 "children": {
+                   "subsystem": {"description": "Subsystems", "model-description": {
+                     "foo": {},
+                     "b\\u0061r": {}
+                   }},
+                   "deployment": {"model-description": {"*": {}}}
+                 },
+                 "address": null}""", new String(result.skeleton(), UTF_8));
+    }
+
+    @Test
+    void malformed() {
+        assertThrows(RuntimeException.class, () -> JsonModelScanner.scan("{\"children\": {".getBytes(UTF_8)));
+    }
+}
@@ -0,0 +1,49 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.wildfly.modelgraph.analyzer.dmr.JsonModelReader.read;
+
+class JsonModelStreamTest implements JsonModelReader {
+
+    private static final String METADATA = "/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/metadata.json";
+    private static final String MODEL = "/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/management-api.json";
+
+    record Visited(String address, String parent, ResourceDescription description) {
+    }
+
+    @Test
+    void sameAsTree() {
+        var tree = walk(new JsonModel(read(METADATA), read(MODEL), false), "/");
+        var stream = walk(new JsonModel(read(METADATA), read(MODEL), true), "/");
+
+        assertTrue(tree.size() > 1);
+        assertEquals(tree.stream().map(Visited::address).toList(), stream.stream().map(Visited::address).toList());
+        assertEquals(tree.stream().map(Visited::parent).toList(), stream.stream().map(Visited::parent).toList());
+        for (int i = 0; i < tree.size(); i++) {
+            assertEquals(tree.get(i).description(), stream.get(i).description(), tree.get(i).address());
+        }
+    }
+
+    @Test
+    void subtree() {
+        var stream = walk(new JsonModel(read(METADATA), read(MODEL), true), "/deployment=*/subsystem=grpc");
+
+        assertEquals("/deployment=*/subsystem=grpc", stream.getFirst().address());
+        assertEquals(null, stream.getFirst().parent());
+        assertTrue(stream.stream().allMatch(visited -> visited.address().startsWith("/deployment=*/subsystem=grpc")));
+        assertTrue(stream.size() > 1);
+    }
+
+    private List<Visited> walk(JsonModel model, String root) {
+        List<Visited> visited = new ArrayList<>();
+        model.walk(ResourceAddress.of(root), 10, (address, parent, description) -> visited.add(
+                new Visited(address.toString(), parent != null ? parent.toString() : null, description.get())));
+        return visited;
+    }
+}
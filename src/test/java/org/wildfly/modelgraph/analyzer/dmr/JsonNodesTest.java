@@ -0,0 +1,53 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.io.StringReader;
+import jakarta.json.Json;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.wildfly.modelgraph.analyzer.dmr.JsonModelReader.read;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.ATTRIBUTES;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MODEL_DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.OPERATIONS;
+
+class JsonNodesTest implements JsonModelReader {
+
+    @Test
+    void values() {
+        var json = """
+                {"int": 1, "long": 2147483648, "big": 92233720368547758070, "decimal": 1.5, "bool": true,
+                 "null": null, "string": "x", "list": [1, "a"], "type": {"TYPE_MODEL_VALUE": "STRING"},
+                 "bytes": {"BYTES_VALUE": "AQI="}, "expression": {"EXPRESSION_VALUE": "${a}"},
+                 "object": {"a": 1, "TYPE_MODEL_VALUE": "INT"}}""";
+        var expected = ModelNode.fromJSONString(json);
+        var actual = JsonNodes.asNode(Json.createReader(new StringReader(json)).readObject());
+
+        assertEquals(expected, actual);
+        assertEquals(ModelType.TYPE, actual.get("type").getType());
+        assertEquals(ModelType.LONG, actual.get("long").getType());
+        assertEquals(ModelType.BIG_DECIMAL, actual.get("decimal").getType());
+    }
+
+    @Test
+    void resourceDescription() {
+        var model = Json.createReader(new StringReader(
+                read("/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/management-api.json"))).readObject();
+        var subsystem = model.getJsonObject(CHILDREN).getJsonObject("subsystem").getJsonObject(MODEL_DESCRIPTION)
+                .getJsonObject("grpc");
+        var expected = ModelNode.fromJSONString(subsystem.toString());
+        var actual = JsonNodes.resourceDescription(subsystem);
+
+        assertEquals(expected.get(ATTRIBUTES), actual.get(ATTRIBUTES));
+        assertEquals(expected.get(OPERATIONS), actual.get(OPERATIONS));
+        for (var child : expected.get(CHILDREN).asPropertyList()) {
+            assertEquals(child.getValue().get(DESCRIPTION), actual.get(CHILDREN).get(child.getName()).get(DESCRIPTION));
+            assertFalse(actual.get(CHILDREN).get(child.getName()).has(MODEL_DESCRIPTION));
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ResourceAddressTest {
@@ -51,4 +53,33 @@ class ResourceAddressTest {
         assertEquals(2, ResourceAddress.of("/foo=bar/baz=qux").size());
     }
 
-}
\ No newline at end of file
+    @Test
+    void interned() {
+        var a1 = ResourceAddress.of("/subsystem=datasources/data-source=*");
+        var a2 = ResourceAddress.of("/").add("subsystem=datasources").add("data-source");
+        assertSame(a1, a2);
+        assertSame(ResourceAddress.of("/subsystem=datasources"), a1.parent());
+        assertNull(ResourceAddress.of("/").parent());
+    }
+
+    @Test
+    void startsWith() {
+        var root = ResourceAddress.of("/");
+        var a1 = ResourceAddress.of("/foo=bar");
+        var a2 = a1.add("baz=qux");
+        assertTrue(a2.startsWith(root));
+        assertTrue(a2.startsWith(a1));
+        assertTrue(a2.startsWith(a2));
+        assertFalse(a1.startsWith(a2));
+        assertFalse(a2.startsWith(ResourceAddress.of("/foo=baz")));
+    }
+
+    @Test
+    void asModelNode() {
+        assertEquals("[]", ResourceAddress.of("/").asModelNode().toJSONString(true));
+        var node = ResourceAddress.of("/foo=bar/baz=*").asModelNode();
+        assertEquals(2, node.asList().size());
+        assertEquals("bar", node.get(0).get("foo").asString());
+        assertEquals("*", node.get(1).get("baz").asString());
+    }
+}
@@ -0,0 +1,101 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.wildfly.modelgraph.analyzer.dmr.JsonModelReader.read;
+
+class ResourceDescriptionTest implements JsonModelReader {
+
+    @Test
+    void undefined() {
+        assertNull(ResourceDescription.of(new ModelNode()));
+    }
+
+    @Test
+    void attributes() {
+        var description = ResourceDescription.of(ModelNode.fromJSONString("""
+                {
+                    "description": "Foo",
+                    "attributes": {
+                        "bar": {
+                            "type": {"TYPE_MODEL_VALUE": "OBJECT"},
+                            "nillable": true,
+                            "max": 42,
+                            "alternatives": ["baz"],
+                            "access-constraints": {"sensitive": {"credential": {"type": "core"}}},
+                            "value-type": {
+                                "qux": {"type": {"TYPE_MODEL_VALUE": "STRING"}, "allowed": ["a", "b"]}
+                            }
+                        },
+                        "baz": {"deprecated": {"reason": "Use bar", "since": "1.2.3"}}
+                    }
+                }"""));
+
+        assertEquals("Foo", description.description());
+        assertNull(description.children());
+        assertEquals(2, description.attributes().size());
+
+        var bar = description.attributes().getFirst();
+        assertEquals("bar", bar.name());
+        assertEquals("OBJECT", bar.value().type());
+        assertEquals("OBJECT", bar.value().valueType());
+        assertEquals(true, bar.value().nillable());
+        assertEquals(42L, bar.value().max());
+        assertNull(bar.value().min());
+        assertNull(bar.value().allowed());
+        assertEquals(List.of("baz"), bar.value().alternatives());
+        assertEquals(new ResourceDescription.Sensitive("credential", "core"), bar.sensitive().getFirst());
+        assertEquals(List.of("a", "b"), bar.attributes().getFirst().value().allowed());
+
+        var baz = description.attributes().get(1);
+        assertTrue(baz.attributes().isEmpty());
+        assertEquals(new ResourceDescription.DeprecationInfo("Use bar", "1.2.3"), baz.value().deprecated());
+    }
+
+    @Test
+    void operations() {
+        var description = ResourceDescription.of(ModelNode.fromJSONString("""
+                [{"outcome": "success", "result": {
+                    "children": {"foo": {"description": "Foos"}, "bar": {}},
+                    "operations": {
+                        "reload": {
+                            "read-only": false,
+                            "request-properties": {"mode": {"type": {"TYPE_MODEL_VALUE": "STRING"}}},
+                            "reply-properties": {"type": {"TYPE_MODEL_VALUE": "LIST"}, "value-type": "STRING"}
+                        }
+                    }
+                }}]"""));
+
+        assertEquals("Foos", description.children().get("foo"));
+        assertTrue(description.children().containsKey("bar"));
+        assertNull(description.children().get("bar"));
+
+        var reload = description.operations().getFirst();
+        assertEquals("reload", reload.name());
+        assertEquals(false, reload.readOnly());
+        assertNull(reload.runtimeOnly());
+        assertEquals("LIST", reload.returnValue());
+        assertEquals("STRING", reload.replyValueType());
+        assertEquals("mode", reload.parameters().getFirst().name());
+        assertEquals("STRING", reload.parameters().getFirst().value().type());
+    }
+
+    @Test
+    void grpc() {
+        var model = new JsonModel(
+                read("/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/metadata.json"),
+                read("/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/management-api.json"));
+        var description = model.description(ResourceAddress.of("/subsystem=grpc"));
+        var attribute = description.attributes().stream()
+                .filter(a -> a.name().equals("max-connection-idle"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("SECONDS", attribute.value().unit());
+    }
+}
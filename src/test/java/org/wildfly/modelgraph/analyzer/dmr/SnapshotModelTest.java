@@ -0,0 +1,67 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.wildfly.modelgraph.analyzer.dmr.JsonModelReader.read;
+
+class SnapshotModelTest implements JsonModelReader {
+
+    private static final String METADATA = "/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/metadata.json";
+    private static final String MODEL = "/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/management-api.json";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTrip() {
+        var file = directory.resolve("grpc.snapshot");
+        var json = new JsonModel(read(METADATA), read(MODEL));
+        var resources = SnapshotModel.record(json, ResourceAddress.of("/"), 10, file);
+        assertTrue(resources > 1);
+
+        try (var snapshot = new SnapshotModel(file)) {
+            assertEquals(json.identity().identifier(), snapshot.identity().identifier());
+            assertEquals(json.identity().name(), snapshot.identity().name());
+            for (var address : new String[]{"/", "/subsystem=grpc"}) {
+                var resourceAddress = ResourceAddress.of(address);
+                assertEquals(json.children(resourceAddress), snapshot.children(resourceAddress));
+                assertEquals(json.resourceDescription(resourceAddress), snapshot.resourceDescription(resourceAddress));
+            }
+
+            var unknown = ResourceAddress.of("/subsystem=unknown");
+            assertTrue(snapshot.children(unknown).isEmpty());
+            assertFalse(snapshot.resourceDescription(unknown).isDefined());
+            assertNull(snapshot.description(unknown));
+        }
+    }
+
+    @Test
+    void typedDescriptions() {
+        var file = directory.resolve("grpc.snapshot");
+        var json = new JsonModel(read(METADATA), read(MODEL));
+        SnapshotModel.record(json, ResourceAddress.of("/"), 10, file);
+
+        try (var snapshot = new SnapshotModel(file)) {
+            var addresses = JsonDescriptionsTest.addresses(json);
+            for (var address : addresses) {
+                assertEquals(json.description(address), snapshot.description(address), address.toString());
+            }
+        }
+    }
+
+    @Test
+    void noSnapshot() throws IOException {
+        var file = Files.writeString(directory.resolve("empty.snapshot"), "no snapshot at all");
+        assertThrows(RuntimeException.class, () -> new SnapshotModel(file));
+    }
+}
@@ -0,0 +1,377 @@
+package org.wildfly.modelgraph.analyzer.dmr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.jupiter.api.Test;
+import org.wildfly.modelgraph.analyzer.dmr.FakeServer.RecursiveRead;
+
+import static java.util.stream.Collectors.joining;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.wildfly.modelgraph.analyzer.dmr.JsonModelReader.read;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.CHILDREN;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.MODEL_DESCRIPTION;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.OUTCOME;
+import static org.wildfly.modelgraph.analyzer.dmr.ModelDescriptionConstants.RESULT;
+
+class WildFlyInstanceTest implements JsonModelReader {
+
+    private static final String METADATA = "/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/metadata.json";
+    private static final String MODEL = "/wildfly-grpc-preview-feature-pack-0.1.16.Final-doc/META-INF/management-api.json";
+
+    /** Child types with several singletons, a lone wildcard, a wildcard next to a named entry and one named entry. */
+    private static final String CHILD_TYPES = """
+            {
+                "description": "Root",
+                "children": {
+                    "subsystem": {
+                        "description": "Subsystems",
+                        "model-description": {"a": {"description": "A"}, "b": {"description": "B"}}
+                    },
+                    "deployment": {
+                        "description": "Deployments",
+                        "model-description": {
+                            "*": {
+                                "description": "Deployment",
+                                "children": {
+                                    "subsystem": {
+                                        "description": "Subsystems",
+                                        "model-description": {"c": {"description": "C"}}
+                                    }
+                                }
+                            }
+                        }
+                    },
+                    "mixed": {
+                        "description": "Mixed",
+                        "model-description": {"*": {"description": "Any"}, "named": {"description": "Named"}}
+                    },
+                    "single": {
+                        "description": "Single",
+                        "model-description": {"only": {"description": "Only"}}
+                    }
+                }
+            }""";
+
+    private static final List<String> ROOT_CHILDREN = List.of("subsystem=a", "subsystem=b", "deployment", "mixed=*",
+            "mixed=named", "single=only");
+
+    // ------------------------------------------------------ derived children
+
+    @Test
+    void derivedChildren() {
+        assertEquals(ROOT_CHILDREN, WildFlyInstance.derivedChildren(ModelNode.fromJSONString(CHILD_TYPES)));
+    }
+
+    @Test
+    void derivedChildrenOfWildcardResult() {
+        var result = new ModelNode();
+        result.add().get(RESULT).set(ModelNode.fromJSONString(CHILD_TYPES));
+
+        assertEquals(ROOT_CHILDREN, WildFlyInstance.derivedChildren(result));
+    }
+
+    @Test
+    void derivedChildrenWithoutNames() {
+        var description = ModelNode.fromJSONString(CHILD_TYPES);
+        description.get(CHILDREN, "deployment").remove(MODEL_DESCRIPTION);
+
+        assertNull(WildFlyInstance.derivedChildren(description));
+        assertNull(WildFlyInstance.derivedChildren(new ModelNode()));
+        assertEquals(List.of(), WildFlyInstance.derivedChildren(ModelNode.fromJSONString("{\"description\": \"Leaf\"}")));
+    }
+
+    @Test
+    void derivedChildrenSameAsJsonModel() {
+        var json = new JsonModel(read(METADATA), read(MODEL));
+        var recursive = ModelNode.fromJSONString(read(MODEL));
+
+        for (var address : JsonDescriptionsTest.addresses(json)) {
+            assertEquals(json.children(address), WildFlyInstance.derivedChildren(lookup(recursive, address)),
+                    address.toString());
+        }
+    }
+
+    // ------------------------------------------------------ decompose
+
+    @Test
+    void decompose() {
+        Map<ResourceAddress, ModelNode> descriptions = new HashMap<>();
+        Map<ResourceAddress, List<String>> children = new HashMap<>();
+        var resources = WildFlyInstance.decompose(ResourceAddress.of("/"), ModelNode.fromJSONString(CHILD_TYPES), 10,
+                descriptions, children);
+
+        assertEquals(8, resources);
+        assertEquals(ROOT_CHILDREN, children.get(ResourceAddress.of("/")));
+        assertEquals(List.of("subsystem=c"), children.get(ResourceAddress.of("/deployment=*")));
+        assertEquals(List.of(), children.get(ResourceAddress.of("/mixed=*")));
+        assertEquals("Named", descriptions.get(ResourceAddress.of("/mixed=named")).get(DESCRIPTION).asString());
+        assertEquals("C", descriptions.get(ResourceAddress.of("/deployment=*/subsystem=c")).get(DESCRIPTION)
+                .asString());
+
+        // child types only keep their description, like in a single read
+        var root = descriptions.get(ResourceAddress.of("/"));
+        assertEquals("Deployments", root.get(CHILDREN, "deployment", DESCRIPTION).asString());
+        assertFalse(root.get(CHILDREN, "deployment").has(MODEL_DESCRIPTION));
+    }
+
+    @Test
+    void decomposeUpToDepth() {
+        Map<ResourceAddress, ModelNode> descriptions = new HashMap<>();
+        Map<ResourceAddress, List<String>> children = new HashMap<>();
+        var resources = WildFlyInstance.decompose(ResourceAddress.of("/"), ModelNode.fromJSONString(CHILD_TYPES), 2,
+                descriptions, children);
+
+        assertEquals(7, resources);
+        assertTrue(descriptions.containsKey(ResourceAddress.of("/deployment=*")));
+        assertFalse(descriptions.containsKey(ResourceAddress.of("/deployment=*/subsystem=c")));
+        assertEquals(descriptions.keySet(), children.keySet());
+    }
+
+    @Test
+    void decomposeSameAsJsonModel() {
+        var json = new JsonModel(read(METADATA), read(MODEL));
+        var addresses = JsonDescriptionsTest.addresses(json);
+        Map<ResourceAddress, ModelNode> descriptions = new HashMap<>();
+        Map<ResourceAddress, List<String>> children = new HashMap<>();
+        var resources = WildFlyInstance.decompose(ResourceAddress.of("/"), ModelNode.fromJSONString(read(MODEL)), 10,
+                descriptions, children);
+
+        assertEquals(addresses.size(), resources);
+        assertEquals(Set.copyOf(addresses), descriptions.keySet());
+        for (var address : addresses) {
+            assertEquals(json.children(address), children.get(address), address.toString());
+            assertEquals(json.description(address), ResourceDescription.of(descriptions.get(address)),
+                    address.toString());
+        }
+    }
+
+    // ------------------------------------------------------ composite
+
+    @Test
+    void stepResponses() {
+        var response = ModelNode.fromJSONString("""
+                {
+                    "outcome": "failed",
+                    "failure-description": {
+                        "WFLYCTL0062: Composite operation failed and was rolled back. Steps that failed:": {
+                            "Operation step-2": "WFLYCTL0216: Management resource not found"
+                        }
+                    },
+                    "rolled-back": true,
+                    "result": {
+                        "step-1": {"outcome": "success", "result": {"description": "Foo"}},
+                        "step-2": {"outcome": "failed", "failure-description": "WFLYCTL0216: Management resource not found",
+                                   "rolled-back": true},
+                        "step-3": {"outcome": "cancelled"},
+                        "step-4": {"outcome": "failed", "rolled-back": true},
+                        "step-5": {"result": {"description": "Bar"}}
+                    }
+                }""");
+        var responses = WildFlyInstance.stepResponses(response, 6);
+
+        assertEquals(6, responses.size());
+        assertEquals("Foo", responses.get(0).get(RESULT, DESCRIPTION).asString());
+        assertEquals("failed", responses.get(1).get(OUTCOME).asString());
+        assertNull(responses.get(2));
+        assertNull(responses.get(3));
+        assertNull(responses.get(4));
+        assertNull(responses.get(5));
+    }
+
+    @Test
+    void stepResponsesOfRejectedComposite() {
+        var response = ModelNode.fromJSONString("""
+                {"outcome": "failed", "failure-description": "WFLYCTL0031: No operation named 'composite' exists"}""");
+
+        assertEquals(Arrays.asList(null, null), WildFlyInstance.stepResponses(response, 2));
+        assertEquals(Arrays.asList(null, null), WildFlyInstance.stepResponses(new ModelNode(), 2));
+    }
+
+    // ------------------------------------------------------ walk
+
+    @Test
+    void walkSameAsJsonModel() {
+        var server = new FakeServer();
+        try (var instance = server.instance(1, 1, 0)) {
+            var walk = walk(instance);
+
+            assertEquals(walk(server.model), walk);
+            assertEquals(1, server.maxPending.get());
+        }
+    }
+
+    @Test
+    void concurrentWalkSameAsSequential() {
+        List<Visited> sequential;
+        try (var instance = new FakeServer().instance(1, 1, 0)) {
+            sequential = walk(instance);
+        }
+        var server = new FakeServer();
+        server.delay = 20;
+        try (var instance = server.instance(4, 2, 0)) {
+            assertEquals(sequential, walk(instance));
+        }
+        assertTrue(server.maxPending.get() > 1, "Operations have not been executed concurrently");
+        assertEquals(Set.of(0, 1), server.usedClients);
+    }
+
+    @Test
+    void operationsInFlight() {
+        for (var bulkDepth : new int[]{0, 1}) {
+            var server = new FakeServer(wideModel());
+            server.delay = 10;
+            try (var instance = server.instance(2, 3, bulkDepth)) {
+                assertEquals(walk(server.model), walk(instance));
+            }
+            assertTrue(server.maxPending.get() <= 2, () -> server.maxPending.get() + " operations in flight");
+        }
+    }
+
+    @Test
+    void parentsBeforeChildren() {
+        var server = new FakeServer();
+        server.delay = 5;
+        try (var instance = server.instance(4, 2, 0)) {
+            var walk = walk(instance);
+
+            assertTrue(walk.size() > 1);
+            assertNull(walk.getFirst().parent());
+            for (int i = 1; i < walk.size(); i++) {
+                var visited = walk.get(i);
+                var address = ResourceAddress.of(visited.address());
+                assertEquals(address.parent().toString(), visited.parent(), visited.address());
+                assertTrue(walk.subList(0, i).stream().anyMatch(parent -> parent.address().equals(visited.parent())),
+                        visited.address() + " visited before its parent");
+            }
+        }
+    }
+
+    // ------------------------------------------------------ bulk
+
+    @Test
+    void splitOnTimeout() {
+        var server = new FakeServer();
+        server.recursiveFailure = (address, depth) -> depth > 1
+                ? "WFLYCTL0344: Operation timed out awaiting service container stability"
+                : null;
+        try (var instance = server.instance(1, 1, 4)) {
+            var root = ResourceAddress.of("/");
+
+            assertEquals(server.model.description(root), ResourceDescription.of(instance.resourceDescription(root)));
+            assertEquals(List.of(new RecursiveRead("/", 4), new RecursiveRead("/", 2), new RecursiveRead("/", 1)),
+                    server.recursiveReads);
+        }
+    }
+
+    @Test
+    void splitOnClosedConnection() {
+        var server = new FakeServer();
+        server.recursiveFailure = (address, depth) -> depth > 2 ? "" : null;
+        try (var instance = server.instance(1, 1, 4)) {
+            var root = ResourceAddress.of("/");
+
+            assertEquals(server.model.description(root), ResourceDescription.of(instance.resourceDescription(root)));
+            assertEquals(List.of(new RecursiveRead("/", 4), new RecursiveRead("/", 2)), server.recursiveReads);
+        }
+    }
+
+    @Test
+    void noSplitOnOtherFailures() {
+        for (var failure : List.of("WFLYCTL0313: Unauthorized to execute operation 'read-resource-description'",
+                "WFLYCTL0216: Management resource '[]' not found")) {
+            var server = new FakeServer();
+            server.recursiveFailure = (address, depth) -> failure;
+            try (var instance = server.instance(1, 1, 4)) {
+                var root = ResourceAddress.of("/");
+
+                // read on its own
+                assertEquals(server.model.description(root),
+                        ResourceDescription.of(instance.resourceDescription(root)));
+                assertEquals(List.of(new RecursiveRead("/", 4)), server.recursiveReads, failure);
+            }
+        }
+    }
+
+    @Test
+    void adaptDepth() {
+        var server = new FakeServer();
+        var addresses = walk(server.model).stream()
+                .map(visited -> ResourceAddress.of(visited.address()))
+                .filter(address -> address.size() > 0)
+                .toList();
+        assertTrue(addresses.size() > 1);
+        try (var instance = server.instance(1, 1, 3)) {
+            // too many resources reduce the depth, but not below one level
+            instance.adapt(3, WildFlyInstance.MAX_BULK_RESOURCES + 1);
+            instance.adapt(2, WildFlyInstance.MAX_BULK_RESOURCES + 1);
+            instance.adapt(1, WildFlyInstance.MAX_BULK_RESOURCES + 1);
+            instance.resourceDescription(addresses.get(0));
+            assertEquals(new RecursiveRead(addresses.get(0).toString(), 1), server.recursiveReads.getLast());
+
+            // few resources increase it again, but not beyond the bulk depth
+            instance.adapt(1, WildFlyInstance.MAX_BULK_RESOURCES / 8 - 1);
+            instance.adapt(2, WildFlyInstance.MAX_BULK_RESOURCES / 8 - 1);
+            instance.adapt(3, WildFlyInstance.MAX_BULK_RESOURCES / 8 - 1);
+            instance.resourceDescription(addresses.get(1));
+            assertEquals(new RecursiveRead(addresses.get(1).toString(), 3), server.recursiveReads.getLast());
+        }
+    }
+
+    @Test
+    void concurrentBulkReads() throws Exception {
+        var server = new FakeServer();
+        server.delay = 50;
+        try (var instance = server.instance(2, 1, 2);
+                var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var root = ResourceAddress.of("/");
+            var description = executor.submit(() -> instance.resourceDescription(root));
+            var children = executor.submit(() -> instance.children(root));
+
+            assertEquals(server.model.description(root), ResourceDescription.of(description.get()));
+            assertEquals(server.model.children(root), children.get());
+            assertEquals(List.of(new RecursiveRead("/", 2)), server.recursiveReads);
+        }
+    }
+
+    /** A model with more siblings than operations in flight. */
+    private static String wideModel() {
+        var resources = IntStream.range(0, 8)
+                .mapToObj(i -> String.format("""
+                        "r%d": {"description": "R%<d", "children": {"b": {"description": "B", "model-description": {
+                            "x": {"description": "X"}, "y": {"description": "Y"}}}}}""", i))
+                .collect(joining(", "));
+        return """
+                {"description": "Root", "children": {"a": {"description": "A", "model-description": {%s}}}}"""
+                .formatted(resources);
+    }
+
+    record Visited(String address, String parent, ResourceDescription description) {
+    }
+
+    static List<Visited> walk(ManagementModel model) {
+        List<Visited> visited = new ArrayList<>();
+        model.walk(ResourceAddress.of("/"), 10, (address, parent, description) -> visited.add(
+                new Visited(address.toString(), parent != null ? parent.toString() : null, description.get())));
+        return visited;
+    }
+
+    /** Returns the resource description of the address in the result of a recursive read. */
+    private static ModelNode lookup(ModelNode recursive, ResourceAddress address) {
+        if (address.parent() == null) {
+            return recursive;
+        }
+        return lookup(recursive, address.parent()).get(CHILDREN, address.type(), MODEL_DESCRIPTION, address.value());
+    }
+}
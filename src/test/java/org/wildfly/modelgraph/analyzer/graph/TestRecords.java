@@ -0,0 +1,51 @@
+package org.wildfly.modelgraph.analyzer.graph;
+
+import java.util.List;
+
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Attribute;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Operation;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Parameter;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceDescription.Value;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.OperationNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ParameterNode;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ResourceNode;
+
+/** Creates node records with only the properties a test cares about. */
+public interface TestRecords {
+
+    static ResourceNode resource(ResourceAddress address) {
+        return resource(address, null, null);
+    }
+
+    static ResourceNode resource(ResourceAddress address, String description, Deprecation deprecation) {
+        return new ResourceNode(address, description, null, null, deprecation);
+    }
+
+    static AttributeNode attribute(ResourceAddress address, List<String> path, String name) {
+        return attribute(address, path, name, value(null, null, null), null);
+    }
+
+    static AttributeNode attribute(ResourceAddress address, List<String> path, String name, Value value,
+            Deprecation deprecation) {
+        return new AttributeNode(address, path, new Attribute(name, value, null, null, null, null, null, null, null,
+                List.of(), List.of()), deprecation);
+    }
+
+    static OperationNode operation(ResourceAddress address, String name, boolean global) {
+        return new OperationNode(address, new Operation(name, null, null, null, null, null, null, List.of(), null),
+                global, null);
+    }
+
+    static ParameterNode parameter(ResourceAddress address, String operation, List<String> path, String name) {
+        return new ParameterNode(address, operation, path, new Parameter(name, value(null, null, null), List.of()),
+                null);
+    }
+
+    static Value value(List<String> allowed, Long max, Boolean nillable) {
+        return new Value(allowed, null, max, null, null, null, nillable, null, null, null, null, null, null,
+                List.of(), List.of(), null);
+    }
+}
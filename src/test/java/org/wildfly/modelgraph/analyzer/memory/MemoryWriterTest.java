@@ -0,0 +1,92 @@
+package org.wildfly.modelgraph.analyzer.memory;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.collections.api.factory.primitive.IntLists;
+import org.junit.jupiter.api.Test;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ChildOf;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.DeclaresCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ProvidesGlobalOperation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Relation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.attribute;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.operation;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.parameter;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.resource;
+
+class MemoryWriterTest {
+
+    @Test
+    void resources() {
+        var root = ResourceAddress.of("/");
+        var foo = ResourceAddress.of("/subsystem=foo");
+        try (var writer = new MemoryWriter()) {
+            writer.write(resource(root), counters -> {
+                assertEquals(1, counters.nodesCreated());
+                assertEquals(0, counters.relationshipsCreated());
+            });
+            writer.write(resource(foo, null, new Deprecation("reason", 1, 2, 3)),
+                    counters -> {
+                        // resource and version
+                        assertEquals(2, counters.nodesCreated());
+                        assertEquals(1, counters.relationshipsCreated());
+                    });
+            writer.write(new ChildOf(foo, root), counters -> assertEquals(1, counters.relationshipsCreated()));
+            writer.write(new ChildOf(foo, ResourceAddress.of("/subsystem=bar")),
+                    counters -> assertEquals(0, counters.relationshipsCreated()));
+            assertTrue(writer.exists(foo));
+            assertFalse(writer.exists(ResourceAddress.of("/subsystem=bar")));
+
+            var graph = writer.graph();
+            var subsystem = graph.nodes("Resource", "name", "subsystem=foo").getFirst();
+            assertEquals("Resource", graph.label(subsystem));
+            assertEquals(graph.nodes("Resource", "name", "/"), graph.outgoing(subsystem, "CHILD_OF"));
+            assertEquals(1, graph.count("Resource", "DEPRECATED_SINCE", "Version"));
+            var deprecated = graph.relationships("DEPRECATED_SINCE").getFirst();
+            assertEquals("reason", graph.relationshipProperty(deprecated, "reason"));
+            assertEquals(3, graph.property(graph.end(deprecated), "patch"));
+        }
+    }
+
+    @Test
+    void shape() {
+        var foo = ResourceAddress.of("/subsystem=foo");
+        var bar = ResourceAddress.of("/subsystem=bar");
+        try (var writer = new MemoryWriter()) {
+            writer.write(resource(foo), counters -> {});
+            writer.write(resource(bar), counters -> {});
+            writer.write(new DeclaresCapability(foo, "org.wildfly.foo", null), counters -> {});
+            writer.write(new DeclaresCapability(bar, "org.wildfly.foo", null),
+                    counters -> assertEquals(0, counters.nodesCreated()));
+            writer.write(attribute(foo, List.of(), "a"), counters -> {});
+            writer.write(attribute(foo, List.of("a"), "b"), counters -> {});
+            writer.write(attribute(foo, List.of(), "c"), counters -> {});
+            writer.write(new AttributeRelation(foo, List.of(), "a", "c", Relation.ALTERNATIVE), counters -> {});
+            writer.write(new AttributeRelation(foo, List.of(), "c", "a", Relation.ALTERNATIVE),
+                    counters -> assertEquals(0, counters.relationshipsCreated()));
+            writer.write(operation(foo, "read-resource", true),
+                    counters -> {});
+            writer.write(new ProvidesGlobalOperation(bar, "read-resource"), counters -> {});
+            writer.write(parameter(bar, "read-resource", List.of(), "recursive"), counters -> {});
+
+            var graph = writer.graph();
+            assertEquals(Map.of("Resource", 2, "Capability", 1, "Attribute", 3, "Operation", 1, "Parameter", 1),
+                    graph.labelCounts());
+            assertEquals(2, graph.count("Resource", "DECLARES_CAPABILITY", "Capability"));
+            assertEquals(2, graph.count("Resource", "HAS_ATTRIBUTE", null));
+            assertEquals(1, graph.count("Attribute", "CONSISTS_OF", "Attribute"));
+            assertEquals(1, graph.count(null, "ALTERNATIVE", null));
+            assertEquals(2, graph.count("Resource", "PROVIDES", "Operation"));
+            assertEquals(1, graph.count("Operation", "ACCEPTS", "Parameter"));
+            assertEquals(0, graph.count("Resource", "UNKNOWN", null));
+            assertEquals(IntLists.immutable.empty(), graph.nodes("Unknown"));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.AsyncTransaction;
+import org.neo4j.driver.async.ResultCursor;
+import org.neo4j.driver.exceptions.ClientException;
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.summary.ResultSummary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncNeo4jClientTest {
+
+    AsyncDatabase database;
+
+    @BeforeEach
+    void beforeEach() {
+        database = new AsyncDatabase();
+    }
+
+    @Test
+    void window() throws Exception {
+        var client = new AsyncNeo4jClient(database.driver(), true, 2, 100, 60_000);
+        client.execute(new Cypher("CREATE (a)"), counters -> {
+        });
+        client.execute(new Cypher("CREATE (b)"), counters -> {
+        });
+        assertEquals(2, database.statements.size());
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var third = executor.submit(() -> client.execute(new Cypher("CREATE (c)"), counters -> {
+            }));
+            assertThrows(TimeoutException.class, () -> third.get(100, TimeUnit.MILLISECONDS));
+            assertEquals(2, database.statements.size());
+
+            database.statements.getFirst().complete();
+            third.get(5, TimeUnit.SECONDS);
+            assertEquals(3, database.statements.size());
+        }
+        database.statements.forEach(Statement::complete);
+        client.close();
+
+        assertEquals(1, database.commits.get());
+    }
+
+    @Test
+    void rollbackOnFailure() {
+        var client = new AsyncNeo4jClient(database.driver(), true, 10, 100, 60_000);
+        List<String> reported = new ArrayList<>();
+        client.execute(new Cypher("CREATE (a)"), counters -> reported.add("a"));
+        client.execute(new Cypher("CREATE (b)"), counters -> reported.add("b"));
+
+        var failure = new ClientException("Neo.ClientError.Statement.SyntaxError", "invalid");
+        database.statements.get(0).complete();
+        database.statements.get(1).fail(failure);
+
+        assertSame(failure, assertThrows(ClientException.class, () -> client.execute(new Cypher("CREATE (c)"),
+                counters -> reported.add("c"))));
+        assertEquals(1, database.rollbacks.get());
+        assertEquals(0, database.commits.get());
+        assertEquals(2, database.statements.size());
+        assertTrue(reported.isEmpty());
+    }
+
+    @Test
+    void countersOnCallingThread() throws Exception {
+        var client = new AsyncNeo4jClient(database.driver(), true, 10, 2, 60_000);
+        var caller = Thread.currentThread();
+        List<Thread> reported = new CopyOnWriteArrayList<>();
+        for (var name : List.of("a", "b")) {
+            client.execute(new Cypher("CREATE (" + name + ")"), counters -> reported.add(Thread.currentThread()));
+        }
+
+        // the driver completes the statements and commits the chunk on its own threads
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> database.statements.forEach(Statement::complete)).get();
+        }
+        assertTrue(reported.isEmpty());
+        assertEquals(1, database.commits.get());
+
+        client.flush();
+        assertEquals(List.of(caller, caller), reported);
+        client.close();
+    }
+
+    /** A statement whose result is completed by the test. */
+    record Statement(String cypher, CompletableFuture<ResultCursor> cursor) {
+
+        void complete() {
+            cursor.complete(AsyncDatabase.proxy(ResultCursor.class, (name, args) -> switch (name) {
+                case "consumeAsync", "forEachAsync" -> CompletableFuture.completedFuture(
+                        AsyncDatabase.proxy(ResultSummary.class, (n, a) -> "counters".equals(n)
+                                ? InternalSummaryCounters.EMPTY_STATS
+                                : null));
+                default -> null;
+            }));
+        }
+
+        void fail(Throwable throwable) {
+            cursor.completeExceptionally(throwable);
+        }
+    }
+
+    /** Fake database which keeps the statements pending until the test completes them. */
+    static class AsyncDatabase {
+
+        final List<Statement> statements = new CopyOnWriteArrayList<>();
+        final AtomicInteger commits = new AtomicInteger();
+        final AtomicInteger rollbacks = new AtomicInteger();
+
+        Driver driver() {
+            return proxy(Driver.class, (name, args) -> switch (name) {
+                case "session" -> session();
+                default -> null;
+            });
+        }
+
+        private AsyncSession session() {
+            return proxy(AsyncSession.class, (name, args) -> switch (name) {
+                case "beginTransactionAsync" -> CompletableFuture.completedFuture(transaction());
+                case "closeAsync" -> CompletableFuture.completedFuture(null);
+                default -> null;
+            });
+        }
+
+        private AsyncTransaction transaction() {
+            var rolledBack = new boolean[1];
+            return proxy(AsyncTransaction.class, (name, args) -> switch (name) {
+                case "runAsync" -> {
+                    if (rolledBack[0]) {
+                        throw new ClientException("Neo.ClientError.Transaction.TransactionNotFound", "closed");
+                    }
+                    var statement = new Statement((String) args[0], new CompletableFuture<>());
+                    statements.add(statement);
+                    yield statement.cursor();
+                }
+                case "commitAsync" -> {
+                    commits.incrementAndGet();
+                    yield CompletableFuture.completedFuture(null);
+                }
+                case "rollbackAsync" -> {
+                    rolledBack[0] = true;
+                    rollbacks.incrementAndGet();
+                    yield CompletableFuture.completedFuture(null);
+                }
+                default -> null;
+            });
+        }
+
+        @FunctionalInterface
+        interface Handler {
+            Object invoke(String name, Object[] args);
+        }
+
+        static <T> T proxy(Class<T> type, Handler handler) {
+            return type.cast(Proxy.newProxyInstance(AsyncNeo4jClientTest.class.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> handler.invoke(method.getName(), args)));
+        }
+    }
+}
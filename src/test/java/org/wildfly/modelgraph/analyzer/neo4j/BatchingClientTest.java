@@ -0,0 +1,98 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.summary.SummaryCounters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchingClientTest {
+
+    List<Cypher> executed;
+    GraphClient delegate;
+
+    @BeforeEach
+    void beforeEach() {
+        executed = new ArrayList<>();
+        delegate = new GraphClient() {
+            @Override
+            public void execute(Cypher cypher, Consumer<SummaryCounters> counters) {
+                executed.add(cypher);
+                counters.accept(InternalSummaryCounters.EMPTY_STATS);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Test
+    void sameShape() {
+        var client = new BatchingClient(delegate, 10);
+        client.execute(childOf("/a=b", "/"), counters -> {
+        });
+        client.execute(childOf("/c=d", "/"), counters -> {
+        });
+        assertTrue(executed.isEmpty());
+
+        client.flush();
+        assertEquals(1, executed.size());
+        assertTrue(executed.getFirst().statement().startsWith("UNWIND $rows AS row"));
+        assertEquals(2, executed.getFirst().parameters().get("rows").size());
+    }
+
+    @Test
+    void order() {
+        var client = new BatchingClient(delegate, 10);
+        client.execute(childOf("/a=b", "/"), counters -> {
+        });
+        client.execute(resource("/a=b"), counters -> {
+        });
+        client.flush();
+        assertEquals(2, executed.size());
+        assertTrue(executed.get(0).statement().contains("CREATE (r:Resource"));
+        assertTrue(executed.get(1).statement().contains("CHILD_OF"));
+    }
+
+    @Test
+    void batchSize() {
+        var client = new BatchingClient(delegate, 2);
+        client.execute(childOf("/a=b", "/"), counters -> {
+        });
+        client.execute(childOf("/c=d", "/"), counters -> {
+        });
+        assertEquals(1, executed.size());
+    }
+
+    @Test
+    void notBatchable() {
+        var client = new BatchingClient(delegate, 10);
+        client.execute(childOf("/a=b", "/"), counters -> {
+        });
+        client.execute(new Cypher("MERGE (:Identity)"), counters -> {
+        });
+        assertEquals(2, executed.size());
+        assertEquals("MERGE (:Identity)", executed.get(1).statement());
+    }
+
+    private Cypher resource(String address) {
+        return new Cypher("CREATE (r:Resource {").append("address", address).append("})")
+                .kind(Cypher.Kind.RESOURCE);
+    }
+
+    private Cypher childOf(String child, String parent) {
+        return new Cypher("MATCH (child:Resource {")
+                .append("address", "child", child).append("}),")
+                .append("(parent:Resource {")
+                .append("address", "parent", parent).append("})")
+                .append(" MERGE (child)-[:CHILD_OF]->(parent)")
+                .kind(Cypher.Kind.CHILD_OF);
+    }
+}
@@ -0,0 +1,125 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ChildOf;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.DeclaresCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ProvidesGlobalOperation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Relation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.SensitiveConstraint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.attribute;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.operation;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.parameter;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.resource;
+
+class CompositeWriterTest {
+
+    List<Cypher> executed;
+    GraphClient client;
+
+    @BeforeEach
+    void beforeEach() {
+        executed = new ArrayList<>();
+        client = new GraphClient() {
+            @Override
+            public void execute(Cypher cypher, Consumer<SummaryCounters> counters) {
+                executed.add(cypher);
+                counters.accept(InternalSummaryCounters.EMPTY_STATS);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Test
+    void oneStatementPerResource() {
+        var root = ResourceAddress.of("/");
+        var foo = ResourceAddress.of("/subsystem=foo");
+        var writer = new CompositeWriter(client);
+        writer.write(resource(root), counters -> {});
+        writer.write(resource(foo), counters -> {});
+        assertEquals(1, executed.size());
+
+        writer.write(new ChildOf(foo, root), counters -> {});
+        writer.write(new DeclaresCapability(foo, "org.wildfly.foo", null), counters -> {});
+        writer.write(attribute(foo, List.of(), "a"), counters -> {});
+        writer.write(attribute(foo, List.of("a"), "b"), counters -> {});
+        writer.write(operation(foo, "add", false), counters -> {});
+        writer.write(parameter(foo, "add", List.of(), "p"), counters -> {});
+        writer.write(new ProvidesGlobalOperation(foo, "read-resource"), counters -> {});
+        assertEquals(1, executed.size());
+        writer.flush();
+
+        assertEquals(2, executed.size());
+        assertSame(CompositeWriter.STATEMENT, executed.get(1).statement());
+        var doc = executed.get(1).parameterMap().get("doc");
+        assertEquals("/", doc.get("parent").asString());
+        assertEquals("org.wildfly.foo", doc.get("capabilities").get(0).get("name").asString());
+        assertEquals(-1, doc.get("attributes").get(0).get("parent").asInt());
+        assertEquals(0, doc.get("attributes").get(1).get("parent").asInt());
+        assertEquals("b", doc.get("attributes").get(1).get("props").get("name").asString());
+        assertEquals(0, doc.get("parameters").get(0).get("operation").asInt());
+        assertEquals(List.of("read-resource"), doc.get("globalOperations").asList());
+    }
+
+    @Test
+    void relations() {
+        var foo = ResourceAddress.of("/subsystem=foo");
+        var writer = new CompositeWriter(client);
+        writer.write(resource(foo), counters -> {});
+        writer.write(attribute(foo, List.of(), "a"), counters -> {});
+        writer.write(attribute(foo, List.of(), "b"), counters -> {});
+        writer.write(new AttributeRelation(foo, List.of(), "a", "b", Relation.ALTERNATIVE), counters -> {});
+        writer.write(new AttributeRelation(foo, List.of(), "b", "a", Relation.ALTERNATIVE),
+                counters -> assertEquals(0, counters.relationshipsCreated()));
+        writer.write(new AttributeRelation(foo, List.of(), "b", "a", Relation.REQUIRES), counters -> {});
+        writer.write(new SensitiveConstraint(foo, List.of(), "a", "credential", "sensitive"), counters -> {});
+        writer.flush();
+
+        var attributes = executed.getFirst().parameterMap().get("doc").get("attributes");
+        assertEquals(List.of(1L), attributes.get(0).get("alternatives").asList());
+        assertEquals(List.of(), attributes.get(1).get("alternatives").asList());
+        assertEquals(List.of(0L), attributes.get(1).get("requires").asList());
+        assertEquals("credential", attributes.get(0).get("sensitive").get(0).get("name").asString());
+    }
+
+    @Test
+    void counters() {
+        var foo = ResourceAddress.of("/subsystem=foo");
+        var bar = ResourceAddress.of("/subsystem=bar");
+        var deprecation = new Deprecation("reason", 1, 0, 0);
+        List<Integer> nodes = new ArrayList<>();
+        var writer = new CompositeWriter(client);
+        writer.write(resource(foo, null, deprecation),
+                counters -> nodes.add(counters.nodesCreated()));
+        writer.write(new DeclaresCapability(foo, "org.wildfly.foo", null),
+                counters -> nodes.add(counters.nodesCreated()));
+        writer.write(resource(bar, null, deprecation),
+                counters -> nodes.add(counters.nodesCreated()));
+        writer.write(new DeclaresCapability(bar, "org.wildfly.foo", null),
+                counters -> nodes.add(counters.nodesCreated()));
+        writer.write(attribute(bar, List.of("unknown"), "a"),
+                counters -> nodes.add(counters.nodesCreated()));
+        assertEquals(List.of(2, 1), nodes);
+        writer.flush();
+
+        // resource + version, capability, resource, existing capability, attribute w/o parent
+        assertEquals(List.of(2, 1, 1, 0, 0), nodes);
+        assertTrue(executed.get(1).parameterMap().get("doc").get("attributes").asList().isEmpty());
+    }
+}
@@ -51,4 +51,17 @@ class CypherTest {
         assertEquals(1, parameters.size());
         assertEquals("bar-foo", parameters.get("foo_bar").asString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void unwind() {
+        var cypher = new Cypher("MATCH (r:Resource {")
+                .append("address", "/foo=bar")
+                .append("}) MERGE (r)-[:HAS_ATTRIBUTE]->(a:Attribute {")
+                .append("max-length", 42)
+                .append("})")
+                .kind(Cypher.Kind.ATTRIBUTE);
+        assertTrue(cypher.batchable());
+        assertEquals("UNWIND $rows AS row MATCH (r:Resource {address: row.address}) " +
+                "MERGE (r)-[:HAS_ATTRIBUTE]->(a:Attribute {`max-length`: row.max_length})", cypher.unwindStatement());
+    }
+}
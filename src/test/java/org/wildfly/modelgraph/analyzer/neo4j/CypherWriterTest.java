@@ -0,0 +1,141 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.summary.SummaryCounters;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.AttributeRelation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Relation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.attribute;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.resource;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.value;
+
+class CypherWriterTest {
+
+    List<Cypher> executed;
+    List<String> existing;
+    GraphClient client;
+
+    @BeforeEach
+    void beforeEach() {
+        executed = new ArrayList<>();
+        existing = new ArrayList<>();
+        client = new GraphClient() {
+            @Override
+            public void execute(Cypher cypher, Consumer<SummaryCounters> counters) {
+                executed.add(cypher);
+                if (cypher.records() != null && cypher.statement().startsWith("MATCH (r:Resource) RETURN")) {
+                    for (var address : existing) {
+                        cypher.records().accept(new InternalRecord(List.of("address"),
+                                List.of(Values.value(address))));
+                    }
+                } else if (cypher.records() != null) {
+                    var key = cypher.parameterMap().get("cacheKey").asString();
+                    cypher.records().accept(new InternalRecord(List.of(ElementIdCache.KEY, ElementIdCache.ID),
+                            List.of(Values.value(key), Values.value("id-" + executed.size()))));
+                }
+                counters.accept(InternalSummaryCounters.EMPTY_STATS);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Test
+    void noCache() {
+        var writer = new CypherWriter(client);
+        var address = ResourceAddress.of("/subsystem=foo");
+        writer.write(resource(address), counters -> {});
+        writer.write(attribute(address, List.of(), "a"), counters -> {});
+
+        assertFalse(executed.get(0).statement().contains("RETURN"));
+        assertEquals("MATCH (r:Resource {address: $address})"
+                + " MERGE (r)-[:HAS_ATTRIBUTE]->(a:Attribute {name: $name}) SET a += $props", executed.get(1).statement());
+    }
+
+    @Test
+    void bindByElementId() {
+        var writer = new CypherWriter(client, 10);
+        var address = ResourceAddress.of("/subsystem=foo");
+        writer.write(resource(address), counters -> {});
+        writer.write(attribute(address, List.of(), "a"), counters -> {});
+        writer.write(attribute(address, List.of("a"), "b"), counters -> {});
+        writer.write(attribute(address, List.of("a"), "c"), counters -> {});
+        writer.write(new AttributeRelation(address, List.of("a"), "b", "c", Relation.REQUIRES), counters -> {});
+
+        assertEquals("CREATE (r:Resource) SET r += $props RETURN $cacheKey AS key, elementId(r) AS id",
+                executed.get(0).statement());
+        assertEquals("MATCH (r) WHERE elementId(r) = $rId MERGE (r)-[:HAS_ATTRIBUTE]->(a:Attribute {name: $name})"
+                + " SET a += $props RETURN $cacheKey AS key, elementId(a) AS id", executed.get(1).statement());
+        assertEquals("id-1", executed.get(1).parameterMap().get("rId").asString());
+        assertTrue(executed.get(2).statement().startsWith(
+                "MATCH (parent) WHERE elementId(parent) = $parentId MERGE (parent)-[:CONSISTS_OF]->"));
+        assertEquals("id-2", executed.get(2).parameterMap().get("parentId").asString());
+        assertEquals("MATCH (source) WHERE elementId(source) = $sourceId"
+                        + " MATCH (target) WHERE elementId(target) = $targetId MERGE (source)-[:REQUIRES]->(target)",
+                executed.get(4).statement());
+    }
+
+    @Test
+    void templates() {
+        var writer = new CypherWriter(client);
+        var address = ResourceAddress.of("/subsystem=foo");
+        writer.write(attribute(address, List.of("a", "b"), "c", value(null, 42L, null), null),
+                counters -> {});
+        writer.write(attribute(address, List.of("x", "y"), "z", value(null, null, null), new Deprecation("reason", 1, 0, 0)), counters -> {});
+        writer.write(attribute(address, List.of("x", "y"), "w", value(null, null, true), null),
+                counters -> {});
+
+        assertEquals("MATCH (r:Resource {address: $address})"
+                        + "-[:HAS_ATTRIBUTE]->(n0:Attribute {name: $path[0]})"
+                        + "-[:CONSISTS_OF]->(n1:Attribute {name: $path[1]})"
+                        + " MERGE (n1)-[:CONSISTS_OF]->(a:Attribute {name: $name}) SET a += $props",
+                executed.get(0).statement());
+        assertTrue(executed.get(1).statement().contains("DEPRECATED_SINCE"));
+        // same shape, different properties
+        assertSame(executed.get(0).statement(), executed.get(2).statement());
+        assertEquals(List.of("x", "y"), executed.get(2).parameterMap().get("path").asList());
+        assertEquals(42L, executed.get(0).parameterMap().get("props").get("max").asLong());
+    }
+
+    @Test
+    void evict() {
+        var writer = new CypherWriter(client, 1);
+        var foo = ResourceAddress.of("/subsystem=foo");
+        var bar = ResourceAddress.of("/subsystem=bar");
+        writer.write(resource(foo), counters -> {});
+        writer.write(resource(bar), counters -> {});
+        writer.write(attribute(foo, List.of(), "a"), counters -> {});
+
+        assertTrue(executed.get(2).statement().startsWith("MATCH (r:Resource {address: $address})"));
+    }
+
+    @Test
+    void exists() {
+        existing.addAll(List.of("/", "/subsystem=foo"));
+        var writer = new CypherWriter(client);
+        assertTrue(writer.exists(ResourceAddress.of("/subsystem=foo")));
+        assertFalse(writer.exists(ResourceAddress.of("/subsystem=bar")));
+        writer.write(resource(ResourceAddress.of("/subsystem=bar")),
+                counters -> {});
+        assertTrue(writer.exists(ResourceAddress.of("/subsystem=bar")));
+
+        // addresses are loaded only once
+        assertEquals(1, executed.stream().filter(cypher -> cypher.statement().contains("r.address")).count());
+    }
+}
@@ -0,0 +1,64 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ChildOf;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.DeclaresCapability;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.Deprecation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.attribute;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.resource;
+
+class DryRunWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void counters() {
+        var foo = ResourceAddress.of("/subsystem=foo");
+        var bar = ResourceAddress.of("/subsystem=bar");
+        var deprecation = new Deprecation("reason", 1, 0, 0);
+        List<String> counters = new ArrayList<>();
+        try (var writer = new DryRunWriter(null)) {
+            writer.write(resource(foo, null, deprecation),
+                    c -> counters.add(c.nodesCreated() + "/" + c.relationshipsCreated()));
+            writer.write(resource(bar, null, deprecation),
+                    c -> counters.add(c.nodesCreated() + "/" + c.relationshipsCreated()));
+            writer.write(new ChildOf(bar, foo),
+                    c -> counters.add(c.nodesCreated() + "/" + c.relationshipsCreated()));
+            writer.write(new DeclaresCapability(foo, "org.wildfly.foo", null),
+                    c -> counters.add(c.nodesCreated() + "/" + c.relationshipsCreated()));
+            writer.write(new DeclaresCapability(bar, "org.wildfly.foo", null),
+                    c -> counters.add(c.nodesCreated() + "/" + c.relationshipsCreated()));
+            writer.write(attribute(foo, List.of(), "a"),
+                    c -> counters.add(c.nodesCreated() + "/" + c.relationshipsCreated()));
+        }
+        assertEquals(List.of("2/1", "1/1", "0/1", "1/1", "0/1", "1/1"), counters);
+    }
+
+    @Test
+    void capture() throws IOException {
+        var file = directory.resolve("statements.cypher");
+        var foo = ResourceAddress.of("/subsystem=foo");
+        try (var writer = new DryRunWriter(file)) {
+            writer.write(resource(foo), counters -> {});
+            writer.write(attribute(foo, List.of(), "a"), counters -> {});
+        }
+
+        var lines = Files.readAllLines(file);
+        assertEquals(4, lines.size());
+        assertTrue(lines.get(0).startsWith("// "));
+        assertEquals("CREATE (r:Resource) SET r += $props;", lines.get(1));
+        assertTrue(lines.get(3).contains("MERGE (r)-[:HAS_ATTRIBUTE]->"));
+    }
+}
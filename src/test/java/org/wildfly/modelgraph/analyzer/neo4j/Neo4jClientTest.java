@@ -0,0 +1,233 @@
+package org.wildfly.modelgraph.analyzer.neo4j;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.exceptions.TransientException;
+import org.neo4j.driver.internal.InternalRecord;
+import org.neo4j.driver.internal.summary.InternalSummaryCounters;
+import org.neo4j.driver.summary.ResultSummary;
+import org.wildfly.modelgraph.analyzer.dmr.ResourceAddress;
+import org.wildfly.modelgraph.analyzer.graph.GraphRecord.ChildOf;
+import org.wildfly.modelgraph.analyzer.graph.GraphWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.wildfly.modelgraph.analyzer.graph.TestRecords.resource;
+
+class Neo4jClientTest {
+
+    Database database;
+
+    @BeforeEach
+    void beforeEach() {
+        database = new Database();
+    }
+
+    @Test
+    void replayRebindsElementIds() {
+        database.transientFailures = 1;
+        var writer = new CypherWriter(new Neo4jClient(database.driver(), true, 100, 60_000), 100);
+        writeChildOf(writer);
+        writer.close();
+
+        assertEquals(1, database.replays);
+        assertEquals(1, database.relations.size());
+        assertTrue(database.nodes.containsAll(database.relations.getFirst()));
+    }
+
+    @Test
+    void replayRebindsBatchedElementIds() {
+        database.transientFailures = 1;
+        var client = new BatchingClient(new Neo4jClient(database.driver(), true, 100, 60_000), 2);
+        var writer = new CypherWriter(client, 100);
+        writeChildOf(writer);
+        writer.close();
+
+        assertEquals(1, database.replays);
+        assertEquals(1, database.relations.size());
+        assertTrue(database.nodes.containsAll(database.relations.getFirst()));
+    }
+
+    @Test
+    void commitAtTxSize() {
+        var client = new Neo4jClient(database.driver(), true, 3, 60_000);
+        execute(client, 7);
+        assertEquals(List.of(3, 3), database.commits);
+
+        client.close();
+        assertEquals(List.of(3, 3, 1), database.commits);
+    }
+
+    @Test
+    void commitAfterTxTimeout() throws InterruptedException {
+        var client = new Neo4jClient(database.driver(), true, 100, 20);
+        execute(client, 1);
+        Thread.sleep(30);
+        execute(client, 1);
+        assertEquals(List.of(2), database.commits);
+
+        execute(client, 1);
+        client.close();
+        assertEquals(List.of(2, 1), database.commits);
+    }
+
+    @Test
+    void adjustChunkSize() {
+        var client = new Neo4jClient(database.driver(), true, 8, 100);
+        // commits slower than half the timeout shrink the chunks
+        database.commitDelay = 60;
+        execute(client, 8 + 4 + 2);
+        assertEquals(List.of(8, 4, 2), database.commits);
+
+        // fast commits grow them again, up to the transaction size
+        database.commitDelay = 0;
+        execute(client, 1 + 2 + 4 + 8 + 8);
+        assertEquals(List.of(8, 4, 2, 1, 2, 4, 8, 8), database.commits);
+        client.close();
+    }
+
+    private void execute(GraphClient client, int statements) {
+        for (int i = 0; i < statements; i++) {
+            client.execute(new Cypher("CREATE (n)"), counters -> {
+            });
+        }
+    }
+
+    private void writeChildOf(GraphWriter writer) {
+        writer.write(resource(ResourceAddress.of("/")), counters -> {
+        });
+        writer.write(resource(ResourceAddress.of("/a=b")), counters -> {
+        });
+        writer.write(new ChildOf(ResourceAddress.of("/a=b"), ResourceAddress.of("/")), counters -> {
+        });
+    }
+
+    /**
+     * Fake database which creates a node for each statement with a cache key and a relation for each
+     * {@code CHILD_OF} statement which binds existing nodes by element ID.
+     */
+    static class Database {
+
+        final Set<String> nodes = new HashSet<>();
+        final List<List<String>> relations = new ArrayList<>();
+        /** The number of statements of each committed transaction. */
+        final List<Integer> commits = new ArrayList<>();
+        int transientFailures;
+        long commitDelay;
+        int replays;
+        private int sequence;
+
+        Driver driver() {
+            return proxy(Driver.class, (name, args) -> switch (name) {
+                case "session" -> session();
+                default -> null;
+            });
+        }
+
+        private Session session() {
+            return proxy(Session.class, (name, args) -> switch (name) {
+                case "beginTransaction" -> transaction();
+                default -> null;
+            });
+        }
+
+        private Transaction transaction() {
+            var txNodes = new HashSet<String>();
+            var txRelations = new ArrayList<List<String>>();
+            var open = new boolean[]{true};
+            var statements = new int[1];
+            return proxy(Transaction.class, (name, args) -> switch (name) {
+                case "run" -> {
+                    statements[0]++;
+                    yield run((String) args[0], (Value) args[1], txNodes, txRelations);
+                }
+                case "commit" -> {
+                    open[0] = false;
+                    sleep(commitDelay);
+                    if (transientFailures > 0) {
+                        transientFailures--;
+                        replays++;
+                        throw new TransientException("Neo.TransientError.Transaction.DeadlockDetected", "deadlock");
+                    }
+                    nodes.addAll(txNodes);
+                    relations.addAll(txRelations);
+                    commits.add(statements[0]);
+                    yield null;
+                }
+                case "isOpen" -> open[0];
+                case "rollback", "close" -> {
+                    open[0] = false;
+                    yield null;
+                }
+                default -> null;
+            });
+        }
+
+        private Result run(String statement, Value parameters, Set<String> txNodes,
+                List<List<String>> txRelations) {
+            List<Value> rows = parameters.containsKey("rows")
+                    ? parameters.get("rows").asList(value -> value)
+                    : List.of(parameters);
+            List<Record> records = new ArrayList<>();
+            for (var row : rows) {
+                if (row.containsKey("cacheKey")) {
+                    var id = "n" + ++sequence;
+                    txNodes.add(id);
+                    records.add(new InternalRecord(List.of(ElementIdCache.KEY, ElementIdCache.ID),
+                            List.of(row.get("cacheKey"), Values.value(id))));
+                }
+                if (statement.contains("CHILD_OF") && row.containsKey("childId")) {
+                    var child = row.get("childId").asString();
+                    var parent = row.get("parentId").asString();
+                    if (txNodes.contains(child) && txNodes.contains(parent)) {
+                        txRelations.add(List.of(child, parent));
+                    }
+                }
+            }
+            return proxy(Result.class, (name, args) -> switch (name) {
+                case "forEachRemaining" -> {
+                    @SuppressWarnings("unchecked")
+                    var consumer = (Consumer<Record>) args[0];
+                    records.forEach(consumer);
+                    yield null;
+                }
+                case "consume" -> proxy(ResultSummary.class, (n, a) -> "counters".equals(n)
+                        ? InternalSummaryCounters.EMPTY_STATS
+                        : null);
+                default -> null;
+            });
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @FunctionalInterface
+        interface Handler {
+            Object invoke(String name, Object[] args);
+        }
+
+        private static <T> T proxy(Class<T> type, Handler handler) {
+            return type.cast(Proxy.newProxyInstance(Neo4jClientTest.class.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> handler.invoke(method.getName(), args)));
+        }
+    }
+}